@@ -32,6 +32,7 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import sun.misc.IOBufferCache;
 
 /**
  * Reads text from a character-input stream, buffering characters so as to
@@ -72,6 +73,9 @@ public class BufferedReader extends Reader {
     private Reader in;
 
     private char cb[];
+
+    /* True if cb was taken from the IOBufferCache */
+    private boolean pooled;
     private int nChars, nextChar;
 
     private static final int INVALIDATED = -2;
@@ -102,10 +106,26 @@ public class BufferedReader extends Reader {
         if (sz <= 0)
             throw new IllegalArgumentException("Buffer size <= 0");
         this.in = in;
-        cb = new char[sz];
+        if (sz == IOBufferCache.BUFFER_SIZE && isPoolable(in)) {
+            cb = IOBufferCache.getCharArray();
+            pooled = true;
+        } else {
+            cb = new char[sz];
+        }
         nextChar = nChars = 0;
     }
 
+    /**
+     * The buffer is handed to the underlying reader on every fill, so it may
+     * only come from the cache if that reader is a plain InputStreamReader
+     * whose decoder cannot keep a reference to it.
+     */
+    private static boolean isPoolable(Reader in) {
+        Class<?> c = in.getClass();
+        return (c == InputStreamReader.class || c == FileReader.class)
+            && ((InputStreamReader)in).hasTrustedDecoder();
+    }
+
     /**
      * Creates a buffering character-input stream that uses a default-sized
      * input buffer.
@@ -525,6 +545,10 @@ public class BufferedReader extends Reader {
                 in.close();
             } finally {
                 in = null;
+                if (pooled) {
+                    pooled = false;
+                    IOBufferCache.releaseCharArray(cb);
+                }
                 cb = null;
             }
         }
@@ -25,6 +25,8 @@
 
 package java.io;
 
+import sun.misc.IOBufferCache;
+
 
 /**
  * Writes text to a character-output stream, buffering characters so as to
@@ -68,6 +70,9 @@ public class BufferedWriter extends Writer {
     private Writer out;
 
     private char cb[];
+
+    /* True if cb was taken from the IOBufferCache */
+    private boolean pooled;
     private int nChars, nextChar;
 
     private static int defaultCharBufferSize = 8192;
@@ -102,7 +107,12 @@ public class BufferedWriter extends Writer {
         if (sz <= 0)
             throw new IllegalArgumentException("Buffer size <= 0");
         this.out = out;
-        cb = new char[sz];
+        if (sz == IOBufferCache.BUFFER_SIZE && isPoolable(out)) {
+            cb = IOBufferCache.getCharArray();
+            pooled = true;
+        } else {
+            cb = new char[sz];
+        }
         nChars = sz;
         nextChar = 0;
 
@@ -110,6 +120,17 @@ public class BufferedWriter extends Writer {
             new sun.security.action.GetPropertyAction("line.separator"));
     }
 
+    /**
+     * The buffer is handed to the underlying writer on every flush, so it
+     * may only come from the cache if that writer is a plain
+     * OutputStreamWriter whose encoder cannot keep a reference to it.
+     */
+    private static boolean isPoolable(Writer out) {
+        Class<?> c = out.getClass();
+        return (c == OutputStreamWriter.class || c == FileWriter.class)
+            && ((OutputStreamWriter)out).hasTrustedEncoder();
+    }
+
     /** Checks to make sure that the stream has not been closed */
     private void ensureOpen() throws IOException {
         if (out == null)
@@ -265,6 +286,10 @@ public class BufferedWriter extends Writer {
                 flushBuffer();
             } finally {
                 out = null;
+                if (pooled) {
+                    pooled = false;
+                    IOBufferCache.releaseCharArray(cb);
+                }
                 cb = null;
             }
         }
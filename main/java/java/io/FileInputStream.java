@@ -321,6 +321,50 @@ class FileInputStream extends InputStream
         });
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p> If this stream and <code>out</code> are both plain file streams
+     * then the bytes up to the current size of the file are moved by the
+     * file channel, which lets the operating system copy them without
+     * passing through the Java heap. Any remaining bytes, for example when
+     * this stream is not connected to a regular file, are copied as by the
+     * superclass method.
+     *
+     * @since 1.8
+     */
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        long transferred = 0;
+        if (getClass() == FileInputStream.class &&
+            out != null && out.getClass() == FileOutputStream.class) {
+            FileChannel fc = getChannel();
+            FileChannel target = ((FileOutputStream)out).getChannel();
+            long pos;
+            long size;
+            try {
+                pos = fc.position();
+                size = fc.size();
+            } catch (IOException x) {
+                // not seekable (a pipe for example), copy through the heap
+                return super.transferTo(out);
+            }
+            try {
+                while (pos < size) {
+                    long n = fc.transferTo(pos, size - pos, target);
+                    if (n <= 0)
+                        break;
+                    pos += n;
+                    transferred += n;
+                }
+            } finally {
+                if (transferred > 0)
+                    fc.position(pos);
+            }
+        }
+        return transferred + super.transferTo(out);
+    }
+
     /**
      * Returns the <code>FileDescriptor</code>
      * object  that represents the connection to
@@ -156,6 +156,16 @@ public class InputStreamReader extends Reader {
         return sd.getEncoding();
     }
 
+    /**
+     * Tells whether the arrays passed to the read methods are only seen by
+     * the decoder, and the decoder is a class of the bootstrap class loader.
+     * This method is non-private only so that BufferedReader can decide
+     * whether its buffer may come from the IOBufferCache.
+     */
+    boolean hasTrustedDecoder() {
+        return sd.hasTrustedDecoder();
+    }
+
     /**
      * Reads a single character.
      *
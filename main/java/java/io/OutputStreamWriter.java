@@ -185,6 +185,16 @@ public class OutputStreamWriter extends Writer {
         se.flushBuffer();
     }
 
+    /**
+     * Tells whether the arrays passed to the write methods are only seen by
+     * the encoder, and the encoder is a class of the bootstrap class loader.
+     * This method is non-private only so that BufferedWriter can decide
+     * whether its buffer may come from the IOBufferCache.
+     */
+    boolean hasTrustedEncoder() {
+        return se.hasTrustedEncoder();
+    }
+
     /**
      * Writes a single character.
      *
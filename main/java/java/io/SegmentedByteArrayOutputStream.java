@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * This class implements an output stream in which the data is written into
+ * a chain of byte array segments. Unlike {@link ByteArrayOutputStream}, the
+ * stream never copies the data it already holds when it grows: a new
+ * segment is added to the chain instead. Segments start small and double
+ * in size up to a fixed maximum, so that large contents are held in many
+ * moderately sized arrays rather than in one huge array.
+ *
+ * <p> The contents can be retrieved without copying, as an array of
+ * read-only {@link ByteBuffer}s ({@link #toByteBuffers()}), or written to
+ * a {@link GatheringByteChannel} with gathering writes ({@link
+ * #writeTo(GatheringByteChannel)}). {@link #toByteArray()} copies the
+ * contents exactly once.
+ *
+ * <p> Closing a <tt>SegmentedByteArrayOutputStream</tt> has no effect. The
+ * methods in this class can be called after the stream has been closed
+ * without generating an <tt>IOException</tt>.
+ *
+ * @see     java.io.ByteArrayOutputStream
+ * @since   1.8
+ */
+public class SegmentedByteArrayOutputStream extends OutputStream {
+
+    /**
+     * The size of the first segment when none is given.
+     */
+    private static final int DEFAULT_INITIAL_SIZE = 32;
+
+    /**
+     * The largest segment. Kept well below the region size of region-based
+     * collectors so that segments are never allocated as humongous objects.
+     */
+    private static final int MAX_SEGMENT_SIZE = 256 * 1024;
+
+    /**
+     * The number of segments written by one gathering write. Heap buffers
+     * are copied to temporary direct buffers by the channel, so a bounded
+     * batch keeps that temporary memory bounded as well.
+     */
+    private static final int MAX_GATHER = 16;
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in
+     * OutOfMemoryError: Requested array size exceeds VM limit
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    // the segments, only the first segmentCount elements are in use
+    private byte[][] segments;
+    private int segmentCount;
+
+    // the segment being written, its index, and the bytes written to it
+    private byte[] current;
+    private int currentIndex;
+    private int currentCount;
+
+    // the number of bytes held by the segments before the current one
+    private long priorCount;
+
+    /**
+     * Creates a new segmented output stream. The first segment is
+     * initially 32 bytes.
+     */
+    public SegmentedByteArrayOutputStream() {
+        this(DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Creates a new segmented output stream whose first segment has the
+     * specified size, in bytes. Sizes larger than the maximum segment size
+     * are reduced to that maximum.
+     *
+     * @param   size   the size of the first segment.
+     * @exception  IllegalArgumentException if size is not positive.
+     */
+    public SegmentedByteArrayOutputStream(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Non-positive initial size: "
+                                               + size);
+        }
+        current = new byte[Math.min(size, MAX_SEGMENT_SIZE)];
+        segments = new byte[8][];
+        segments[0] = current;
+        segmentCount = 1;
+    }
+
+    /**
+     * Moves to the next segment, reusing a segment left over from a
+     * {@link #reset()} if there is one.
+     */
+    private void nextSegment() {
+        priorCount += currentCount;
+        currentCount = 0;
+        if (++currentIndex < segmentCount) {
+            current = segments[currentIndex];
+            return;
+        }
+        if (segmentCount == segments.length)
+            segments = Arrays.copyOf(segments, segmentCount << 1);
+        current = new byte[Math.min(current.length << 1, MAX_SEGMENT_SIZE)];
+        segments[segmentCount++] = current;
+    }
+
+    /**
+     * Writes the specified byte to this output stream.
+     *
+     * @param   b   the byte to be written.
+     */
+    public synchronized void write(int b) {
+        if (currentCount == current.length)
+            nextSegment();
+        current[currentCount++] = (byte) b;
+    }
+
+    /**
+     * Writes <code>len</code> bytes from the specified byte array
+     * starting at offset <code>off</code> to this output stream.
+     *
+     * @param   b     the data.
+     * @param   off   the start offset in the data.
+     * @param   len   the number of bytes to write.
+     */
+    public synchronized void write(byte b[], int off, int len) {
+        if ((off < 0) || (off > b.length) || (len < 0) ||
+            ((off + len) - b.length > 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (currentCount == current.length)
+                nextSegment();
+            int n = Math.min(len, current.length - currentCount);
+            System.arraycopy(b, off, current, currentCount, n);
+            currentCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads the given input stream to its end and appends the bytes read
+     * to this output stream. The bytes are read directly into the segments
+     * of this stream. The input stream is not closed.
+     *
+     * @param      in   the input stream to read from.
+     * @return     the number of bytes read.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public synchronized long readFrom(InputStream in) throws IOException {
+        long n = 0;
+        for (;;) {
+            if (currentCount == current.length)
+                nextSegment();
+            int nr = in.read(current, currentCount,
+                             current.length - currentCount);
+            if (nr < 0)
+                return n;
+            currentCount += nr;
+            n += nr;
+        }
+    }
+
+    /**
+     * Writes the complete contents of this output stream to the specified
+     * output stream argument, one segment at a time.
+     *
+     * @param      out   the output stream to which to write the data.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        for (int i = 0; i < currentIndex; i++)
+            out.write(segments[i]);
+        out.write(current, 0, currentCount);
+    }
+
+    /**
+     * Writes the complete contents of this output stream to the specified
+     * channel, using gathering writes over several segments at a time.
+     * If the channel is in blocking mode, this method blocks until all
+     * bytes have been written. If the channel is in non-blocking mode, it
+     * returns as soon as a write writes no bytes, so fewer bytes than
+     * {@link #size()} may have been written; the transfer can then be
+     * continued with {@link #writeTo(GatheringByteChannel, long)}, passing
+     * the number of bytes written so far.
+     *
+     * @param      ch   the channel to which to write the data.
+     * @return     the number of bytes written, possibly less than
+     *             {@link #size()} if the channel is non-blocking.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public long writeTo(GatheringByteChannel ch) throws IOException {
+        return writeTo(ch, 0);
+    }
+
+    /**
+     * Writes the contents of this output stream, from the specified offset
+     * to the end, to the specified channel, using gathering writes over
+     * several segments at a time. If the channel is in blocking mode, this
+     * method blocks until all bytes have been written. If the channel is in
+     * non-blocking mode, it returns as soon as a write writes no bytes; the
+     * transfer can be continued by invoking this method again with the
+     * offset advanced by the number of bytes written, provided the stream
+     * has not been {@linkplain #reset() reset} in the meantime.
+     *
+     * @param      ch   the channel to which to write the data.
+     * @param      offset   the offset in the contents of the first byte
+     *             to write.
+     * @return     the number of bytes written, possibly less than
+     *             {@code size() - offset} if the channel is non-blocking.
+     * @exception  IllegalArgumentException  if offset is negative or
+     *             greater than {@link #size()}.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public synchronized long writeTo(GatheringByteChannel ch, long offset)
+        throws IOException
+    {
+        long total = priorCount + currentCount;
+        if (offset < 0 || offset > total)
+            throw new IllegalArgumentException("Offset out of range: "
+                                               + offset);
+        ByteBuffer[] bufs = toByteBuffers();
+        int off = 0;
+        for (long skip = offset; skip > 0; ) {
+            int n = (int)Math.min(skip, bufs[off].remaining());
+            bufs[off].position(n);
+            skip -= n;
+            if (!bufs[off].hasRemaining())
+                off++;
+        }
+        long written = 0;
+        while (offset + written < total) {
+            while (!bufs[off].hasRemaining())
+                off++;
+            int len = Math.min(bufs.length - off, MAX_GATHER);
+            long n = ch.write(bufs, off, len);
+            if (n < 0)
+                throw new EOFException();
+            if (n == 0)
+                break;      // non-blocking channel is full
+            written += n;
+        }
+        return written;
+    }
+
+    /**
+     * Returns the contents of this output stream as an array of read-only
+     * byte buffers, one per segment, without copying the data. The buffers
+     * remain valid as more data is written to the stream, but their
+     * contents are overwritten by data written after a {@link #reset()}.
+     *
+     * @return  the current contents of this output stream, as buffers.
+     */
+    public synchronized ByteBuffer[] toByteBuffers() {
+        int n = currentIndex + 1;
+        ByteBuffer[] bufs = new ByteBuffer[n];
+        for (int i = 0; i < n; i++) {
+            byte[] seg = segments[i];
+            int len = (i == currentIndex) ? currentCount : seg.length;
+            bufs[i] = ByteBuffer.wrap(seg, 0, len).asReadOnlyBuffer();
+        }
+        return bufs;
+    }
+
+    /**
+     * Discards all currently accumulated output. The output stream can be
+     * used again, reusing the already allocated segments.
+     */
+    public synchronized void reset() {
+        current = segments[0];
+        currentIndex = 0;
+        currentCount = 0;
+        priorCount = 0;
+    }
+
+    /**
+     * Creates a newly allocated byte array. Its size is the current size
+     * of this output stream and the contents of the segments have been
+     * copied into it.
+     *
+     * @return  the current contents of this output stream, as a byte array.
+     * @exception  OutOfMemoryError if the contents are larger than the
+     *             largest possible array.
+     * @see     java.io.SegmentedByteArrayOutputStream#size()
+     */
+    public synchronized byte toByteArray()[] {
+        long size = priorCount + currentCount;
+        if (size > MAX_ARRAY_SIZE)
+            throw new OutOfMemoryError("Required array size too large");
+        byte[] result = new byte[(int)size];
+        int pos = 0;
+        for (int i = 0; i < currentIndex; i++) {
+            byte[] seg = segments[i];
+            System.arraycopy(seg, 0, result, pos, seg.length);
+            pos += seg.length;
+        }
+        System.arraycopy(current, 0, result, pos, currentCount);
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes written to this output stream.
+     *
+     * @return  the number of valid bytes in this output stream.
+     */
+    public synchronized long size() {
+        return priorCount + currentCount;
+    }
+
+    /**
+     * Converts the contents into a string by decoding the bytes using the
+     * specified {@link java.nio.charset.Charset charset}.
+     *
+     * <p> This method always replaces malformed-input and unmappable-character
+     * sequences with the charset's default replacement string.
+     *
+     * @param      charset  the charset used to decode the bytes
+     * @return     String decoded from the contents of this stream.
+     */
+    public synchronized String toString(Charset charset) {
+        return new String(toByteArray(), charset);
+    }
+
+    /**
+     * Converts the contents into a string decoding bytes using the
+     * platform's default character set.
+     *
+     * @return String decoded from the contents of this stream.
+     */
+    public synchronized String toString() {
+        return new String(toByteArray());
+    }
+
+    /**
+     * Closing a <tt>SegmentedByteArrayOutputStream</tt> has no effect. The
+     * methods in this class can be called after the stream has been closed
+     * without generating an <tt>IOException</tt>.
+     */
+    public void close() throws IOException {
+    }
+}
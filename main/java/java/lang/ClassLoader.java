@@ -1468,6 +1468,7 @@ public abstract class ClassLoader {
                 }
             }
             sclSet = true;
+            VM.systemLoaderInitialized();
         }
     }
 
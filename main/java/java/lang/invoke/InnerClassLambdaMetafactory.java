@@ -100,7 +100,7 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
     private final String implMethodDesc;             // Type descriptor for implementation methods "(I)Ljava/lang/String;"
     private final Class<?> implMethodReturnClass;    // class for implementaion method return type "Ljava/lang/String;"
     private final MethodType constructorType;        // Generated class constructor type "(CC)void"
-    private final ClassWriter cw;                    // ASM class writer
+    private ClassWriter cw;                          // ASM class writer, unless cached
     private final String[] argNames;                 // Generated names for the constructor arguments
     private final String[] argDescs;                 // Type descriptors for the constructor arguments
     private final String lambdaClassName;            // Generated name for the generated class "X$$Lambda$1"
@@ -163,7 +163,6 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
                 : implMethodType.returnType();
         constructorType = invokedType.changeReturnType(Void.TYPE);
         lambdaClassName = targetClass.getName().replace('.', '/') + "$$Lambda$" + counter.incrementAndGet();
-        cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         int parameterCount = invokedType.parameterCount();
         if (parameterCount > 0) {
             argNames = new String[parameterCount];
@@ -263,6 +262,29 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
             interfaces = itfs.toArray(new String[itfs.size()]);
         }
 
+        // Use the class spun for the same inputs in an earlier run, if any.
+        // The VM does not verify the anonymous classes of classes of the
+        // boot loader, so their proxy classes are always spun.
+        ProxyClassCache cache = ProxyClassCache.getInstance();
+        String cacheKey = null;
+        if (cache != null && targetClass.getClassLoader() != null) {
+            cacheKey = cacheKey(interfaces, accidentallySerializable);
+            byte[] classBytes = cache.get(cacheKey);
+            if (classBytes != null) {
+                try {
+                    Class<?> innerClass = UNSAFE.defineAnonymousClass(
+                            targetClass, classBytes, null);
+                    // link it now, so that a class that does not verify
+                    // is spun again
+                    UNSAFE.ensureClassInitialized(innerClass);
+                    return innerClass;
+                } catch (LinkageError e) {
+                    cache.remove(cacheKey);
+                }
+            }
+        }
+
+        cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         cw.visit(CLASSFILE_VERSION, ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC,
                  lambdaClassName, null,
                  JAVA_LANG_OBJECT, interfaces);
@@ -306,6 +328,9 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
         // Define the generated class in this VM.
 
         final byte[] classBytes = cw.toByteArray();
+        if (cacheKey != null) {
+            cache.put(cacheKey, classBytes);
+        }
 
         // If requested, dump out to a file for debugging purposes
         if (dumper != null) {
@@ -324,6 +349,38 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
         return UNSAFE.defineAnonymousClass(targetClass, classBytes, null);
     }
 
+    /**
+     * Describe everything but its name that the class spun for this call
+     * site depends on: the conversions generated only depend on the names
+     * of the types involved, and the kind of the implementation method.
+     *
+     * @return the key of the class in the {@link ProxyClassCache}
+     */
+    private String cacheKey(String[] interfaces, boolean accidentallySerializable) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(targetClass.getName())
+          .append(' ').append(invokedType.toMethodDescriptorString())
+          .append(' ').append(samMethodName)
+          .append(' ').append(samMethodType.toMethodDescriptorString())
+          .append(' ').append(implKind)
+          .append(' ').append(implDefiningClass.isInterface())
+          .append(' ').append(implMethodClassName)
+          .append(' ').append(implMethodName)
+          .append(' ').append(implMethodDesc)
+          .append(' ').append(instantiatedMethodType.toMethodDescriptorString())
+          .append(' ').append(isSerializable)
+          .append(' ').append(accidentallySerializable);
+        for (String itf : interfaces) {
+            sb.append(' ').append(itf);
+        }
+        if (additionalBridges != null) {
+            for (MethodType mt : additionalBridges) {
+                sb.append(' ').append(mt.toMethodDescriptorString());
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Generate the factory method for the class
      */
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.PropertyPermission;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import sun.misc.SharedSecrets;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * Helper class used by InnerClassLambdaMetafactory to keep the lambda
+ * proxy classes it spins across runs.
+ *
+ * <p> If the {@code jdk.internal.lambda.proxyClassCache} system property
+ * names a file, the class files found in it are used instead of spinning
+ * the proxy classes of the call sites they were spun for. At exit, the file
+ * is rewritten with the class files used and spun during the run, so that
+ * the class files of call sites no longer linked are dropped. A class file
+ * is keyed by all the inputs of the metafactory that it depends on and is
+ * stored with its CRC-32; the whole file is ignored if it was written by
+ * another Java runtime version, and an entry whose checksum does not match
+ * is ignored. A class file that fails to link is spun again. As the class
+ * files are defined as members of the classes that capture lambdas, the
+ * file must be protected like the class path.
+ *
+ * @implNote
+ * <p> Because this class is called by LambdaMetafactory, make use
+ * of lambda lead to recursive calls cause stack overflow.
+ */
+final class ProxyClassCache {
+    private static final int MAGIC = 0x4c504358;        // "LPCX"
+    private static final int VERSION = 2;
+
+    // Keys are written with writeUTF, which takes up to 65535 bytes
+    private static final int MAX_KEY_LENGTH = 65535 / 3;
+
+    // Invocation order of the shutdown hook that writes the file
+    private static final int SHUTDOWN_HOOK_SLOT = 4;
+
+    private static final ProxyClassCache INSTANCE;
+
+    static {
+        final String key = "jdk.internal.lambda.proxyClassCache";
+        String path = AccessController.doPrivileged(
+                new GetPropertyAction(key), null,
+                new PropertyPermission(key , "read"));
+        INSTANCE = (path == null || path.isEmpty())
+                ? null : new ProxyClassCache(new File(path));
+    }
+
+    private final File file;
+    private final String runtimeVersion;
+    // the class files read from the file and not used yet
+    private final Map<String, byte[]> loaded = new ConcurrentHashMap<>();
+    // the class files used or spun during this run, written at exit
+    private final Map<String, byte[]> classes = new ConcurrentHashMap<>();
+    private final AtomicBoolean hooked = new AtomicBoolean();
+    private volatile boolean modified;
+
+    private ProxyClassCache(File file) {
+        this.file = file;
+        final String key = "java.runtime.version";
+        this.runtimeVersion = String.valueOf(AccessController.doPrivileged(
+                new GetPropertyAction(key), null,
+                new PropertyPermission(key , "read")));
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    load();
+                    return null;
+                }
+            }, null, new FilePermission("<<ALL FILES>>", "read"));
+    }
+
+    /**
+     * Returns the cache, or null if it is not enabled.
+     */
+    static ProxyClassCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the class file cached for the given key, or null.
+     */
+    byte[] get(String key) {
+        registerShutdownHook();
+        byte[] classBytes = classes.get(key);
+        if (classBytes == null) {
+            classBytes = loaded.remove(key);
+            if (classBytes != null) {
+                classes.putIfAbsent(key, classBytes);
+            }
+        }
+        return classBytes;
+    }
+
+    /**
+     * Adds the class file spun for the given key, to be written at exit.
+     */
+    void put(String key, byte[] classBytes) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            return;
+        }
+        if (classes.putIfAbsent(key, classBytes) == null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Drops the class file cached for the given key, which failed to link.
+     */
+    void remove(String key) {
+        classes.remove(key);
+        modified = true;
+    }
+
+    /*
+     * Registers the shutdown hook that saves the file, when the cache is
+     * first used.
+     */
+    private void registerShutdownHook() {
+        if (!hooked.get() && hooked.compareAndSet(false, true)) {
+            try {
+                SharedSecrets.getJavaLangAccess()
+                    .registerShutdownHook(SHUTDOWN_HOOK_SLOT,
+                        true /* register even if shutdown in progress */,
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                saveIfNeeded();
+                            }
+                        });
+            } catch (IllegalStateException e) {
+                // too late in the shutdown sequence, not saved
+            }
+        }
+    }
+
+    /*
+     * Reads the cache file. A missing, corrupt or out of date file is
+     * silently treated as empty, and entries with a wrong checksum are
+     * skipped; the file is then rewritten at exit. The length of a class
+     * file is checked against the length of the file before its bytes
+     * are allocated.
+     */
+    private void load() {
+        if (!file.isFile()) {
+            return;
+        }
+        long size = file.length();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != VERSION ||
+                    !in.readUTF().equals(runtimeVersion)) {
+                return;
+            }
+            CRC32 crc = new CRC32();
+            for (int n = in.readInt(); n > 0; n--) {
+                String key = in.readUTF();
+                int length = in.readInt();
+                if (length < 0 || length > size) {
+                    throw new IOException("Corrupt proxy class cache");
+                }
+                byte[] classBytes = new byte[length];
+                in.readFully(classBytes);
+                int checksum = in.readInt();
+                crc.reset();
+                crc.update(classBytes);
+                if ((int)crc.getValue() == checksum) {
+                    loaded.put(key, classBytes);
+                } else {
+                    modified = true;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            loaded.clear();
+            modified = true;
+        }
+    }
+
+    /*
+     * Invoked at exit: the file is written if classes were spun or
+     * dropped, or if some of the classes read from it were not used.
+     */
+    private void saveIfNeeded() {
+        if (modified || !loaded.isEmpty()) {
+            save();
+        }
+    }
+
+    /*
+     * Replaces the cache file with the class files used or spun during
+     * this run. Failures are silently ignored.
+     */
+    private void save() {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    File tmp = new File(file.getPath() + "." +
+                            Long.toHexString(System.nanoTime()) + ".tmp");
+                    try {
+                        try (DataOutputStream out = new DataOutputStream(
+                                new BufferedOutputStream(
+                                        new FileOutputStream(tmp)))) {
+                            write(out);
+                        }
+                        if (!tmp.renameTo(file)) {
+                            file.delete();
+                            if (!tmp.renameTo(file)) {
+                                tmp.delete();
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        tmp.delete();
+                    }
+                    return null;
+                }
+            }, null, new FilePermission("<<ALL FILES>>", "read,write,delete"));
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        // take a snapshot, as call sites may still be linked concurrently
+        Object[] entries = classes.entrySet().toArray();
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeUTF(runtimeVersion);
+        out.writeInt(entries.length);
+        CRC32 crc = new CRC32();
+        for (Object o : entries) {
+            @SuppressWarnings("unchecked")
+            Map.Entry<String, byte[]> e = (Map.Entry<String, byte[]>) o;
+            byte[] classBytes = e.getValue();
+            crc.reset();
+            crc.update(classBytes);
+            out.writeUTF(e.getKey());
+            out.writeInt(classBytes.length);
+            out.write(classBytes);
+            out.writeInt((int)crc.getValue());
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.nio.file.attribute.FileAttribute;
 import java.nio.file.spi.*;
 import java.nio.ByteBuffer;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.ExecutorService;
 import java.util.Set;
@@ -776,4 +777,303 @@ public abstract class AsynchronousFileChannel
      *          If this channel was not opened for writing
      */
     public abstract Future<Integer> write(ByteBuffer src, long position);
+
+    /**
+     * Reads sequences of bytes from this channel into the given buffers,
+     * each starting at its own file position.
+     *
+     * <p> This method initiates a batch of reads: the bytes remaining in
+     * {@code dsts[i]} are read starting at file position {@code
+     * positions[i]}. Each buffer is filled until it has no bytes remaining
+     * or the end of the file is reached. The reads may be performed in any
+     * order and the implementation may combine reads of adjacent file
+     * regions. The result of the batch is the total number of bytes read;
+     * the number of bytes read into each buffer is given by the change of
+     * its position.
+     *
+     * <p> The handler is invoked once, when all the reads have completed or
+     * when one of them has failed, in which case the buffers may have been
+     * partly filled.
+     *
+     * @implSpec
+     * The default implementation performs the reads one after the other
+     * with {@link #read(ByteBuffer,long,Object,CompletionHandler)}, the
+     * first of them by the initiating thread. If no buffer has bytes
+     * remaining, the handler is invoked directly by the initiating thread.
+     *
+     * @param   <A>
+     *          The type of the attachment
+     * @param   dsts
+     *          The buffers into which bytes are to be transferred
+     * @param   positions
+     *          The file positions at which the transfers are to begin; must
+     *          be non-negative and as many as there are buffers
+     * @param   attachment
+     *          The object to attach to the I/O operation; can be {@code null}
+     * @param   handler
+     *          The handler for consuming the result
+     *
+     * @throws  IllegalArgumentException
+     *          If a position is negative, a buffer is read-only, or the
+     *          arrays have different lengths
+     * @throws  NonReadableChannelException
+     *          If this channel was not opened for reading
+     *
+     * @since 1.8
+     */
+    public <A> void read(ByteBuffer[] dsts,
+                         long[] positions,
+                         A attachment,
+                         CompletionHandler<Long,? super A> handler)
+    {
+        if (handler == null)
+            throw new NullPointerException("'handler' is null");
+        checkBatch(dsts, positions, true);
+        new Batch<A>(this, false, dsts, positions, attachment, handler).start();
+    }
+
+    /**
+     * Reads sequences of bytes from this channel into the given buffers,
+     * each starting at its own file position.
+     *
+     * <p> This method works in the same manner as the {@link
+     * #read(ByteBuffer[],long[],Object,CompletionHandler)} method, except
+     * that it returns a {@code Future} representing the pending result of
+     * the batch. The {@code Future}'s {@link Future#get() get} method
+     * returns the total number of bytes read.
+     *
+     * @param   dsts
+     *          The buffers into which bytes are to be transferred
+     * @param   positions
+     *          The file positions at which the transfers are to begin; must
+     *          be non-negative and as many as there are buffers
+     *
+     * @return  A {@code Future} object representing the pending result
+     *
+     * @throws  IllegalArgumentException
+     *          If a position is negative, a buffer is read-only, or the
+     *          arrays have different lengths
+     * @throws  NonReadableChannelException
+     *          If this channel was not opened for reading
+     *
+     * @since 1.8
+     */
+    public Future<Long> read(ByteBuffer[] dsts, long[] positions) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        read(dsts, positions, result, FUTURE_HANDLER);
+        return result;
+    }
+
+    /**
+     * Writes sequences of bytes to this channel from the given buffers, each
+     * starting at its own file position.
+     *
+     * <p> This method initiates a batch of writes: the bytes remaining in
+     * {@code srcs[i]} are written starting at file position {@code
+     * positions[i]}, growing the file if needed as by the {@link
+     * #write(ByteBuffer,long,Object,CompletionHandler)} method. The writes
+     * may be performed in any order and the implementation may combine
+     * writes of adjacent file regions, so the contents of regions written by
+     * more than one buffer of the batch are unspecified. The result of the
+     * batch is the total number of bytes written.
+     *
+     * <p> The handler is invoked once, when all the writes have completed or
+     * when one of them has failed, in which case some of the bytes may have
+     * been written.
+     *
+     * @implSpec
+     * The default implementation performs the writes one after the other
+     * with {@link #write(ByteBuffer,long,Object,CompletionHandler)}, the
+     * first of them by the initiating thread. If no buffer has bytes
+     * remaining, the handler is invoked directly by the initiating thread.
+     *
+     * @param   <A>
+     *          The type of the attachment
+     * @param   srcs
+     *          The buffers from which bytes are to be transferred
+     * @param   positions
+     *          The file positions at which the transfers are to begin; must
+     *          be non-negative and as many as there are buffers
+     * @param   attachment
+     *          The object to attach to the I/O operation; can be {@code null}
+     * @param   handler
+     *          The handler for consuming the result
+     *
+     * @throws  IllegalArgumentException
+     *          If a position is negative or the arrays have different lengths
+     * @throws  NonWritableChannelException
+     *          If this channel was not opened for writing
+     *
+     * @since 1.8
+     */
+    public <A> void write(ByteBuffer[] srcs,
+                          long[] positions,
+                          A attachment,
+                          CompletionHandler<Long,? super A> handler)
+    {
+        if (handler == null)
+            throw new NullPointerException("'handler' is null");
+        checkBatch(srcs, positions, false);
+        new Batch<A>(this, true, srcs, positions, attachment, handler).start();
+    }
+
+    /**
+     * Writes sequences of bytes to this channel from the given buffers, each
+     * starting at its own file position.
+     *
+     * <p> This method works in the same manner as the {@link
+     * #write(ByteBuffer[],long[],Object,CompletionHandler)} method, except
+     * that it returns a {@code Future} representing the pending result of
+     * the batch. The {@code Future}'s {@link Future#get() get} method
+     * returns the total number of bytes written.
+     *
+     * @param   srcs
+     *          The buffers from which bytes are to be transferred
+     * @param   positions
+     *          The file positions at which the transfers are to begin; must
+     *          be non-negative and as many as there are buffers
+     *
+     * @return  A {@code Future} object representing the pending result
+     *
+     * @throws  IllegalArgumentException
+     *          If a position is negative or the arrays have different lengths
+     * @throws  NonWritableChannelException
+     *          If this channel was not opened for writing
+     *
+     * @since 1.8
+     */
+    public Future<Long> write(ByteBuffer[] srcs, long[] positions) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        write(srcs, positions, result, FUTURE_HANDLER);
+        return result;
+    }
+
+    /**
+     * Checks the arguments of a batch operation.
+     */
+    private static void checkBatch(ByteBuffer[] bufs, long[] positions,
+                                   boolean reading)
+    {
+        if (bufs.length != positions.length)
+            throw new IllegalArgumentException("Arrays of different lengths");
+        for (int i = 0; i < bufs.length; i++) {
+            if (positions[i] < 0)
+                throw new IllegalArgumentException("Negative position");
+            if (reading && bufs[i].isReadOnly())
+                throw new IllegalArgumentException("Read-only buffer");
+        }
+    }
+
+    // completes the CompletableFuture given as attachment
+    private static final CompletionHandler<Long,CompletableFuture<Long>>
+        FUTURE_HANDLER = new CompletionHandler<Long,CompletableFuture<Long>>() {
+            public void completed(Long result, CompletableFuture<Long> f) {
+                f.complete(result);
+            }
+            public void failed(Throwable exc, CompletableFuture<Long> f) {
+                f.completeExceptionally(exc);
+            }
+        };
+
+    /**
+     * Default implementation of the batch operations: the transfers are
+     * performed one after the other with the single buffer operations.
+     * The first transfer is initiated by the initiating thread, so that
+     * the exceptions it throws, such as NonReadableChannelException, are
+     * thrown to the caller; the later ones are initiated by the handler of
+     * the previous transfer, which can only pass them on to the handler of
+     * the batch.
+     */
+    private static final class Batch<A>
+        implements CompletionHandler<Integer,Void>
+    {
+        private final AsynchronousFileChannel ch;
+        private final boolean write;
+        private final ByteBuffer[] bufs;
+        private final long[] positions;
+        private final A attachment;
+        private final CompletionHandler<Long,? super A> handler;
+        private int index;
+        private long position;
+        private long total;
+
+        Batch(AsynchronousFileChannel ch, boolean write, ByteBuffer[] bufs,
+              long[] positions, A attachment,
+              CompletionHandler<Long,? super A> handler)
+        {
+            this.ch = ch;
+            this.write = write;
+            this.bufs = bufs;
+            this.positions = positions;
+            this.attachment = attachment;
+            this.handler = handler;
+            this.index = -1;
+        }
+
+        // starts the batch, on the initiating thread
+        void start() {
+            if (advance()) {
+                initiate();
+            } else {
+                handler.completed(total, attachment);
+            }
+        }
+
+        // moves to the next buffer with bytes remaining, returns false if
+        // there is none
+        private boolean advance() {
+            do {
+                if (++index == bufs.length)
+                    return false;
+            } while (!bufs[index].hasRemaining());
+            position = positions[index];
+            return true;
+        }
+
+        private void initiate() {
+            if (write) {
+                ch.write(bufs[index], position, null, this);
+            } else {
+                ch.read(bufs[index], position, null, this);
+            }
+        }
+
+        // continues the batch, on the thread of the handler
+        private void next() {
+            if (!advance()) {
+                handler.completed(total, attachment);
+                return;
+            }
+            proceed();
+        }
+
+        private void proceed() {
+            try {
+                initiate();
+            } catch (RuntimeException x) {
+                // e.g. ShutdownChannelGroupException
+                handler.failed(x, attachment);
+            }
+        }
+
+        public void completed(Integer result, Void ignore) {
+            int n = result;
+            if (n < 0) {
+                // end of file
+                next();
+                return;
+            }
+            total += n;
+            position += n;
+            if (bufs[index].hasRemaining()) {
+                proceed();
+            } else {
+                next();
+            }
+        }
+
+        public void failed(Throwable exc, Void ignore) {
+            handler.failed(exc, attachment);
+        }
+    }
 }
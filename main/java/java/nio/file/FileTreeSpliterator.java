@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.nio.file.FileTreeWalker.Event;
+
+/**
+ * A {@code Spliterator} over the nodes of a file tree, for the streams
+ * returned by {@link Files#walk} and {@link Files#find}.
+ *
+ * <p> Traversed sequentially, it produces the depth-first sequence of events
+ * of a single {@link FileTreeWalker}, without the events for the end of a
+ * directory. An I/O error reported by any event, including the end of a
+ * directory, is thrown as an {@link UncheckedIOException}. When split, it
+ * hands entries of the
+ * shallowest directory it has open, that it has not read yet, to the new
+ * spliterator, which walks the subtrees rooted at those entries with walkers
+ * of its own. A parallel walk therefore reads directories and file
+ * attributes from several threads. Walks that follow symbolic links are
+ * not split, as cycle detection needs the directories being walked by the
+ * same walker.
+ *
+ * <p> The spliterators split from one another share their state for
+ * closing: closing any of them closes the walkers of all of them.
+ */
+
+class FileTreeSpliterator implements Spliterator<Event>, Closeable {
+    // number of directory entries handed over by one split
+    private static final int BATCH_SIZE = 128;
+
+    /**
+     * The walkers of a spliterator and of all spliterators split from it.
+     */
+    private static class Shared {
+        private final List<FileTreeWalker> walkers = new ArrayList<>();
+        private boolean closed;
+
+        synchronized void add(FileTreeWalker walker) {
+            if (closed) {
+                walker.close();
+                throw new IllegalStateException();
+            }
+            walkers.add(walker);
+        }
+
+        synchronized void remove(FileTreeWalker walker) {
+            walkers.remove(walker);
+        }
+
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                for (FileTreeWalker walker : walkers)
+                    walker.close();
+                walkers.clear();
+            }
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+    }
+
+    private final List<FileVisitOption> options;
+    private final boolean followLinks;
+    private final Shared shared;
+
+    // maximum depth of the subtrees walked by this spliterator
+    private final int maxDepth;
+
+    // roots of subtrees not yet walked, from index to the end
+    private Path[] roots;
+    private int index;
+
+    // the current walker, or null between two subtrees
+    private FileTreeWalker walker;
+
+    // an event obtained but not yet consumed, possibly reporting an I/O
+    // error to be thrown when it is consumed
+    private Event next;
+
+    /**
+     * Creates a new spliterator to walk the file tree starting at the given
+     * file.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code maxDepth} is negative
+     * @throws  IOException
+     *          if an I/O errors occurs opening the starting file
+     * @throws  SecurityException
+     *          if the security manager denies access to the starting file
+     * @throws  NullPointerException
+     *          if {@code start} or {@code options} is {@code null} or
+     *          the options array contains a {@code null} element
+     */
+    FileTreeSpliterator(Path start, int maxDepth, FileVisitOption... options)
+        throws IOException
+    {
+        this.options = Arrays.asList(options);
+        this.followLinks = this.options.contains(FileVisitOption.FOLLOW_LINKS);
+        this.shared = new Shared();
+        this.maxDepth = maxDepth;
+        this.roots = new Path[0];
+        this.walker = new FileTreeWalker(this.options, maxDepth);
+        shared.add(walker);
+        this.next = walker.walk(start);
+        assert next.type() == FileTreeWalker.EventType.ENTRY ||
+               next.type() == FileTreeWalker.EventType.START_DIRECTORY;
+
+        // IOException if there a problem accessing the starting file
+        IOException ioe = next.ioeException();
+        if (ioe != null) {
+            close();
+            throw ioe;
+        }
+    }
+
+    private FileTreeSpliterator(FileTreeSpliterator parent,
+                                Path[] roots,
+                                int maxDepth)
+    {
+        this.options = parent.options;
+        this.followLinks = parent.followLinks;
+        this.shared = parent.shared;
+        this.maxDepth = maxDepth;
+        this.roots = roots;
+    }
+
+    /**
+     * Starts walking the next subtree not yet started with a new walker,
+     * returning the event for its root.
+     */
+    private Event walkNextRoot() {
+        walker = new FileTreeWalker(options, maxDepth);
+        shared.add(walker);
+        return walker.walkEntry(roots[index++]);
+    }
+
+    /**
+     * Obtains the next event that is not the end of a directory, or that
+     * reports an I/O error, moving on to the next subtree when the current
+     * walker is done. Returns false if there are no more events.
+     */
+    private boolean fetchNextIfNeeded() {
+        while (next == null) {
+            Event ev;
+            if (walker == null) {
+                if (index == roots.length)
+                    return false;
+                ev = walkNextRoot();
+            } else {
+                ev = walker.next();
+                if (ev == null) {
+                    if (!walker.isOpen())
+                        throw new IllegalStateException();
+                    shared.remove(walker);
+                    walker.close();
+                    walker = null;
+                }
+            }
+            if (ev != null && (ev.ioeException() != null ||
+                               ev.type() != FileTreeWalker.EventType.END_DIRECTORY))
+                next = ev;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Event> action) {
+        if (shared.isClosed())
+            throw new IllegalStateException();
+        if (!fetchNextIfNeeded())
+            return false;
+        Event ev = next;
+        next = null;
+        IOException ioe = ev.ioeException();
+        if (ioe != null)
+            throw new UncheckedIOException(ioe);
+        action.accept(ev);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Event> trySplit() {
+        if (shared.isClosed())
+            return null;
+
+        // hand over half of the subtrees not yet started
+        int remaining = roots.length - index;
+        if (remaining >= 2) {
+            int mid = index + (remaining >>> 1);
+            Path[] split = Arrays.copyOfRange(roots, index, mid);
+            index = mid;
+            return new FileTreeSpliterator(this, split, maxDepth);
+        }
+
+        // otherwise hand over unread entries of an open directory, opening
+        // the last subtree not yet started if there is no walker
+        if (followLinks)
+            return null;
+        if (walker == null) {
+            if (remaining == 0)
+                return null;
+            next = walkNextRoot();
+        }
+        FileTreeWalker.Entries entries = walker.takeEntries(BATCH_SIZE);
+        if (entries == null)
+            return null;
+        return new FileTreeSpliterator(this, entries.entries(),
+                                       maxDepth - entries.depth());
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+
+    @Override
+    public void close() {
+        shared.close();
+    }
+}
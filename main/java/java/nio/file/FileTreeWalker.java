@@ -70,6 +70,8 @@ class FileTreeWalker implements Closeable {
         private final DirectoryStream<Path> stream;
         private final Iterator<Path> iterator;
         private boolean skipped;
+        // error reading ahead for takeEntries, reported by next
+        private IOException pendingError;
 
         DirectoryNode(Path dir, Object key, DirectoryStream<Path> stream) {
             this.dir = dir;
@@ -101,6 +103,43 @@ class FileTreeWalker implements Closeable {
         boolean skipped() {
             return skipped;
         }
+
+        void setPendingError(IOException ioe) {
+            pendingError = ioe;
+        }
+
+        IOException takePendingError() {
+            IOException ioe = pendingError;
+            pendingError = null;
+            return ioe;
+        }
+    }
+
+    /**
+     * Entries removed from a directory on the stack by {@link #takeEntries}.
+     */
+    static class Entries {
+        private final Path[] entries;
+        private final int depth;
+
+        Entries(Path[] entries, int depth) {
+            this.entries = entries;
+            this.depth = depth;
+        }
+
+        /**
+         * The entries, in directory order.
+         */
+        Path[] entries() {
+            return entries;
+        }
+
+        /**
+         * The depth at which the entries would have been visited.
+         */
+        int depth() {
+            return depth;
+        }
     }
 
     /**
@@ -326,6 +365,56 @@ class FileTreeWalker implements Closeable {
         return ev;
     }
 
+    /**
+     * Start walking from the given file, found as an entry of a directory
+     * that another walker has opened. As for the entries visited by {@link
+     * #next}, cached attributes may be used and a SecurityException is
+     * ignored, in which case {@code null} is returned.
+     */
+    Event walkEntry(Path entry) {
+        if (closed)
+            throw new IllegalStateException("Closed");
+
+        return visit(entry,
+                     true,   // ignoreSecurityException
+                     true);  // canUseCached
+    }
+
+    /**
+     * Removes up to {@code max} entries that have not yet been read from the
+     * shallowest directory on the stack that has any, so that they can be
+     * walked by another walker. Returns {@code null} if no directory on the
+     * stack has entries left.
+     */
+    Entries takeEntries(int max) {
+        int depth = 0;
+        Iterator<DirectoryNode> nodes = stack.descendingIterator();
+        while (nodes.hasNext()) {
+            DirectoryNode node = nodes.next();
+            depth++;
+            if (node.skipped() || node.pendingError != null)
+                continue;
+            Iterator<Path> iterator = node.iterator();
+            Path[] entries = new Path[max];
+            int n = 0;
+            try {
+                while (n < max && iterator.hasNext())
+                    entries[n++] = iterator.next();
+            } catch (DirectoryIteratorException x) {
+                node.setPendingError(x.getCause());
+            }
+            if (n > 0) {
+                if (n < max) {
+                    Path[] a = new Path[n];
+                    System.arraycopy(entries, 0, a, 0, n);
+                    entries = a;
+                }
+                return new Entries(entries, depth);
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the next Event or {@code null} if there are no more events or
      * the walker is closed.
@@ -342,7 +431,8 @@ class FileTreeWalker implements Closeable {
             IOException ioe = null;
 
             // get next entry in the directory
-            if (!top.skipped()) {
+            ioe = top.takePendingError();
+            if (ioe == null && !top.skipped()) {
                 Iterator<Path> iterator = top.iterator();
                 try {
                     if (iterator.hasNext()) {
@@ -3571,13 +3571,14 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeSpliterator spliterator =
+            new FileTreeSpliterator(start, maxDepth, options);
         try {
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
-                                .onClose(iterator::close)
+            return StreamSupport.stream(spliterator, false)
+                                .onClose(spliterator::close)
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
-            iterator.close();
+            spliterator.close();
             throw e;
         }
     }
@@ -3684,14 +3685,15 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeSpliterator spliterator =
+            new FileTreeSpliterator(start, maxDepth, options);
         try {
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
-                                .onClose(iterator::close)
+            return StreamSupport.stream(spliterator, false)
+                                .onClose(spliterator::close)
                                 .filter(entry -> matcher.test(entry.file(), entry.attributes()))
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
-            iterator.close();
+            spliterator.close();
             throw e;
         }
     }
@@ -26,6 +26,7 @@
 package java.util;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -38,6 +39,12 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import sun.net.www.ParseUtil;
 
 
 /**
@@ -203,6 +210,13 @@ public final class ServiceLoader<S>
     // The current lazy-lookup iterator
     private LazyIterator lookupIterator;
 
+    // The provider names of the configuration files read from local files,
+    // by class loader and URL. The class loaders are weakly referenced, so
+    // the names are dropped with the loader that found the files. Guarded
+    // by its own lock
+    private static final WeakHashMap<ClassLoader,ConcurrentHashMap<String,ConfigFile>>
+        configFiles = new WeakHashMap<>();
+
     /**
      * Clear this loader's provider cache so that all providers will be
      * reloaded.
@@ -248,8 +262,8 @@ public final class ServiceLoader<S>
     // Parse a single line from the given configuration file, adding the name
     // on the line to the names list.
     //
-    private int parseLine(Class<?> service, URL u, BufferedReader r, int lc,
-                          List<String> names)
+    private static int parseLine(Class<?> service, URL u, BufferedReader r,
+                                 int lc, List<String> names)
         throws IOException, ServiceConfigurationError
     {
         String ln = r.readLine();
@@ -271,7 +285,7 @@ public final class ServiceLoader<S>
                 if (!Character.isJavaIdentifierPart(cp) && (cp != '.'))
                     fail(service, u, lc, "Illegal provider-class name: " + ln);
             }
-            if (!providers.containsKey(ln) && !names.contains(ln))
+            if (!names.contains(ln))
                 names.add(ln);
         }
         return lc + 1;
@@ -296,6 +310,90 @@ public final class ServiceLoader<S>
     //
     private Iterator<String> parse(Class<?> service, URL u)
         throws ServiceConfigurationError
+    {
+        ArrayList<String> names = new ArrayList<>();
+        for (String name : parseNames(service, loader, u)) {
+            if (!providers.containsKey(name))
+                names.add(name);
+        }
+        return names.iterator();
+    }
+
+    // Parse the content of the given URL as a provider-configuration file,
+    // or return the names parsed before if the URL is that of a local file,
+    // or of an entry of a local jar file, that has not changed since it was
+    // found by the given class loader.
+    //
+    // @return The provider-class names in the given configuration file, in
+    //         order and without duplicates
+    //
+    // @throws ServiceConfigurationError
+    //         If an I/O error occurs while reading from the given URL, or
+    //         if a configuration-file format error is detected
+    //
+    private static List<String> parseNames(Class<?> service,
+                                           ClassLoader loader, URL u)
+        throws ServiceConfigurationError
+    {
+        String key = u.toString();
+        File file = localFile(u);
+        long length = 0, lastModified = 0;
+        ConcurrentHashMap<String,ConfigFile> files = null;
+        if (file != null) {
+            length = file.length();
+            lastModified = file.lastModified();
+            synchronized (configFiles) {
+                files = configFiles.get(loader);
+                if (files == null) {
+                    files = new ConcurrentHashMap<>();
+                    configFiles.put(loader, files);
+                }
+            }
+            ConfigFile cf = files.get(key);
+            if (cf != null && cf.length == length &&
+                cf.lastModified == lastModified && lastModified != 0) {
+                return cf.names;
+            }
+        }
+        List<String> names = Collections.unmodifiableList(read(service, u));
+        if (file != null && lastModified != 0) {
+            files.put(key, new ConfigFile(length, lastModified, names));
+        }
+        return names;
+    }
+
+    // Return the local file that the content of the given URL is read from,
+    // if it is a file URL or the URL of an entry of a jar file URL, and if
+    // the caller may read its attributes; otherwise return null.
+    //
+    private static File localFile(URL u) {
+        if ("jar".equals(u.getProtocol())) {
+            String spec = u.getPath();
+            int bang = spec.indexOf("!/");
+            if (bang < 0 || !spec.startsWith("file:"))
+                return null;
+            spec = spec.substring("file:".length(), bang);
+            return canRead(new File(ParseUtil.decode(spec)));
+        } else if ("file".equals(u.getProtocol())) {
+            return canRead(new File(ParseUtil.decode(u.getPath())));
+        }
+        return null;
+    }
+
+    private static File canRead(File f) {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            try {
+                sm.checkRead(f.getPath());
+            } catch (SecurityException x) {
+                return null;
+            }
+        }
+        return f;
+    }
+
+    private static List<String> read(Class<?> service, URL u)
+        throws ServiceConfigurationError
     {
         InputStream in = null;
         BufferedReader r = null;
@@ -315,7 +413,51 @@ public final class ServiceLoader<S>
                 fail(service, "Error closing configuration file", y);
             }
         }
-        return names.iterator();
+        return names;
+    }
+
+    // The provider names of a configuration file, with the length and the
+    // modification time of the local file that they were read from
+    //
+    private static final class ConfigFile {
+        final long length;
+        final long lastModified;
+        final List<String> names;
+
+        ConfigFile(long length, long lastModified, List<String> names) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.names = names;
+        }
+    }
+
+    // Load the provider class of the given name, which must be a subtype of
+    // the service
+    //
+    private Class<? extends S> providerClass(String cn) {
+        Class<?> c = null;
+        try {
+            c = Class.forName(cn, false, loader);
+        } catch (ClassNotFoundException x) {
+            fail(service,
+                 "Provider " + cn + " not found");
+        }
+        if (!service.isAssignableFrom(c)) {
+            fail(service,
+                 "Provider " + cn  + " not a subtype");
+        }
+        return c.asSubclass(service);
+    }
+
+    private S newProvider(String cn, Class<? extends S> c) {
+        try {
+            return service.cast(c.newInstance());
+        } catch (Throwable x) {
+            fail(service,
+                 "Provider " + cn + " could not be instantiated",
+                 x);
+        }
+        throw new Error();          // This cannot happen
     }
 
     // Private inner class implementing fully-lazy provider lookup
@@ -365,27 +507,9 @@ public final class ServiceLoader<S>
                 throw new NoSuchElementException();
             String cn = nextName;
             nextName = null;
-            Class<?> c = null;
-            try {
-                c = Class.forName(cn, false, loader);
-            } catch (ClassNotFoundException x) {
-                fail(service,
-                     "Provider " + cn + " not found");
-            }
-            if (!service.isAssignableFrom(c)) {
-                fail(service,
-                     "Provider " + cn  + " not a subtype");
-            }
-            try {
-                S p = service.cast(c.newInstance());
-                providers.put(cn, p);
-                return p;
-            } catch (Throwable x) {
-                fail(service,
-                     "Provider " + cn + " could not be instantiated",
-                     x);
-            }
-            throw new Error();          // This cannot happen
+            S p = newProvider(cn, providerClass(cn));
+            providers.put(cn, p);
+            return p;
         }
 
         public boolean hasNext() {
@@ -487,6 +611,215 @@ public final class ServiceLoader<S>
         };
     }
 
+    /**
+     * Represents a service provider located by the {@link #stream() stream}
+     * of a service loader.  The provider class is only loaded when its
+     * {@link #type type} is first requested, and the provider is only
+     * instantiated by the {@link #get get} method, so that providers can be
+     * selected by name or by type without instantiating the others.
+     *
+     * @param  <S> The service type
+     * @since 1.8
+     */
+    public static interface Provider<S> extends Supplier<S> {
+        /**
+         * Returns the binary name of the provider class, as named in the
+         * provider-configuration file.  This method does not load the
+         * provider class.
+         *
+         * @return The name of the provider class
+         */
+        String name();
+
+        /**
+         * Returns the provider class, loading it, without initializing it,
+         * if this has not been done already.
+         *
+         * @return The provider class
+         *
+         * @throws ServiceConfigurationError
+         *         If the provider class cannot be found, or is not a subtype
+         *         of the service
+         */
+        Class<? extends S> type();
+
+        /**
+         * Returns a new instance of the provider.
+         *
+         * @return A new instance of the provider
+         *
+         * @throws ServiceConfigurationError
+         *         If the provider class cannot be found, is not a subtype of
+         *         the service, or cannot be instantiated
+         */
+        @Override
+        S get();
+    }
+
+    /**
+     * Returns a stream of the available providers of this loader's service.
+     *
+     * <p> The provider-configuration files of the service are located, and
+     * read concurrently if there are several, when this method is invoked.
+     * The provider-class names that they list are cached, for the
+     * configuration files read from local files and jar files, as long as
+     * these files do not change.  The stream then yields a {@link Provider}
+     * for each provider named, in the order in which the configuration files
+     * are found and without duplicates; it does not load any provider class
+     * by itself, nor use or update the provider cache of this loader.
+     *
+     * <p> If a provider-configuration file cannot be read or violates the
+     * specified format, a {@link ServiceConfigurationError} is thrown when
+     * the stream reaches the providers of that file, and the stream
+     * continues with the next file if traversal is resumed.
+     *
+     * @return  A stream of the providers of this loader's service
+     *
+     * @throws ServiceConfigurationError
+     *         If an I/O error occurs while locating the provider-configuration
+     *         files
+     *
+     * @since 1.8
+     */
+    public Stream<Provider<S>> stream() {
+        final List<Object> items;
+        if (acc == null) {
+            items = findProviders();
+        } else {
+            PrivilegedAction<List<Object>> action
+                = new PrivilegedAction<List<Object>>() {
+                    public List<Object> run() { return findProviders(); }
+                };
+            items = AccessController.doPrivileged(action, acc);
+        }
+        Iterator<Provider<S>> it = new Iterator<Provider<S>>() {
+            int index = 0;
+
+            public boolean hasNext() {
+                return index < items.size();
+            }
+
+            @SuppressWarnings("unchecked")
+            public Provider<S> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Object item = items.get(index++);
+                if (item instanceof ServiceConfigurationError)
+                    throw (ServiceConfigurationError)item;
+                return (Provider<S>)item;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it,
+            Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Locate and parse the provider-configuration files of the service, in
+    // parallel if there are several, and return the providers that they
+    // name, in order and without duplicates, in place of each file that
+    // cannot be parsed the error to throw for it.
+    //
+    @SuppressWarnings("unchecked")
+    private List<Object> findProviders() {
+        String fullName = PREFIX + service.getName();
+        final List<URL> urls = new ArrayList<>();
+        try {
+            Enumeration<URL> configs = (loader == null)
+                ? ClassLoader.getSystemResources(fullName)
+                : loader.getResources(fullName);
+            while (configs.hasMoreElements())
+                urls.add(configs.nextElement());
+        } catch (IOException x) {
+            fail(service, "Error locating configuration files", x);
+        }
+
+        final Object[] parsed = new Object[urls.size()];
+        IntStream indices = IntStream.range(0, parsed.length);
+        if (parsed.length > 1)
+            indices = indices.parallel();
+        indices.forEach(i -> parsed[i] = parseOrError(urls.get(i)));
+
+        List<Object> items = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+        for (Object p : parsed) {
+            if (p instanceof ServiceConfigurationError) {
+                items.add(p);
+            } else {
+                for (String cn : (List<String>)p) {
+                    if (seen.add(cn))
+                        items.add(new ProviderImpl(cn));
+                }
+            }
+        }
+        return items;
+    }
+
+    // Parse the given provider-configuration file, possibly in another
+    // thread, returning the error to throw if it cannot be parsed.
+    //
+    private Object parseOrError(final URL u) {
+        try {
+            if (acc == null)
+                return parseNames(service, loader, u);
+            PrivilegedAction<List<String>> action
+                = new PrivilegedAction<List<String>>() {
+                    public List<String> run() { return parseNames(service, loader, u); }
+                };
+            return AccessController.doPrivileged(action, acc);
+        } catch (ServiceConfigurationError x) {
+            return x;
+        }
+    }
+
+    // A provider of the stream, whose class is loaded on demand
+    //
+    private final class ProviderImpl implements Provider<S> {
+        private final String name;
+        private volatile Class<? extends S> type;
+
+        ProviderImpl(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Class<? extends S> type() {
+            Class<? extends S> c = type;
+            if (c == null) {
+                if (acc == null) {
+                    c = providerClass(name);
+                } else {
+                    PrivilegedAction<Class<? extends S>> action
+                        = new PrivilegedAction<Class<? extends S>>() {
+                            public Class<? extends S> run() {
+                                return providerClass(name);
+                            }
+                        };
+                    c = AccessController.doPrivileged(action, acc);
+                }
+                type = c;
+            }
+            return c;
+        }
+
+        public S get() {
+            final Class<? extends S> c = type();
+            if (acc == null) {
+                return newProvider(name, c);
+            } else {
+                PrivilegedAction<S> action = new PrivilegedAction<S>() {
+                    public S run() { return newProvider(name, c); }
+                };
+                return AccessController.doPrivileged(action, acc);
+            }
+        }
+
+        public String toString() {
+            return service.getName() + "[" + name + "]";
+        }
+    }
+
     /**
      * Creates a new service loader for the given service type and class
      * loader.
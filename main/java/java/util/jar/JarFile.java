@@ -31,6 +31,7 @@ import java.net.URL;
 import java.util.*;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.*;
 import java.security.CodeSigner;
 import java.security.cert.Certificate;
@@ -204,7 +205,10 @@ class JarFile extends ZipFile {
         return man;
     }
 
-    private native String[] getMetaInfEntryNames();
+    private String[] getMetaInfEntryNames() {
+        return SharedSecrets.getJavaUtilZipFileAccess()
+                            .getMetaInfEntryNames(this);
+    }
 
     /**
      * Returns the <code>JarEntry</code> for the given entry name or
@@ -364,6 +368,9 @@ class JarFile extends ZipFile {
         try {
             String[] names = getMetaInfEntryNames();
             if (names != null) {
+                List<JarEntry> entries = new ArrayList<>();
+                List<String> entryNames = new ArrayList<>();
+                List<byte[]> contents = new ArrayList<>();
                 for (int i = 0; i < names.length; i++) {
                     String uname = names[i].toUpperCase(Locale.ENGLISH);
                     if (MANIFEST_NAME.equals(uname)
@@ -372,11 +379,21 @@ class JarFile extends ZipFile {
                         if (e == null) {
                             throw new JarException("corrupted jar file");
                         }
+                        entries.add(e);
+                        entryNames.add(e.getName());
+                        contents.add(getBytes(e));
+                    }
+                }
+                // the same signature files may have been processed
+                // already, for another jar file with the same manifest
+                if (!jv.findCachedSigners(entryNames, contents)) {
+                    for (int i = 0; i < entries.size(); i++) {
+                        JarEntry e = entries.get(i);
                         if (mev == null) {
                             mev = new ManifestEntryVerifier
                                 (getManifestFromReference());
                         }
-                        byte[] b = getBytes(e);
+                        byte[] b = contents.get(i);
                         if (b != null && b.length > 0) {
                             jv.beginEntry(e, mev);
                             jv.update(b.length, b, 0, b.length, mev);
@@ -465,6 +482,57 @@ class JarFile extends ZipFile {
             jv);
     }
 
+    /**
+     * Verifies the signed entries of this jar file that have not been
+     * verified yet, reading them concurrently on the tasks of the
+     * {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if any of the jar file entries
+     *         are incorrectly signed.
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @see #verify(ForkJoinPool)
+     * @since 1.8
+     */
+    public void verify() throws IOException {
+        verify(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies the signed entries of this jar file that have not been
+     * verified yet, reading them concurrently on the tasks of the given
+     * pool. Entries are otherwise verified when they are read; once
+     * verified, the {@linkplain JarEntry#getCodeSigners code signers} of
+     * an entry are known without reading it. Verification is the same
+     * in both cases: an entry that is incorrectly signed is not treated
+     * as signed, and reading it later throws a {@code SecurityException}
+     * again. This method does nothing if the jar file is not signed or
+     * was opened without verification.
+     *
+     * @param pool the pool that runs the verification tasks
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if any of the jar file entries
+     *         are incorrectly signed, once the other entries have been
+     *         verified
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @since 1.8
+     */
+    public void verify(ForkJoinPool pool) throws IOException {
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        JarVerifier jv;
+        synchronized (this) {
+            ensureInitialization();
+            jv = this.jv;
+        }
+        if (jv != null) {
+            jv.verifyEntries(this, pool);
+        }
+    }
+
     // Statics for hand-coded Boyer-Moore search
     private static final char[] CLASSPATH_CHARS = {'c','l','a','s','s','-','p','a','t','h'};
     // The bad character shift for "class-path"
@@ -30,9 +30,14 @@ import java.net.URL;
 import java.util.*;
 import java.security.*;
 import java.security.cert.CertificateException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 
 import sun.misc.JarIndex;
+import sun.security.jca.Providers;
+import sun.security.util.Cache;
 import sun.security.util.ManifestDigester;
 import sun.security.util.ManifestEntryVerifier;
 import sun.security.util.SignatureFileVerifier;
@@ -93,6 +98,22 @@ class JarVerifier {
     /** collect -DIGEST-MANIFEST values for blacklist */
     private List<Object> manifestDigests;
 
+    /**
+     * The signers found by processing the signature files of jar files,
+     * keyed by the digest of the manifest and signature files. Processing
+     * depends on the time through timestamps and disabled algorithm
+     * constraints, so the entries expire after an hour.
+     */
+    private static final Cache<MetaKey, MetaSigners> metaCache =
+        Cache.newSoftMemoryCache(64, 3600);
+
+    /** the key of the signers of this verifier in the cache, to be
+        stored once the META-INF entries are processed */
+    private MetaKey metaKey;
+
+    /** number of entries verified by one task of verifyEntries */
+    private static final int VERIFY_BATCH_SIZE = 8;
+
     public JarVerifier(byte rawBytes[]) {
         manifestRawBytes = rawBytes;
         sigFileSigners = new Hashtable<>();
@@ -179,9 +200,14 @@ class JarVerifier {
             name = name.substring(1);
 
         // only set the jev object for entries that have a signature
-        // (either verified or not)
-        if (sigFileSigners.get(name) != null ||
-                verifiedSigners.get(name) != null) {
+        // (either verified or not); the signers of an entry move from
+        // one table to the other under the lock of sigFileSigners
+        boolean signed;
+        synchronized (sigFileSigners) {
+            signed = sigFileSigners.get(name) != null ||
+                     verifiedSigners.get(name) != null;
+        }
+        if (signed) {
             mev.setEntry(name, je);
             return;
         }
@@ -419,6 +445,11 @@ class JarVerifier {
      */
     void doneWithMeta()
     {
+        if (metaKey != null) {
+            metaCache.put(metaKey, new MetaSigners(sigFileSigners,
+                                                   manifestDigests));
+            metaKey = null;
+        }
         parsingMeta = false;
         anyToVerify = !sigFileSigners.isEmpty();
         baos = null;
@@ -434,6 +465,167 @@ class JarVerifier {
         }
     }
 
+    /**
+     * Looks up the signers found by processing the given signature files
+     * of another jar file with the same manifest. Returns true if they were
+     * found, in which case the signature files need not be processed;
+     * otherwise the signers found by processing them are cached when done.
+     * Must be called before any META-INF entry is processed.
+     */
+    boolean findCachedSigners(List<String> names, List<byte[]> contents)
+    {
+        byte[] digest;
+        try {
+            // use the Sun provider, as ManifestEntryVerifier does, as
+            // providers may be in signed jars themselves
+            MessageDigest md = MessageDigest.getInstance("SHA-256",
+                Providers.getSunProvider());
+            md.update(manifestRawBytes);
+            for (int i = 0; i < names.size(); i++) {
+                byte[] name = names.get(i).getBytes("UTF-8");
+                byte[] b = contents.get(i);
+                updateLength(md, name.length);
+                md.update(name);
+                updateLength(md, b.length);
+                md.update(b);
+            }
+            digest = md.digest();
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            return false;
+        }
+        MetaKey key = new MetaKey(digest);
+        MetaSigners ms = metaCache.get(key);
+        if (ms == null) {
+            metaKey = key;
+            return false;
+        }
+        if (debug != null) {
+            debug.println("found cached signers");
+        }
+        sigFileSigners.putAll(ms.sigFileSigners);
+        manifestDigests.addAll(ms.manifestDigests);
+        return true;
+    }
+
+    private static void updateLength(MessageDigest md, int len) {
+        md.update((byte)(len >>> 24));
+        md.update((byte)(len >>> 16));
+        md.update((byte)(len >>> 8));
+        md.update((byte)len);
+    }
+
+    /**
+     * The digest of the manifest and signature files of a jar file.
+     */
+    private static final class MetaKey {
+        private final byte[] digest;
+        private final int hash;
+
+        MetaKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object obj) {
+            return obj instanceof MetaKey &&
+                MessageDigest.isEqual(digest, ((MetaKey)obj).digest);
+        }
+    }
+
+    /**
+     * The results of processing the signature files of a jar file.
+     */
+    private static final class MetaSigners {
+        final Map<String, CodeSigner[]> sigFileSigners;
+        final List<Object> manifestDigests;
+
+        MetaSigners(Map<String, CodeSigner[]> sigFileSigners,
+                    List<Object> manifestDigests) {
+            this.sigFileSigners = new HashMap<>(sigFileSigners);
+            this.manifestDigests = new ArrayList<>(manifestDigests);
+        }
+    }
+
+    /**
+     * Verifies the signed entries of the jar file that have not been
+     * verified yet, reading them concurrently on the given pool. An entry
+     * that fails verification is left unverified, so that reading it
+     * throws the SecurityException again, and the first such exception is
+     * thrown once the other entries have been verified.
+     */
+    void verifyEntries(JarFile jar, ForkJoinPool pool) throws IOException {
+        String[] names;
+        synchronized (sigFileSigners) {
+            names = sigFileSigners.keySet().toArray(new String[0]);
+        }
+        if (names.length == 0) {
+            return;
+        }
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        pool.invoke(new VerifyTask(jar, names, 0, names.length, failure));
+        Exception e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException)e;
+        } else if (e != null) {
+            throw (SecurityException)e;
+        }
+    }
+
+    /**
+     * A task reading a range of signed entries to verify them.
+     */
+    private static final class VerifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final JarFile jar;
+        private final String[] names;
+        private final int lo, hi;
+        // the first failure; an IOException stops the verification
+        private final AtomicReference<Exception> failure;
+
+        VerifyTask(JarFile jar, String[] names, int lo, int hi,
+                   AtomicReference<Exception> failure) {
+            this.jar = jar;
+            this.names = names;
+            this.lo = lo;
+            this.hi = hi;
+            this.failure = failure;
+        }
+
+        protected void compute() {
+            if (hi - lo > VERIFY_BATCH_SIZE) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new VerifyTask(jar, names, lo, mid, failure),
+                          new VerifyTask(jar, names, mid, hi, failure));
+                return;
+            }
+            byte[] buffer = new byte[8192];
+            for (int i = lo; i < hi; i++) {
+                if (failure.get() instanceof IOException) {
+                    return;
+                }
+                // entries named with a ./ or / prefix in the jar are
+                // verified when read
+                JarEntry je = jar.getJarEntry(names[i]);
+                if (je == null || je.isDirectory()) {
+                    continue;
+                }
+                try (InputStream is = jar.getInputStream(je)) {
+                    while (is.read(buffer, 0, buffer.length) != -1)
+                        ;
+                } catch (SecurityException se) {
+                    failure.compareAndSet(null, se);
+                } catch (IOException ioe) {
+                    failure.compareAndSet(null, ioe);
+                }
+            }
+        }
+    }
+
     static class VerifierStream extends java.io.InputStream {
 
         private InputStream is;
@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <tt>Handler</tt> that hands <tt>LogRecords</tt> to a target
+ * <tt>Handler</tt> on a background thread.
+ * <p>
+ * The <tt>publish</tt> method only checks the level and filter of the
+ * record and stores it into a bounded ring buffer, without taking a lock.
+ * A single background thread takes the records out of the buffer in
+ * batches, publishes them to the target <tt>Handler</tt>, which formats
+ * and writes them, and flushes the target once per batch.  Logging
+ * threads therefore neither wait for the target's lock nor pay for the
+ * formatting of the records.
+ * <p>
+ * The source class and method of a record are inferred on the logging
+ * thread, before the record is buffered.  The parameters of a record are
+ * formatted later, on the background thread, so they should not be
+ * modified once they have been logged.
+ * <p>
+ * When the buffer is full the {@linkplain OverflowPolicy overflow policy}
+ * decides whether the logging thread waits for space or the record is
+ * dropped.  The number of buffered records and the number of dropped
+ * records are available from {@link #getQueueDepth} and {@link
+ * #getDropCount}, and through the {@link LoggingMXBean}.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * If no default value is defined then a RuntimeException is thrown.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.size
+ *        defines the buffer size, rounded up to a power of two
+ *        (defaults to 8192). </li>
+ * <li>   &lt;handler-name&gt;.batchSize
+ *        defines the largest number of records published between two
+ *        flushes of the target (defaults to 256). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the {@link OverflowPolicy} by name
+ *        (defaults to <tt>BLOCK</tt>). </li>
+ * <li>   &lt;handler-name&gt;.overflowLevel
+ *        defines the level below which records are dropped under the
+ *        <tt>DROP_BELOW_LEVEL</tt> policy
+ *        (defaults to <tt>Level.WARNING</tt>). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target <tt>Handler </tt> class.
+ *        (no default). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for {@code AsyncHandler} could be:
+ * <ul>
+ * <li>   java.util.logging.AsyncHandler.target=java.util.logging.FileHandler </li>
+ * <li>   java.util.logging.AsyncHandler.overflow=DROP_BELOW_LEVEL </li>
+ * </ul>
+ * <p>
+ * @since 1.8
+ */
+
+public class AsyncHandler extends Handler {
+
+    /**
+     * What happens to a record that is published while the buffer is full.
+     */
+    public static enum OverflowPolicy {
+        /** The logging thread waits until there is space in the buffer. */
+        BLOCK,
+        /** The record is dropped. */
+        DROP,
+        /**
+         * The record is dropped if its level is below the overflow level;
+         * otherwise the logging thread waits as for <tt>BLOCK</tt>.
+         */
+        DROP_BELOW_LEVEL
+    }
+
+    private final static int DEFAULT_SIZE = 8192;
+    private final static int DEFAULT_BATCH_SIZE = 256;
+    private final static int MAX_SIZE = 1 << 30;
+
+    // How long blocked publishers and flushing threads sleep before
+    // looking at the buffer again
+    private final static long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile Level overflowLevel;
+    private int size;
+    private int batchSize;
+    private Handler target;
+
+    // The ring buffer.  The slot of position p is ring[p & mask]; its
+    // sequence is p when the slot is free for the producer of position p,
+    // and p + 1 once that producer has stored its record.
+    private LogRecord[] ring;
+    private AtomicLongArray sequences;
+    private int mask;
+
+    // next position to be claimed by a producer, with the SEALED bit set
+    // once the background thread has taken its last record
+    private final AtomicLong tail = new AtomicLong();
+    private final static long SEALED = Long.MIN_VALUE;
+    // next position to be taken by the background thread
+    private volatile long head;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Thread worker;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    // Private method to configure an AsyncHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        size = manager.getIntProperty(cname + ".size", DEFAULT_SIZE);
+        if (size <= 0) {
+            size = DEFAULT_SIZE;
+        }
+        batchSize = manager.getIntProperty(cname + ".batchSize", DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+        overflowPolicy = OverflowPolicy.BLOCK;
+        String policy = manager.getStringProperty(cname + ".overflow", null);
+        if (policy != null) {
+            try {
+                overflowPolicy = OverflowPolicy.valueOf(policy.trim());
+            } catch (IllegalArgumentException ex) {
+                // use the default
+            }
+        }
+        overflowLevel = manager.getLevelProperty(cname + ".overflowLevel", Level.WARNING);
+        setLevel(manager.getLevelProperty(cname + ".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname + ".filter", null));
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt> and configure it based on
+     * <tt>LogManager</tt> configuration properties.
+     */
+    public AsyncHandler() {
+        sealed = false;
+        configure();
+        sealed = true;
+
+        LogManager manager = LogManager.getLogManager();
+        String handlerName = getClass().getName();
+        String targetName = manager.getProperty(handlerName + ".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + handlerName
+                    + " does not specify a target");
+        }
+        Class<?> clz;
+        try {
+            clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            target = (Handler) clz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("AsyncHandler can't load handler target \"" + targetName + "\"" , e);
+        }
+        init();
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt>.
+     * <p>
+     * The <tt>AsyncHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given target,
+     * buffer size and overflow policy are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param size    the number of log records to buffer (must be greater
+     *                than zero), rounded up to a power of two
+     * @param overflowPolicy  what to do with records published while the
+     *                buffer is full
+     *
+     * @throws IllegalArgumentException if {@code size is <= 0}
+     */
+    public AsyncHandler(Handler target, int size, OverflowPolicy overflowPolicy) {
+        if (target == null || overflowPolicy == null) {
+            throw new NullPointerException();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException();
+        }
+        sealed = false;
+        configure();
+        sealed = true;
+        this.target = target;
+        this.size = size;
+        this.overflowPolicy = overflowPolicy;
+        init();
+    }
+
+    // Initialize the buffer and start the background thread.
+    private void init() {
+        int capacity = 1;
+        while (capacity < size && capacity < MAX_SIZE) {
+            capacity <<= 1;
+        }
+        ring = new LogRecord[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+
+        worker = AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+            @Override
+            public Thread run() {
+                Thread t = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        drainLoop();
+                    }
+                }, "AsyncHandler-" + target.getClass().getName());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        worker.start();
+    }
+
+    /**
+     * Store a <tt>LogRecord</tt> in the buffer, to be published to the
+     * target <tt>Handler</tt> by the background thread.
+     * <p>
+     * If the record is not loggable it is ignored.  Otherwise its source
+     * class and method are inferred, if that has not been done yet, and the
+     * record is stored into the buffer.  If the buffer is full the overflow
+     * policy decides whether this method waits or the record is dropped.
+     * Records published after the handler is closed are ignored; a record
+     * published while the handler is being closed is either handed to the
+     * target or counted as dropped.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // infer the caller while still on the caller's thread
+        record.getSourceClassName();
+        if (!offer(record)) {
+            OverflowPolicy policy = overflowPolicy;
+            if (policy == OverflowPolicy.DROP
+                || (policy == OverflowPolicy.DROP_BELOW_LEVEL
+                    && record.getLevel().intValue() < overflowLevel.intValue())) {
+                dropped.incrementAndGet();
+                return;
+            }
+            while (!offer(record)) {
+                if (closed || !worker.isAlive()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+        if (waiting) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    // Stores a record into the buffer, returns false if it is full or
+    // sealed.
+    private boolean offer(LogRecord record) {
+        for (;;) {
+            long pos = tail.get();
+            if (pos < 0) {
+                return false;   // sealed
+            }
+            int ix = (int) pos & mask;
+            long diff = sequences.get(ix) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    ring[ix] = record;
+                    sequences.set(ix, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // else another producer claimed this position, retry
+        }
+    }
+
+    // Takes the next record out of the buffer, or returns null if there
+    // is none.  Only called by the background thread.
+    private LogRecord poll() {
+        long pos = head;
+        int ix = (int) pos & mask;
+        if (sequences.get(ix) != pos + 1) {
+            return null;
+        }
+        LogRecord record = ring[ix];
+        ring[ix] = null;
+        sequences.lazySet(ix, pos + mask + 1);
+        head = pos + 1;
+        return record;
+    }
+
+    private void drainLoop() {
+        for (;;) {
+            int n = 0;
+            LogRecord record;
+            while (n < batchSize && (record = poll()) != null) {
+                try {
+                    target.publish(record);
+                } catch (Throwable ex) {
+                    reportFailure(ex, ErrorManager.WRITE_FAILURE);
+                }
+                n++;
+            }
+            if (n > 0) {
+                try {
+                    target.flush();
+                } catch (Throwable ex) {
+                    reportFailure(ex, ErrorManager.FLUSH_FAILURE);
+                }
+                continue;
+            }
+            if (closed) {
+                // Records claimed before the buffer is sealed are taken
+                // out, waiting for those claimed but not stored yet;
+                // records offered after it is sealed are dropped
+                long pos = tail.get();
+                if (head == pos) {
+                    if (tail.compareAndSet(pos, pos | SEALED)) {
+                        return;
+                    }
+                } else {
+                    Thread.yield();
+                }
+                continue;
+            }
+            // publish unparks the thread if it sees waiting set after
+            // storing its record; close unparks it unconditionally
+            waiting = true;
+            if (head == tail.get() && !closed) {
+                LockSupport.park(this);
+            }
+            waiting = false;
+        }
+    }
+
+    // Reports a failure of the target to the ErrorManager.  Errors are
+    // reported as well, so that they do not kill the background thread.
+    private void reportFailure(Throwable ex, int code) {
+        if (ex instanceof Exception) {
+            reportError(null, (Exception) ex, code);
+        } else {
+            reportError(ex.toString(), null, code);
+        }
+    }
+
+    /**
+     * Waits until the records published before this call have been handed
+     * to the target <tt>Handler</tt>, then flushes the target.
+     */
+    @Override
+    public void flush() {
+        long pos = tail.get() & ~SEALED;
+        while (head < pos && worker.isAlive()) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        target.flush();
+    }
+
+    /**
+     * Close the <tt>Handler</tt> and free all associated resources.
+     * The records in the buffer are published to the target
+     * <tt>Handler</tt>, which is then closed as well.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        closed = true;
+        LockSupport.unpark(worker);
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // if the background thread died without sealing the buffer, seal
+        // it here and count the records left in it as dropped
+        long pos;
+        do {
+            pos = tail.get();
+        } while (pos >= 0 && !tail.compareAndSet(pos, pos | SEALED));
+        long left = (pos & ~SEALED) - head;
+        if (left > 0) {
+            dropped.addAndGet(left);
+        }
+        target.close();
+        setLevel(Level.OFF);
+    }
+
+    /**
+     * Set the overflow policy.
+     *
+     * @param policy the new overflow policy
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setOverflowPolicy(OverflowPolicy policy) throws SecurityException {
+        if (policy == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        overflowPolicy = policy;
+    }
+
+    /**
+     * Get the overflow policy.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set the level below which records are dropped when the buffer is
+     * full and the overflow policy is <tt>DROP_BELOW_LEVEL</tt>.
+     *
+     * @param newLevel the new overflow level
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setOverflowLevel(Level newLevel) throws SecurityException {
+        if (newLevel == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        overflowLevel = newLevel;
+    }
+
+    /**
+     * Get the overflow level.
+     *
+     * @return the overflow level
+     */
+    public Level getOverflowLevel() {
+        return overflowLevel;
+    }
+
+    /**
+     * Returns the number of records in the buffer that have not been
+     * handed to the target <tt>Handler</tt> yet.
+     *
+     * @return the number of buffered records
+     */
+    public long getQueueDepth() {
+        return Math.max(0L, (tail.get() & ~SEALED) - head);
+    }
+
+    /**
+     * Returns the number of records that have been dropped because the
+     * buffer was full.
+     *
+     * @return the number of dropped records
+     */
+    public long getDropCount() {
+        return dropped.get();
+    }
+}
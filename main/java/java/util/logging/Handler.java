@@ -301,6 +301,13 @@ public abstract class Handler {
         return filter.isLoggable(record);
     }
 
+    // Package-private support method for Logger: returns false if this
+    // handler's level alone rules out records of the given level value.
+    boolean isLevelEnabled(int value) {
+        final int levelValue = getLevel().intValue();
+        return value >= levelValue && levelValue != offValue;
+    }
+
     // Package-private support method for security checks.
     // If "sealed" is true, we check that the caller has
     // appropriate security privileges to update Handler
@@ -1667,6 +1667,12 @@ public class LogManager {
             initializeGlobalHandlers();
             return super.accessCheckedHandlers();
         }
+
+        @Override
+        List<Handler> publishingHandlers() {
+            initializeGlobalHandlers();
+            return liveHandlers();
+        }
     }
 
 
@@ -31,6 +31,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
@@ -730,12 +731,20 @@ public class Logger {
 
         Logger logger = this;
         while (logger != null) {
-            final Handler[] loggerHandlers = isSystemLogger
-                ? logger.accessCheckedHandlers()
-                : logger.getHandlers();
+            final List<Handler> liveHandlers = logger.publishingHandlers();
+            if (liveHandlers != null) {
+                // No need to copy the handlers to an array for every record.
+                for (Handler handler : liveHandlers) {
+                    handler.publish(record);
+                }
+            } else {
+                final Handler[] loggerHandlers = isSystemLogger
+                    ? logger.accessCheckedHandlers()
+                    : logger.getHandlers();
 
-            for (Handler handler : loggerHandlers) {
-                handler.publish(record);
+                for (Handler handler : loggerHandlers) {
+                    handler.publish(record);
+                }
             }
 
             final boolean useParentHdls = isSystemLogger
@@ -750,6 +759,38 @@ public class Logger {
         }
     }
 
+    // private support method for logging.
+    // Returns false if no handler reached by log(LogRecord) would publish
+    // a record of the given level, so that the convenience methods need not
+    // create the LogRecord at all.  Only handlers of the bootstrap class
+    // loader are trusted to discard records below their own level: any
+    // other handler, a filter on this logger, or a logger whose handlers
+    // cannot be inspected is assumed to accept the record.
+    private boolean hasPublishingHandler(Level level) {
+        if (filter != null) {
+            return true;
+        }
+        final int value = level.intValue();
+        Logger logger = this;
+        while (logger != null) {
+            final List<Handler> liveHandlers = logger.publishingHandlers();
+            if (liveHandlers == null) {
+                return true;
+            }
+            for (Handler handler : liveHandlers) {
+                if (handler.getClass().getClassLoader() != null
+                        || handler.isLevelEnabled(value)) {
+                    return true;
+                }
+            }
+            if (!logger.useParentHandlers) {
+                return false;
+            }
+            logger = logger.parent;
+        }
+        return false;
+    }
+
     // private support method for logging.
     // We fill in the logger name, resource bundle name, and
     // resource bundle and then call "void log(LogRecord)".
@@ -781,7 +822,7 @@ public class Logger {
      * @param   msg     The string message (or a key in the message catalog)
      */
     public void log(Level level, String msg) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -802,7 +843,7 @@ public class Logger {
      *                        desired log message
      */
     public void log(Level level, Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -821,7 +862,7 @@ public class Logger {
      * @param   param1  parameter to the message
      */
     public void log(Level level, String msg, Object param1) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -842,7 +883,7 @@ public class Logger {
      * @param   params  array of parameters to the message
      */
     public void log(Level level, String msg, Object params[]) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -867,7 +908,7 @@ public class Logger {
      * @param   thrown  Throwable associated with log message.
      */
     public void log(Level level, String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -895,7 +936,7 @@ public class Logger {
      * @since   1.8
      */
     public void log(Level level, Throwable thrown, Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -921,7 +962,7 @@ public class Logger {
      * @param   msg     The string message (or a key in the message catalog)
      */
     public void logp(Level level, String sourceClass, String sourceMethod, String msg) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -948,7 +989,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                      Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -973,7 +1014,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                                                 String msg, Object param1) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1000,7 +1041,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                                                 String msg, Object params[]) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1031,7 +1072,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                      String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1065,7 +1106,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                      Throwable thrown, Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -1127,7 +1168,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                 String bundleName, String msg) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1162,7 +1203,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                 String bundleName, String msg, Object param1) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1199,7 +1240,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                 String bundleName, String msg, Object params[]) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1232,7 +1273,7 @@ public class Logger {
      */
     public void logrb(Level level, String sourceClass, String sourceMethod,
                       ResourceBundle bundle, String msg, Object... params) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1275,7 +1316,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                         String bundleName, String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1313,7 +1354,7 @@ public class Logger {
      */
     public void logrb(Level level, String sourceClass, String sourceMethod,
                       ResourceBundle bundle, String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isLoggable(level) || !hasPublishingHandler(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1436,7 +1477,7 @@ public class Logger {
      * @param   thrown  The Throwable that is being thrown.
      */
     public void throwing(String sourceClass, String sourceMethod, Throwable thrown) {
-        if (!isLoggable(Level.FINER)) {
+        if (!isLoggable(Level.FINER) || !hasPublishingHandler(Level.FINER)) {
             return;
         }
         LogRecord lr = new LogRecord(Level.FINER, "THROW");
@@ -1782,6 +1823,19 @@ public class Logger {
         return handlers.toArray(emptyHandlers);
     }
 
+    // Returns the live list of handlers of this logger, to be iterated by
+    // log(LogRecord) in place of a copy, or null if a subclass may have
+    // overridden getHandlers, getUseParentHandlers or getParent.
+    // Overridden by LogManager.RootLogger.
+    List<Handler> publishingHandlers() {
+        return getClass() == Logger.class ? handlers : null;
+    }
+
+    // The live list of handlers, for LogManager.RootLogger.
+    final List<Handler> liveHandlers() {
+        return handlers;
+    }
+
     /**
      * Specify whether or not this logger should send its output
      * to its parent Logger.  This means that any LogRecords will
@@ -116,4 +116,33 @@ class Logging implements LoggingMXBean {
             return p.getName();
         }
     }
+
+    public long getHandlerQueueDepth(String loggerName) {
+        long depth = 0;
+        for (AsyncHandler h : getAsyncHandlers(loggerName)) {
+            depth += h.getQueueDepth();
+        }
+        return depth;
+    }
+
+    public long getHandlerDropCount(String loggerName) {
+        long count = 0;
+        for (AsyncHandler h : getAsyncHandlers(loggerName)) {
+            count += h.getDropCount();
+        }
+        return count;
+    }
+
+    private static List<AsyncHandler> getAsyncHandlers(String loggerName) {
+        ArrayList<AsyncHandler> result = new ArrayList<>();
+        Logger l = logManager.getLogger(loggerName);
+        if (l != null) {
+            for (Handler h : l.getHandlers()) {
+                if (h instanceof AsyncHandler) {
+                    result.add((AsyncHandler) h);
+                }
+            }
+        }
+        return result;
+    }
 }
@@ -136,4 +136,50 @@ public interface LoggingMXBean {
      *         is returned.
      */
     public String getParentLoggerName(String loggerName);
+
+    /**
+     * Returns the number of log records buffered by the
+     * {@link AsyncHandler}s of the specified logger that have not been
+     * published to their targets yet.
+     * If the specified logger does not exist, or has no
+     * <tt>AsyncHandler</tt>, zero is returned.
+     *
+     * @param loggerName The name of a <tt>Logger</tt>.
+     *
+     * @return the sum of the queue depths of the logger's
+     *         <tt>AsyncHandler</tt>s, or {@code -1} if this
+     *         <tt>LoggingMXBean</tt> does not provide it.
+     *
+     * @implSpec
+     * The default implementation returns {@code -1}.
+     *
+     * @see AsyncHandler#getQueueDepth
+     * @since 1.8
+     */
+    public default long getHandlerQueueDepth(String loggerName) {
+        return -1;
+    }
+
+    /**
+     * Returns the number of log records dropped by the
+     * {@link AsyncHandler}s of the specified logger because their
+     * buffers were full.
+     * If the specified logger does not exist, or has no
+     * <tt>AsyncHandler</tt>, zero is returned.
+     *
+     * @param loggerName The name of a <tt>Logger</tt>.
+     *
+     * @return the sum of the drop counts of the logger's
+     *         <tt>AsyncHandler</tt>s, or {@code -1} if this
+     *         <tt>LoggingMXBean</tt> does not provide it.
+     *
+     * @implSpec
+     * The default implementation returns {@code -1}.
+     *
+     * @see AsyncHandler#getDropCount
+     * @since 1.8
+     */
+    public default long getHandlerDropCount(String loggerName) {
+        return -1;
+    }
 }
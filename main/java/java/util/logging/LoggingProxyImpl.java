@@ -91,6 +91,16 @@ class LoggingProxyImpl implements LoggingProxy {
         return LogManager.getLoggingMXBean().getParentLoggerName(loggerName);
     }
 
+    @Override
+    public long getHandlerQueueDepth(String loggerName) {
+        return LogManager.getLoggingMXBean().getHandlerQueueDepth(loggerName);
+    }
+
+    @Override
+    public long getHandlerDropCount(String loggerName) {
+        return LogManager.getLoggingMXBean().getHandlerDropCount(loggerName);
+    }
+
     @Override
     public Object parseLevel(String levelName) {
         Level level = Level.findLevel(levelName);
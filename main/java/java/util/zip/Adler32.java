@@ -134,6 +134,39 @@ class Adler32 implements Checksum {
         return (long)adler & 0xffffffffL;
     }
 
+    /**
+     * Combines the Adler-32 checksums of two consecutive sequences of
+     * bytes. Given the checksum {@code adler1} of a first sequence and the
+     * checksum {@code adler2} of a second sequence of {@code len2} bytes,
+     * returns the checksum of the first sequence followed by the second
+     * one. This allows the parts of a large input to be checksummed
+     * independently, for instance in parallel, and the results to be merged.
+     *
+     * @param adler1 the checksum of the first sequence
+     * @param adler2 the checksum of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the checksum of the concatenation of both sequences
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 1.8
+     */
+    public static long combine(long adler1, long adler2, long len2) {
+        if (len2 < 0)
+            throw new IllegalArgumentException("Negative length: " + len2);
+
+        // the same computation as zlib's adler32_combine
+        final long BASE = 65521;    // largest prime smaller than 65536
+        long rem = len2 % BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % BASE;
+        sum1 += (adler2 & 0xffff) + BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + BASE - rem;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum2 >= (BASE << 1)) sum2 -= (BASE << 1);
+        if (sum2 >= BASE) sum2 -= BASE;
+        return sum1 | (sum2 << 16);
+    }
+
     private native static int update(int adler, int b);
     private native static int updateBytes(int adler, byte[] b, int off,
                                           int len);
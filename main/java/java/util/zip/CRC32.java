@@ -131,6 +131,28 @@ class CRC32 implements Checksum {
         return (long)crc & 0xffffffffL;
     }
 
+    /**
+     * Combines the CRC-32 values of two consecutive sequences of bytes.
+     * Given the CRC-32 {@code crc1} of a first sequence and the CRC-32
+     * {@code crc2} of a second sequence of {@code len2} bytes, returns the
+     * CRC-32 of the first sequence followed by the second one. This allows
+     * the parts of a large input to be checksummed independently, for
+     * instance in parallel, and the results to be merged.
+     *
+     * @param crc1 the CRC-32 of the first sequence
+     * @param crc2 the CRC-32 of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32 of the concatenation of both sequences
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 1.8
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        if (len2 < 0)
+            throw new IllegalArgumentException("Negative length: " + len2);
+        return ZipUtils.combineCRC(0xedb88320, (int)crc1, (int)crc2, len2)
+               & 0xffffffffL;
+    }
+
     private native static int update(int crc, int b);
     private native static int updateBytes(int crc, byte[] b, int off, int len);
 
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A class that can be used to compute the CRC-32C of a data stream.
+ *
+ * <p> CRC-32C is defined in <a href="http://www.ietf.org/rfc/rfc3720.txt">RFC
+ * 3720</a>: Internet Small Computer Systems Interface (iSCSI). It uses the
+ * Castagnoli polynomial, which has better error detection properties than
+ * the polynomial of CRC-32, and is used by iSCSI, SCTP, ext4 and Btrfs.
+ *
+ * <p> Passing a {@code null} argument to a method in this class will cause
+ * a {@link NullPointerException} to be thrown.
+ *
+ * @see Checksum
+ * @since 1.8
+ */
+public final class CRC32C implements Checksum {
+
+    /*
+     * This CRC-32C implementation uses the 'slicing-by-8' algorithm described
+     * in the paper "A Systematic Approach to Building High Performance
+     * Software-Based CRC Generators" by Michael E. Kounavis and Frank L. Berry,
+     * Intel Research and Development. Eight bytes are processed at a time,
+     * read as a single long from the array or the buffer memory.
+     */
+
+    /**
+     * CRC-32C Polynomial, reversed.
+     */
+    static final int REVERSED_CRC32C_POLY = Integer.reverse(0x1EDC6F41);
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    private static final boolean BIG_ENDIAN =
+        ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    // byteTableK[i] is the CRC of byte i followed by K zero bytes
+    private static final int[] byteTable0 = new int[256];
+    private static final int[] byteTable1 = new int[256];
+    private static final int[] byteTable2 = new int[256];
+    private static final int[] byteTable3 = new int[256];
+    private static final int[] byteTable4 = new int[256];
+    private static final int[] byteTable5 = new int[256];
+    private static final int[] byteTable6 = new int[256];
+    private static final int[] byteTable7 = new int[256];
+
+    static {
+        int[][] tables = { byteTable0, byteTable1, byteTable2, byteTable3,
+                           byteTable4, byteTable5, byteTable6, byteTable7 };
+        for (int index = 0; index < 256; index++) {
+            int r = index;
+            for (int i = 0; i < 8; i++) {
+                if ((r & 1) != 0) {
+                    r = (r >>> 1) ^ REVERSED_CRC32C_POLY;
+                } else {
+                    r >>>= 1;
+                }
+            }
+            byteTable0[index] = r;
+        }
+        for (int k = 1; k < tables.length; k++) {
+            for (int index = 0; index < 256; index++) {
+                int r = tables[k - 1][index];
+                tables[k][index] = (r >>> 8) ^ byteTable0[r & 0xFF];
+            }
+        }
+    }
+
+    /**
+     * Calculated CRC-32C value
+     */
+    private int crc = 0xFFFFFFFF;
+
+    /**
+     * Creates a new CRC32C object.
+     */
+    public CRC32C() {
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified byte (the low eight
+     * bits of the argument b).
+     *
+     * @param b the byte to update the checksum with
+     */
+    public void update(int b) {
+        crc = (crc >>> 8) ^ byteTable0[(crc ^ b) & 0xFF];
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @throws  ArrayIndexOutOfBoundsException
+     *          if {@code off} is negative, or {@code len} is negative,
+     *          or {@code off+len} is greater than the length of the
+     *          array {@code b}
+     */
+    public void update(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        }
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        crc = updateBytes(crc, b, off, off + len);
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @param b the array of bytes to update the checksum with
+     */
+    public void update(byte[] b) {
+        crc = updateBytes(crc, b, 0, b.length);
+    }
+
+    /**
+     * Updates the checksum with the bytes from the specified buffer.
+     *
+     * The checksum is updated using
+     * buffer.{@link java.nio.Buffer#remaining() remaining()}
+     * bytes starting at
+     * buffer.{@link java.nio.Buffer#position() position()}
+     * Upon return, the buffer's position will
+     * be updated to its limit; its limit will not have been changed.
+     *
+     * @param buffer the ByteBuffer to update the checksum with
+     */
+    public void update(ByteBuffer buffer) {
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        assert (pos <= limit);
+        int rem = limit - pos;
+        if (rem <= 0)
+            return;
+        if (buffer instanceof DirectBuffer) {
+            crc = updateDirectByteBuffer(crc, ((DirectBuffer)buffer).address(),
+                                         pos, limit);
+        } else if (buffer.hasArray()) {
+            crc = updateBytes(crc, buffer.array(), pos + buffer.arrayOffset(),
+                              limit + buffer.arrayOffset());
+        } else {
+            byte[] b = new byte[Math.min(rem, 4096)];
+            while (buffer.hasRemaining()) {
+                int length = Math.min(buffer.remaining(), b.length);
+                buffer.get(b, 0, length);
+                crc = updateBytes(crc, b, 0, length);
+            }
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Resets CRC-32C to initial value.
+     */
+    public void reset() {
+        crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * Returns CRC-32C value.
+     */
+    public long getValue() {
+        return (~crc) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Combines the CRC-32C values of two consecutive sequences of bytes.
+     * Given the CRC-32C {@code crc1} of a first sequence and the CRC-32C
+     * {@code crc2} of a second sequence of {@code len2} bytes, returns the
+     * CRC-32C of the first sequence followed by the second one. This allows
+     * the parts of a large input to be checksummed independently, for
+     * instance in parallel, and the results to be merged.
+     *
+     * @param crc1 the CRC-32C of the first sequence
+     * @param crc2 the CRC-32C of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32C of the concatenation of both sequences
+     * @throws IllegalArgumentException if {@code len2} is negative
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        if (len2 < 0)
+            throw new IllegalArgumentException("Negative length: " + len2);
+        return ZipUtils.combineCRC(REVERSED_CRC32C_POLY, (int)crc1, (int)crc2,
+                                   len2) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     */
+    private static int updateBytes(int crc, byte[] b, int off, int end) {
+
+        // Do only byte reads for arrays so short they can't be aligned
+        if (end - off >= 8) {
+
+            // align on 8 bytes
+            int alignLength =
+                (8 - ((Unsafe.ARRAY_BYTE_BASE_OFFSET + off) & 0x7)) & 0x7;
+            for (int alignEnd = off + alignLength; off < alignEnd; off++) {
+                crc = (crc >>> 8) ^ byteTable0[(crc ^ b[off]) & 0xFF];
+            }
+
+            // slicing-by-8
+            for (; off <= (end - 8); off += 8) {
+                long value = UNSAFE.getLong(b,
+                    (long)Unsafe.ARRAY_BYTE_BASE_OFFSET + off);
+                crc = update8(crc, value);
+            }
+        }
+
+        // Tail
+        for (; off < end; off++) {
+            crc = (crc >>> 8) ^ byteTable0[(crc ^ b[off]) & 0xFF];
+        }
+
+        return crc;
+    }
+
+    /**
+     * Updates the CRC-32C checksum reading from the specified address.
+     */
+    private static int updateDirectByteBuffer(int crc, long address,
+                                              int off, int end) {
+
+        // Do only byte reads for arrays so short they can't be aligned
+        if (end - off >= 8) {
+
+            // align on 8 bytes
+            int alignLength = (8 - (int) ((address + off) & 0x7)) & 0x7;
+            for (int alignEnd = off + alignLength; off < alignEnd; off++) {
+                crc = (crc >>> 8)
+                        ^ byteTable0[(crc ^ UNSAFE.getByte(address + off)) & 0xFF];
+            }
+
+            // slicing-by-8
+            for (; off <= (end - 8); off += 8) {
+                crc = update8(crc, UNSAFE.getLong(address + off));
+            }
+        }
+
+        // Tail
+        for (; off < end; off++) {
+            crc = (crc >>> 8)
+                    ^ byteTable0[(crc ^ UNSAFE.getByte(address + off)) & 0xFF];
+        }
+
+        return crc;
+    }
+
+    /**
+     * Updates the CRC-32C checksum with eight bytes read as a long in
+     * native byte order.
+     */
+    private static int update8(int crc, long value) {
+        if (BIG_ENDIAN) {
+            value = Long.reverseBytes(value);
+        }
+        int firstHalf = (int) value;
+        int secondHalf = (int) (value >>> 32);
+        crc ^= firstHalf;
+        return byteTable7[crc & 0xFF]
+                ^ byteTable6[(crc >>> 8) & 0xFF]
+                ^ byteTable5[(crc >>> 16) & 0xFF]
+                ^ byteTable4[crc >>> 24]
+                ^ byteTable3[secondHalf & 0xFF]
+                ^ byteTable2[(secondHalf >>> 8) & 0xFF]
+                ^ byteTable1[(secondHalf >>> 16) & 0xFF]
+                ^ byteTable0[secondHalf >>> 24];
+    }
+}
@@ -25,6 +25,9 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This class provides support for general purpose compression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -67,6 +70,11 @@ package java.util.zip;
  * }
  * </pre></blockquote>
  *
+ * <p> Input may also be set, and compressed data written, with a {@link
+ * ByteBuffer}. The array of a heap buffer is passed to zlib directly; the
+ * contents of a direct or read-only buffer are copied through an internal
+ * array of bounded size.
+ *
  * @see         Inflater
  * @author      David Connelly
  */
@@ -74,8 +82,11 @@ public
 class Deflater {
 
     private final ZStreamRef zsRef;
+    private final boolean nowrap;
     private byte[] buf = new byte[0];
     private int off, len;
+    private ByteBuffer input;       // the input buffer, if set as a buffer
+    private byte[] inputChunk, outputChunk;
     private int level, strategy;
     private boolean setParams;
     private boolean finish, finished;
@@ -152,6 +163,12 @@ class Deflater {
      */
     public static final int FULL_FLUSH = 3;
 
+    // size of the arrays used to copy data from and to direct buffers
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    // the z_streams of ended deflaters, kept for reuse
+    private static final ZStreamRef.Pool pool = new ZStreamRef.Pool(8);
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -168,7 +185,16 @@ class Deflater {
     public Deflater(int level, boolean nowrap) {
         this.level = level;
         this.strategy = DEFAULT_STRATEGY;
-        this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap));
+        this.nowrap = nowrap;
+        long addr = pool.take(poolKey(level, DEFAULT_STRATEGY, nowrap));
+        if (addr == 0)
+            addr = init(level, DEFAULT_STRATEGY, nowrap);
+        this.zsRef = new ZStreamRef(addr);
+    }
+
+    // the key of the z_streams initialized with the given parameters
+    private static int poolKey(int level, int strategy, boolean nowrap) {
+        return (strategy << 5) | ((level + 1) << 1) | (nowrap ? 1 : 0);
     }
 
     /**
@@ -207,6 +233,7 @@ class Deflater {
             this.buf = b;
             this.off = off;
             this.len = len;
+            this.input = null;
         }
     }
 
@@ -220,6 +247,29 @@ class Deflater {
         setInput(b, 0, b.length);
     }
 
+    /**
+     * Sets input data for compression. This should be called whenever
+     * needsInput() returns true indicating that more input data is required.
+     *
+     * <p> The data from the buffer's position to its limit is compressed.
+     * The position is advanced as the deflate operations consume the data,
+     * up to the limit. The buffer's contents must not be changed until it
+     * has been consumed or other input has been set.
+     *
+     * @param input the input data buffer
+     * @see Deflater#needsInput
+     * @since 1.8
+     */
+    public void setInput(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        synchronized (zsRef) {
+            this.input = input;
+            this.len = 0;
+        }
+    }
+
     /**
      * Sets preset dictionary for compression. A preset dictionary is used
      * when the history buffer can be predetermined. When the data is later
@@ -259,6 +309,38 @@ class Deflater {
         setDictionary(b, 0, b.length);
     }
 
+    /**
+     * Sets preset dictionary for compression. A preset dictionary is used
+     * when the history buffer can be predetermined. When the data is later
+     * uncompressed with Inflater.inflate(), Inflater.getAdler() can be called
+     * in order to get the Adler-32 value of the dictionary required for
+     * decompression.
+     *
+     * <p> The dictionary is the data from the buffer's position to its
+     * limit; the position is advanced to the limit.
+     *
+     * @param dictionary the dictionary data buffer
+     * @see Inflater#inflate
+     * @see Inflater#getAdler
+     * @since 1.8
+     */
+    public void setDictionary(ByteBuffer dictionary) {
+        synchronized (zsRef) {
+            ensureOpen();
+            int rem = dictionary.remaining();
+            if (dictionary.hasArray()) {
+                setDictionary(zsRef.address(), dictionary.array(),
+                              dictionary.arrayOffset() + dictionary.position(),
+                              rem);
+                dictionary.position(dictionary.limit());
+            } else {
+                byte[] b = new byte[rem];
+                dictionary.get(b);
+                setDictionary(zsRef.address(), b, 0, rem);
+            }
+        }
+    }
+
     /**
      * Sets the compression strategy to the specified value.
      *
@@ -318,7 +400,10 @@ class Deflater {
      * should be called in order to provide more input
      */
     public boolean needsInput() {
-        return len <= 0;
+        synchronized (zsRef) {
+            ByteBuffer input = this.input;
+            return input == null ? len <= 0 : !input.hasRemaining();
+        }
     }
 
     /**
@@ -438,16 +523,136 @@ class Deflater {
             ensureOpen();
             if (flush == NO_FLUSH || flush == SYNC_FLUSH ||
                 flush == FULL_FLUSH) {
-                int thisLen = this.len;
-                int n = deflateBytes(zsRef.address(), b, off, len, flush);
-                bytesWritten += n;
-                bytesRead += (thisLen - this.len);
-                return n;
+                return deflate0(b, off, len, flush);
             }
             throw new IllegalArgumentException();
         }
     }
 
+    /**
+     * Compresses the input data and fills the specified buffer with
+     * compressed data. Returns actual number of bytes of compressed data.
+     * A return value of 0 indicates that {@link #needsInput() needsInput}
+     * should be called in order to determine if more input data is
+     * required.
+     *
+     * <p>This method uses {@link #NO_FLUSH} as its compression flush mode.
+     * An invocation of this method of the form {@code deflater.deflate(output)}
+     * yields the same result as the invocation of
+     * {@code deflater.deflate(output, Deflater.NO_FLUSH)}.
+     *
+     * @param output the buffer for the compressed data
+     * @return the actual number of bytes of compressed data written to the
+     *         output buffer
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 1.8
+     */
+    public int deflate(ByteBuffer output) {
+        return deflate(output, NO_FLUSH);
+    }
+
+    /**
+     * Compresses the input data and fills the specified buffer with
+     * compressed data, from its position up to its limit, advancing its
+     * position by the number of bytes written. Returns actual number of
+     * bytes of compressed data. The flush modes are those of {@link
+     * #deflate(byte[], int, int, int)}; in the case of {@link #FULL_FLUSH}
+     * or {@link #SYNC_FLUSH}, if the return value is the number of bytes
+     * that were remaining in the buffer, this method should be invoked
+     * again with the same {@code flush} parameter and more output space.
+     *
+     * @param output the buffer for the compressed data
+     * @param flush the compression flush mode
+     * @return the actual number of bytes of compressed data written to
+     *         the output buffer
+     * @throws IllegalArgumentException if the flush mode is invalid
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 1.8
+     */
+    public int deflate(ByteBuffer output, int flush) {
+        if (output.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        synchronized (zsRef) {
+            ensureOpen();
+            if (flush != NO_FLUSH && flush != SYNC_FLUSH &&
+                flush != FULL_FLUSH) {
+                throw new IllegalArgumentException();
+            }
+            int pos = output.position();
+            int rem = output.remaining();
+            if (output.hasArray()) {
+                int n = deflate0(output.array(), output.arrayOffset() + pos,
+                                 rem, flush);
+                output.position(pos + n);
+                return n;
+            }
+            // compress through the chunk array until the deflater leaves
+            // some of it unused
+            if (outputChunk == null) {
+                outputChunk = new byte[CHUNK_SIZE];
+            }
+            int n = 0;
+            while (n < rem) {
+                int len = Math.min(rem - n, CHUNK_SIZE);
+                int k = deflate0(outputChunk, 0, len, flush);
+                output.put(outputChunk, 0, k);
+                n += k;
+                if (k < len) {
+                    break;
+                }
+            }
+            return n;
+        }
+    }
+
+    /*
+     * Compresses into the given array, taking the input from the input
+     * buffer if one is set, and updates the byte counts.
+     */
+    private int deflate0(byte[] b, int off, int len, int flush) {
+        ByteBuffer input = this.input;
+        boolean finish = this.finish;
+        if (input != null) {
+            int pos = input.position();
+            int rem = input.remaining();
+            if (input.hasArray()) {
+                this.buf = input.array();
+                this.off = input.arrayOffset() + pos;
+                this.len = rem;
+            } else {
+                if (inputChunk == null) {
+                    inputChunk = new byte[CHUNK_SIZE];
+                }
+                int n = Math.min(rem, CHUNK_SIZE);
+                input.get(inputChunk, 0, n);
+                input.position(pos);
+                this.buf = inputChunk;
+                this.off = 0;
+                this.len = n;
+                // zlib takes no more input once told to finish, so finish
+                // only with the last chunk
+                if (n < rem) {
+                    this.finish = false;
+                }
+            }
+        }
+        int thisLen = this.len;
+        int n;
+        try {
+            n = deflateBytes(zsRef.address(), b, off, len, flush);
+        } finally {
+            this.finish = finish;
+        }
+        int consumed = thisLen - this.len;
+        bytesWritten += n;
+        bytesRead += consumed;
+        if (input != null) {
+            input.position(input.position() + consumed);
+        }
+        return n;
+    }
+
     /**
      * Returns the ADLER-32 value of the uncompressed data.
      * @return the ADLER-32 value of the uncompressed data
@@ -522,6 +727,7 @@ class Deflater {
             finish = false;
             finished = false;
             off = len = 0;
+            input = null;
             bytesRead = bytesWritten = 0;
         }
     }
@@ -538,8 +744,18 @@ class Deflater {
             long addr = zsRef.address();
             zsRef.clear();
             if (addr != 0) {
-                end(addr);
+                // keep the z_stream for reuse, unless a change of level or
+                // strategy is pending, as its parameters are then unknown
+                if (setParams) {
+                    end(addr);
+                } else {
+                    reset(addr);
+                    if (!pool.offer(addr, poolKey(level, strategy, nowrap)))
+                        end(addr);
+                }
                 buf = null;
+                input = null;
+                inputChunk = outputChunk = null;
             }
         }
     }
@@ -0,0 +1,992 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the checkpoints of a GZIP file, from which a {@link
+ * SeekableGZIPInputStream} can start inflating the data of the file at any
+ * uncompressed offset.
+ *
+ * <p> A checkpoint records the compressed offset, in bits, at which a
+ * deflate block starts, the uncompressed offset of the data of that block,
+ * and the last 32K of data preceding it in the same GZIP member, which the
+ * block may refer to. There is a checkpoint at the start of each GZIP
+ * member, and the boundaries between the deflate blocks of the members
+ * are found by decoding the block headers and Huffman codes of the
+ * compressed data. Of these, checkpoints are kept at intervals of at least
+ * the spacing given when the index is built, so that any offset of the
+ * data can be read after inflating no more than about the spacing of the
+ * index plus the size of a deflate block, whether or not the data was
+ * flushed when it was compressed.
+ *
+ * <p> An index can be written to a stream, to be stored next to the GZIP
+ * file, and read back later instead of being built again. The size of the
+ * GZIP file, and the CRC-32 of the header of its first member and of its
+ * last 8 bytes, which hold the modification time of the first member and
+ * the CRC-32 of the data of the last one, are recorded in the index and
+ * checked when the index is used.
+ *
+ * @see SeekableGZIPInputStream
+ * @since 1.8
+ */
+public final class GZIPIndex {
+
+    /*
+     * Size of the deflate window.
+     */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    /*
+     * Default spacing of the checkpoints, in uncompressed bytes.
+     */
+    private static final long DEFAULT_SPACING = 1024 * 1024;
+
+    /*
+     * Size of the compressed and uncompressed data buffers.
+     */
+    static final int BUF_SIZE = 64 * 1024;
+
+    /*
+     * Trailer size in bytes.
+     */
+    static final int TRAILER_SIZE = 8;
+
+    /*
+     * Magic number and version of the stored form of an index.
+     */
+    private static final int INDEX_MAGIC = 0x475a4958;     // "GZIX"
+    private static final int INDEX_VERSION = 2;
+
+    /*
+     * File header flags.
+     */
+    private final static int FHCRC      = 2;    // Header CRC
+    private final static int FEXTRA     = 4;    // Extra field
+    private final static int FNAME      = 8;    // File name
+    private final static int FCOMMENT   = 16;   // File comment
+
+    /*
+     * Deflate tables: base lengths and extra bits of length symbols 257 to
+     * 285, extra bits of distance symbols, and the order of the code length
+     * code lengths of a dynamic block.
+     */
+    private static final int[] LENGTH_BASE = {
+        3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31,
+        35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227, 258 };
+    private static final int[] LENGTH_EXTRA = {
+        0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2,
+        3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0 };
+    private static final int[] DIST_EXTRA = {
+        0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6,
+        7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13 };
+    private static final int[] CODE_LENGTH_ORDER = {
+        16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15 };
+
+    /**
+     * A point at which inflation can start.
+     */
+    static final class Checkpoint {
+        final long in;          // offset of the compressed data
+        final int bits;         // bits of the byte at in that precede it
+        final long out;         // offset of the uncompressed data
+        final byte[] window;    // preceding data of the member, or null
+
+        Checkpoint(long in, int bits, long out, byte[] window) {
+            this.in = in;
+            this.bits = bits;
+            this.out = out;
+            this.window = window;
+        }
+    }
+
+    private final long compressedSize;
+    private final long signature;
+    private final long size;
+    private final Checkpoint[] checkpoints;
+
+    private GZIPIndex(long compressedSize, long signature, long size,
+                      Checkpoint[] checkpoints) {
+        this.compressedSize = compressedSize;
+        this.signature = signature;
+        this.size = size;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Builds the index of the GZIP data read from the given channel, with
+     * checkpoints at least 1MB apart. The data is read from the start of
+     * the channel; the position of the channel is undefined on return.
+     *
+     * @param ch the channel to read the GZIP data from
+     * @return the index of the GZIP data
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     */
+    public static GZIPIndex build(SeekableByteChannel ch) throws IOException {
+        return build(ch, DEFAULT_SPACING);
+    }
+
+    /**
+     * Builds the index of the GZIP data read from the given channel, with
+     * checkpoints at least the specified number of uncompressed bytes
+     * apart. The data is read from the start of the channel; the position
+     * of the channel is undefined on return.
+     *
+     * <p> The CRC-32 and size of the data of each GZIP member are checked
+     * against the member's trailer.
+     *
+     * @param ch the channel to read the GZIP data from
+     * @param spacing the minimum number of uncompressed bytes between two
+     *        checkpoints
+     * @return the index of the GZIP data
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if {@code spacing <= 0}
+     */
+    public static GZIPIndex build(SeekableByteChannel ch, long spacing)
+        throws IOException
+    {
+        if (spacing <= 0) {
+            throw new IllegalArgumentException("spacing <= 0");
+        }
+        return new Builder(ch, spacing).build();
+    }
+
+    /**
+     * Returns the size of the GZIP data the index was built from.
+     * @return the size of the compressed data, in bytes
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * Returns the size of the uncompressed data.
+     * @return the size of the uncompressed data, in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of checkpoints of the index.
+     * @return the number of checkpoints
+     */
+    public int getCheckpointCount() {
+        return checkpoints.length;
+    }
+
+    /**
+     * Writes the index to the given output stream, compressed, in a form
+     * that {@link #read} reads back. The output stream is not closed.
+     *
+     * @param out the output stream
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(OutputStream out) throws IOException {
+        Deflater def = new Deflater();
+        try {
+            DeflaterOutputStream dos = new DeflaterOutputStream(out, def);
+            DataOutputStream data = new DataOutputStream(dos);
+            data.writeInt(INDEX_MAGIC);
+            data.writeInt(INDEX_VERSION);
+            data.writeLong(compressedSize);
+            data.writeLong(signature);
+            data.writeLong(size);
+            data.writeInt(checkpoints.length);
+            for (Checkpoint cp : checkpoints) {
+                data.writeLong(cp.in);
+                data.writeByte(cp.bits);
+                data.writeLong(cp.out);
+                if (cp.window == null) {
+                    data.writeInt(0);
+                } else {
+                    data.writeInt(cp.window.length);
+                    data.write(cp.window);
+                }
+            }
+            data.flush();
+            dos.finish();
+        } finally {
+            def.end();
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #write} from the given input
+     * stream. The input stream is not closed, and may have been read
+     * beyond the end of the index.
+     *
+     * @param in the input stream
+     * @return the index read
+     * @exception ZipException if the data read is not a valid index
+     * @exception IOException if an I/O error has occurred
+     */
+    public static GZIPIndex read(InputStream in) throws IOException {
+        Inflater inf = new Inflater();
+        try {
+            DataInputStream data =
+                new DataInputStream(new InflaterInputStream(in, inf));
+            if (data.readInt() != INDEX_MAGIC ||
+                data.readInt() != INDEX_VERSION) {
+                throw new ZipException("Not a GZIP index");
+            }
+            long compressedSize = data.readLong();
+            long signature = data.readLong();
+            long size = data.readLong();
+            int count = data.readInt();
+            if (compressedSize < 0 || size < 0 || count <= 0) {
+                throw new ZipException("Corrupt GZIP index");
+            }
+            List<Checkpoint> list = new ArrayList<>();
+            long lastBit = -1, lastOut = -1;
+            for (int i = 0; i < count; i++) {
+                long cin = data.readLong();
+                int bits = data.readUnsignedByte();
+                long cout = data.readLong();
+                int wlen = data.readInt();
+                if (cin < 0 || cin >= compressedSize || bits > 7 ||
+                    cin * 8 + bits <= lastBit ||
+                    cout <= lastOut || cout > size ||
+                    (i == 0 && (cout != 0 || bits != 0)) ||
+                    wlen < 0 || wlen > WINDOW_SIZE) {
+                    throw new ZipException("Corrupt GZIP index");
+                }
+                byte[] window = null;
+                if (wlen > 0) {
+                    window = new byte[wlen];
+                    data.readFully(window);
+                }
+                list.add(new Checkpoint(cin, bits, cout, window));
+                lastBit = cin * 8 + bits;
+                lastOut = cout;
+            }
+            return new GZIPIndex(compressedSize, signature, size,
+                                 list.toArray(new Checkpoint[count]));
+        } finally {
+            inf.end();
+        }
+    }
+
+    /*
+     * Checks that the index was built from the GZIP file of the given
+     * channel, by its size and signature.
+     */
+    void check(SeekableByteChannel ch) throws IOException {
+        long len = ch.size();
+        if (len != compressedSize ||
+            signature(ch, len, checkpoints[0].in) != signature) {
+            throw new ZipException("GZIP index does not match the file");
+        }
+    }
+
+    /*
+     * Returns the CRC-32 of the header of the first member, which ends at
+     * the given position, and of the last 8 bytes of a GZIP file of the
+     * given size.
+     */
+    static long signature(SeekableByteChannel ch, long size, long headerEnd)
+        throws IOException
+    {
+        CRC32 crc = new CRC32();
+        byte[] b = new byte[512];
+        for (long pos = 0; pos < headerEnd; ) {
+            int n = readAt(ch, pos, b, 0, (int)Math.min(b.length, headerEnd - pos));
+            if (n < 0) {
+                throw new EOFException();
+            }
+            crc.update(b, 0, n);
+            pos += n;
+        }
+        int n = (int)Math.min(size, TRAILER_SIZE);
+        if (readAt(ch, size - n, b, 0, n) != n) {
+            throw new EOFException();
+        }
+        crc.update(b, 0, n);
+        return crc.getValue();
+    }
+
+    /*
+     * Returns deflate data that brings a raw inflater to the given bit of
+     * a byte of compressed data, with the given byte as its last byte.
+     * The data starts with empty deflate blocks, whose lengths add up to
+     * the given number of bits modulo 8, so that the compressed data that
+     * follows keeps its alignment to bytes, on which its stored blocks
+     * depend, and the inflater keeps the dictionary it was given.
+     */
+    static byte[] primer(int bits, byte first) {
+        BitWriter w = new BitWriter();
+        int fixed = bits / 2;
+        if ((bits & 1) != 0) {
+            // a dynamic block, of 93 bits, whose literal/length code and
+            // distance code have a single code each, for end of block and
+            // an unused distance
+            w.write(0, 1);                      // BFINAL
+            w.write(2, 2);                      // BTYPE dynamic
+            w.write(0, 5);                      // HLIT, 257 codes
+            w.write(0, 5);                      // HDIST, 1 code
+            w.write(15, 4);                     // HCLEN, 19 code lengths
+            for (int sym : CODE_LENGTH_ORDER) {
+                w.write(sym == 1 || sym == 18 ? 1 : 0, 3);
+            }
+            // code length codes: 0 for 1, 1 for 18
+            w.write(1, 1);                      // 138 zeros
+            w.write(138 - 11, 7);
+            w.write(1, 1);                      // 118 zeros
+            w.write(118 - 11, 7);
+            w.write(0, 1);                      // end of block, length 1
+            w.write(0, 1);                      // distance 0, length 1
+            w.write(0, 1);                      // end of block
+            fixed = ((bits - 5) & 7) / 2;
+        }
+        for (int i = 0; i < fixed; i++) {
+            // an empty fixed block, of 10 bits
+            w.write(0, 1);                      // BFINAL
+            w.write(1, 2);                      // BTYPE fixed
+            w.write(0, 7);                      // end of block
+        }
+        w.write((first & 0xff) >>> bits, 8 - bits);
+        return w.toByteArray();
+    }
+
+    /*
+     * Writes bits to a byte array, least significant bit first.
+     */
+    private static final class BitWriter {
+        private byte[] buf = new byte[16];
+        private int count;      // number of bits written
+
+        void write(int value, int n) {
+            for (int i = 0; i < n; i++, count++) {
+                if ((count >>> 3) == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                }
+                buf[count >>> 3] |= ((value >>> i) & 1) << (count & 7);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, (count + 7) >>> 3);
+        }
+    }
+
+    /*
+     * Returns the last checkpoint at or before the given uncompressed
+     * offset.
+     */
+    Checkpoint find(long pos) {
+        int lo = 0, hi = checkpoints.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (checkpoints[mid].out <= pos) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return checkpoints[lo];
+    }
+
+    /*
+     * Reads bytes from the channel at the given position, until the array
+     * range is full or the end of the channel is reached. Returns the
+     * number of bytes read, or -1 at the end of the channel.
+     */
+    static int readAt(SeekableByteChannel ch, long pos,
+                      byte[] b, int off, int len) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+        ch.position(pos);
+        while (bb.hasRemaining() && ch.read(bb) >= 0)
+            ;
+        int n = bb.position() - off;
+        return (n == 0 && len > 0) ? -1 : n;
+    }
+
+    /*
+     * Reads the GZIP member header at the given position and returns the
+     * position of the compressed data that follows it.
+     */
+    static long readHeader(SeekableByteChannel ch, long pos)
+        throws IOException
+    {
+        ChannelInput cin = new ChannelInput(ch, pos);
+        CheckedInputStream in = new CheckedInputStream(cin, new CRC32());
+        // Check header magic
+        if (readUShort(in) != GZIPInputStream.GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        // Check compression method
+        if (readUByte(in) != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        // Read flags
+        int flg = readUByte(in);
+        // Skip MTIME, XFL, and OS fields
+        skipBytes(in, 6);
+        // Skip optional extra field
+        if ((flg & FEXTRA) == FEXTRA) {
+            skipBytes(in, readUShort(in));
+        }
+        // Skip optional file name
+        if ((flg & FNAME) == FNAME) {
+            while (readUByte(in) != 0)
+                ;
+        }
+        // Skip optional file comment
+        if ((flg & FCOMMENT) == FCOMMENT) {
+            while (readUByte(in) != 0)
+                ;
+        }
+        // Check optional header CRC
+        if ((flg & FHCRC) == FHCRC) {
+            int v = (int)in.getChecksum().getValue() & 0xffff;
+            if (readUShort(in) != v) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+        }
+        return cin.position();
+    }
+
+    /*
+     * Reads unsigned short in Intel byte order.
+     */
+    private static int readUShort(InputStream in) throws IOException {
+        int b = readUByte(in);
+        return (readUByte(in) << 8) | b;
+    }
+
+    /*
+     * Reads unsigned byte.
+     */
+    private static int readUByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    /*
+     * Skips bytes of input data.
+     */
+    private static void skipBytes(InputStream in, int n) throws IOException {
+        while (n-- > 0) {
+            readUByte(in);
+        }
+    }
+
+    /*
+     * Reads unsigned integer in Intel byte order from an array.
+     */
+    private static long getUInt(byte[] b, int off) {
+        return ((b[off] & 0xff) | ((b[off + 1] & 0xff) << 8) |
+                ((b[off + 2] & 0xff) << 16) | ((long)(b[off + 3] & 0xff) << 24));
+    }
+
+    /*
+     * An input stream of the bytes of a channel from a given position.
+     */
+    private static final class ChannelInput extends InputStream {
+        private final SeekableByteChannel ch;
+        private final byte[] buf = new byte[512];
+        private long pos;       // position of the end of the buffered bytes
+        private int off, len;
+
+        ChannelInput(SeekableByteChannel ch, long pos) {
+            this.ch = ch;
+            this.pos = pos;
+        }
+
+        public int read() throws IOException {
+            if (off == len) {
+                int n = readAt(ch, pos, buf, 0, buf.length);
+                if (n < 0) {
+                    return -1;
+                }
+                pos += n;
+                off = 0;
+                len = n;
+            }
+            return buf[off++] & 0xff;
+        }
+
+        long position() {
+            return pos - (len - off);
+        }
+    }
+
+    /*
+     * Inflates the data of a GZIP file from the start and records its
+     * checkpoints.
+     *
+     * The boundaries of the deflate blocks of each member are found by a
+     * BlockScanner, which runs ahead of the inflater. When a boundary is
+     * far enough from the last checkpoint, the member is inflated up to it
+     * to obtain the window of the checkpoint.
+     */
+    private static final class Builder {
+        private final SeekableByteChannel ch;
+        private final long spacing;
+        private final List<Checkpoint> list = new ArrayList<>();
+        private final Inflater inf = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] in = new byte[BUF_SIZE];
+        private final byte[] out = new byte[BUF_SIZE];
+        private final byte[] window = new byte[WINDOW_SIZE];   // circular
+
+        private long inPos;         // position of the next input
+        private long total;         // uncompressed bytes inflated so far
+        private long memberOut;     // uncompressed bytes of the member
+        private long last;          // uncompressed offset of last checkpoint
+
+        Builder(SeekableByteChannel ch, long spacing) {
+            this.ch = ch;
+            this.spacing = spacing;
+        }
+
+        GZIPIndex build() throws IOException {
+            try {
+                long compressedSize = ch.size();
+                long pos = readHeader(ch, 0);
+                list.add(new Checkpoint(pos, 0, 0, null));
+                long signature = signature(ch, compressedSize, pos);
+                while (true) {
+                    pos = inflateMember(pos);
+                    readTrailer(pos);
+                    try {
+                        pos = readHeader(ch, pos + TRAILER_SIZE);
+                    } catch (IOException ze) {
+                        break;  // ignore any malformed, as GZIPInputStream
+                    }
+                    inf.reset();
+                    crc.reset();
+                    memberOut = 0;
+                    if (total - last >= spacing) {
+                        add(new Checkpoint(pos, 0, total, null));
+                    }
+                }
+                return new GZIPIndex(compressedSize, signature, total,
+                                     list.toArray(new Checkpoint[list.size()]));
+            } catch (DataFormatException e) {
+                String s = e.getMessage();
+                throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+            } finally {
+                inf.end();
+            }
+        }
+
+        /*
+         * Inflates the compressed data of a member, starting at the given
+         * position, and returns the position of the member's trailer.
+         */
+        private long inflateMember(long pos)
+            throws IOException, DataFormatException
+        {
+            BlockScanner scanner = new BlockScanner(ch, pos);
+            inPos = pos;
+            while (!scanner.scanBlock()) {
+                long end = total - memberOut + scanner.out();
+                if (end - last >= spacing) {
+                    inflateTo(scanner.out());
+                    long bit = scanner.position();
+                    add(new Checkpoint(bit >>> 3, (int)bit & 7, total,
+                                       window()));
+                }
+            }
+            inflateTo(Long.MAX_VALUE);
+            if (memberOut != scanner.out()) {
+                throw new ZipException("Invalid ZLIB data format");
+            }
+            return inPos - inf.getRemaining();
+        }
+
+        /*
+         * Inflates the member until the given number of bytes of its data
+         * have been inflated, or to its end.
+         */
+        private void inflateTo(long target)
+            throws IOException, DataFormatException
+        {
+            while (memberOut < target && !inf.finished()) {
+                if (inf.needsInput()) {
+                    int n = readAt(ch, inPos, in, 0, in.length);
+                    if (n < 0) {
+                        throw new EOFException("Unexpected end of ZLIB input stream");
+                    }
+                    inf.setInput(in, 0, n);
+                    inPos += n;
+                }
+                int n = inf.inflate(out, 0,
+                                    (int)Math.min(out.length, target - memberOut));
+                if (n > 0) {
+                    crc.update(out, 0, n);
+                    // keep the last 32K of data in the window
+                    int k = Math.min(n, WINDOW_SIZE);
+                    int w = (int)((memberOut + n - k) % WINDOW_SIZE);
+                    int m = Math.min(k, WINDOW_SIZE - w);
+                    System.arraycopy(out, n - k, window, w, m);
+                    System.arraycopy(out, n - k + m, window, 0, k - m);
+                    memberOut += n;
+                    total += n;
+                } else if (inf.needsDictionary()) {
+                    throw new ZipException("Unexpected preset dictionary");
+                }
+            }
+            if (memberOut != target && !inf.finished()) {
+                throw new ZipException("Invalid ZLIB data format");
+            }
+        }
+
+        private void add(Checkpoint cp) {
+            list.add(cp);
+            last = cp.out;
+        }
+
+        /*
+         * Returns the last 32K, or less, of data of the member.
+         */
+        private byte[] window() {
+            if (memberOut == 0) {
+                return null;
+            }
+            int len = (int)Math.min(memberOut, WINDOW_SIZE);
+            byte[] w = new byte[len];
+            int start = (int)((memberOut - len) % WINDOW_SIZE);
+            int k = Math.min(len, WINDOW_SIZE - start);
+            System.arraycopy(window, start, w, 0, k);
+            System.arraycopy(window, 0, w, k, len - k);
+            return w;
+        }
+
+        /*
+         * Checks the trailer of the member at the given position.
+         */
+        private void readTrailer(long pos) throws IOException {
+            byte[] b = new byte[TRAILER_SIZE];
+            if (readAt(ch, pos, b, 0, TRAILER_SIZE) != TRAILER_SIZE) {
+                throw new EOFException();
+            }
+            // rfc1952; ISIZE is the input size modulo 2^32
+            if (getUInt(b, 0) != crc.getValue() ||
+                getUInt(b, 4) != (memberOut & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+    }
+
+    /*
+     * Finds the ends of the deflate blocks of a member, by decoding their
+     * headers and Huffman codes, without producing their data; only the
+     * number of bytes of data of the blocks is counted (rfc1951). The data
+     * itself is checked by the inflater.
+     */
+    private static final class BlockScanner {
+        private static final Huffman FIXED_LITERALS = new Huffman();
+        private static final Huffman FIXED_DISTANCES = new Huffman();
+        static {
+            int[] lengths = new int[288];
+            Arrays.fill(lengths, 0, 144, 8);
+            Arrays.fill(lengths, 144, 256, 9);
+            Arrays.fill(lengths, 256, 280, 7);
+            Arrays.fill(lengths, 280, 288, 8);
+            try {
+                FIXED_LITERALS.build(lengths, 0, 288);
+                Arrays.fill(lengths, 0, 30, 5);
+                FIXED_DISTANCES.build(lengths, 0, 30);
+            } catch (DataFormatException e) {
+                throw new InternalError(e);
+            }
+        }
+
+        private final SeekableByteChannel ch;
+        private final long size;
+        private final byte[] buf = new byte[BUF_SIZE];
+        private long bufPos;        // position of buf[0]
+        private int off, len;       // bytes of buf not yet in bitBuf
+        private long bitBuf;        // bits read, least significant first
+        private int bitCount;
+        private long out;           // bytes of data of the blocks scanned
+
+        private final Huffman literals = new Huffman();
+        private final Huffman distances = new Huffman();
+        private final Huffman codeLengths = new Huffman();
+        private final int[] lengths = new int[286 + 30];
+
+        BlockScanner(SeekableByteChannel ch, long pos) throws IOException {
+            this.ch = ch;
+            this.size = ch.size();
+            this.bufPos = pos;
+        }
+
+        /*
+         * Returns the number of bytes of data of the blocks scanned.
+         */
+        long out() {
+            return out;
+        }
+
+        /*
+         * Returns the position, in bits, of the next block.
+         */
+        long position() {
+            return (bufPos + off) * 8 - bitCount;
+        }
+
+        /*
+         * Scans the next block, and returns true if it is the last block
+         * of the member.
+         */
+        boolean scanBlock() throws IOException, DataFormatException {
+            boolean last = bits(1) == 1;
+            switch (bits(2)) {
+            case 0:
+                scanStored();
+                break;
+            case 1:
+                scanCodes(FIXED_LITERALS, FIXED_DISTANCES);
+                break;
+            case 2:
+                readDynamicTables();
+                scanCodes(literals, distances);
+                break;
+            default:
+                throw new DataFormatException("invalid block type");
+            }
+            return last;
+        }
+
+        private void scanStored() throws IOException, DataFormatException {
+            bits(bitCount & 7);         // to a byte boundary
+            int n = bits(16);
+            if (n != (~bits(16) & 0xffff)) {
+                throw new DataFormatException("invalid stored block lengths");
+            }
+            out += n;
+            // skip the bytes held in bitBuf, then those of the buffer
+            int k = Math.min(n, bitCount >>> 3);
+            bits(k * 8);
+            n -= k;
+            long next = bufPos + off + n;
+            if (next > size) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            if (next <= bufPos + len) {
+                off += n;
+            } else {
+                bufPos = next;
+                off = len = 0;
+            }
+        }
+
+        private void readDynamicTables()
+            throws IOException, DataFormatException
+        {
+            int nlen = bits(5) + 257;
+            int ndist = bits(5) + 1;
+            int ncode = bits(4) + 4;
+            if (nlen > 286 || ndist > 30) {
+                throw new DataFormatException("too many length or distance symbols");
+            }
+            Arrays.fill(lengths, 0, 19, 0);
+            for (int i = 0; i < ncode; i++) {
+                lengths[CODE_LENGTH_ORDER[i]] = bits(3);
+            }
+            codeLengths.build(lengths, 0, 19);
+            int i = 0;
+            while (i < nlen + ndist) {
+                int sym = decode(codeLengths);
+                if (sym < 16) {
+                    lengths[i++] = sym;
+                    continue;
+                }
+                int len = 0, repeat;
+                if (sym == 16) {
+                    if (i == 0) {
+                        throw new DataFormatException("invalid bit length repeat");
+                    }
+                    len = lengths[i - 1];
+                    repeat = 3 + bits(2);
+                } else if (sym == 17) {
+                    repeat = 3 + bits(3);
+                } else {
+                    repeat = 11 + bits(7);
+                }
+                if (i + repeat > nlen + ndist) {
+                    throw new DataFormatException("invalid bit length repeat");
+                }
+                while (repeat-- > 0) {
+                    lengths[i++] = len;
+                }
+            }
+            if (lengths[256] == 0) {
+                throw new DataFormatException("invalid code -- missing end-of-block");
+            }
+            literals.build(lengths, 0, nlen);
+            distances.build(lengths, nlen, ndist);
+        }
+
+        private void scanCodes(Huffman lit, Huffman dist)
+            throws IOException, DataFormatException
+        {
+            while (true) {
+                int sym = decode(lit);
+                if (sym < 256) {
+                    out++;
+                } else if (sym == 256) {
+                    return;
+                } else {
+                    sym -= 257;
+                    if (sym >= LENGTH_BASE.length) {
+                        throw new DataFormatException("invalid literal/length code");
+                    }
+                    out += LENGTH_BASE[sym] + bits(LENGTH_EXTRA[sym]);
+                    sym = decode(dist);
+                    if (sym >= DIST_EXTRA.length) {
+                        throw new DataFormatException("invalid distance code");
+                    }
+                    bits(DIST_EXTRA[sym]);
+                }
+            }
+        }
+
+        /*
+         * Fills bitBuf with at least n bits, or with the remaining bits
+         * of the channel if fewer.
+         */
+        private void fill(int n) throws IOException {
+            while (bitCount < n) {
+                if (off == len) {
+                    bufPos += len;
+                    off = len = 0;
+                    int k = readAt(ch, bufPos, buf, 0, buf.length);
+                    if (k < 0) {
+                        return;
+                    }
+                    len = k;
+                }
+                bitBuf |= (long)(buf[off++] & 0xff) << bitCount;
+                bitCount += 8;
+            }
+        }
+
+        private int bits(int n) throws IOException {
+            if (bitCount < n) {
+                fill(n);
+                if (bitCount < n) {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                }
+            }
+            int v = (int)bitBuf & ((1 << n) - 1);
+            bitBuf >>>= n;
+            bitCount -= n;
+            return v;
+        }
+
+        private int decode(Huffman h) throws IOException, DataFormatException {
+            if (bitCount < h.bits) {
+                fill(h.bits);
+            }
+            int e = h.table[(int)bitBuf & ((1 << h.bits) - 1)];
+            int n = e & 15;
+            if (n == 0) {
+                throw new DataFormatException("invalid code");
+            }
+            if (n > bitCount) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            bitBuf >>>= n;
+            bitCount -= n;
+            return e >>> 4;
+        }
+    }
+
+    /*
+     * A canonical Huffman code, decoded with a table indexed by the next
+     * bits of the input, as many as the longest code, whose entries hold
+     * the symbol and the length of the code.
+     */
+    private static final class Huffman {
+        private static final int MAX_BITS = 15;
+
+        int[] table = new int[1];
+        int bits;
+
+        void build(int[] lengths, int off, int n) throws DataFormatException {
+            int[] count = new int[MAX_BITS + 1];
+            for (int i = 0; i < n; i++) {
+                count[lengths[off + i]]++;
+            }
+            count[0] = 0;
+            int max = 0;
+            int left = 1;
+            for (int len = 1; len <= MAX_BITS; len++) {
+                left = (left << 1) - count[len];
+                if (left < 0) {
+                    throw new DataFormatException("over-subscribed code");
+                }
+                if (count[len] > 0) {
+                    max = len;
+                }
+            }
+            int size = 1 << max;
+            if (table.length < size) {
+                table = new int[size];
+            } else {
+                Arrays.fill(table, 0, size, 0);
+            }
+            bits = max;
+            int[] next = new int[MAX_BITS + 2];
+            for (int len = 1; len <= MAX_BITS; len++) {
+                next[len + 1] = (next[len] + count[len]) << 1;
+            }
+            for (int sym = 0; sym < n; sym++) {
+                int len = lengths[off + sym];
+                if (len == 0) {
+                    continue;
+                }
+                // codes are stored most significant bit first
+                int code = Integer.reverse(next[len]++) >>> (32 - len);
+                for (int i = code; i < size; i += 1 << len) {
+                    table[i] = (sym << 4) | len;
+                }
+            }
+        }
+    }
+}
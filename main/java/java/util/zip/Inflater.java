@@ -25,6 +25,9 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This class provides support for general purpose decompression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -66,6 +69,11 @@ package java.util.zip;
  * }
  * </pre></blockquote>
  *
+ * <p> Input may also be set, and uncompressed data written, with a {@link
+ * ByteBuffer}. The array of a heap buffer is passed to zlib directly; the
+ * contents of a direct or read-only buffer are copied through an internal
+ * array of bounded size.
+ *
  * @see         Deflater
  * @author      David Connelly
  *
@@ -74,8 +82,11 @@ public
 class Inflater {
 
     private final ZStreamRef zsRef;
+    private final boolean nowrap;
     private byte[] buf = defaultBuf;
     private int off, len;
+    private ByteBuffer input;       // the input buffer, if set as a buffer
+    private byte[] inputChunk, outputChunk;
     private boolean finished;
     private boolean needDict;
     private long bytesRead;
@@ -83,6 +94,12 @@ class Inflater {
 
     private static final byte[] defaultBuf = new byte[0];
 
+    // size of the arrays used to copy data from and to direct buffers
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    // the z_streams of ended inflaters, kept for reuse
+    private static final ZStreamRef.Pool pool = new ZStreamRef.Pool(16);
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -100,7 +117,11 @@ class Inflater {
      * @param nowrap if true then support GZIP compatible compression
      */
     public Inflater(boolean nowrap) {
-        zsRef = new ZStreamRef(init(nowrap));
+        this.nowrap = nowrap;
+        long addr = pool.take(nowrap ? 1 : 0);
+        if (addr == 0)
+            addr = init(nowrap);
+        zsRef = new ZStreamRef(addr);
     }
 
     /**
@@ -130,6 +151,7 @@ class Inflater {
             this.buf = b;
             this.off = off;
             this.len = len;
+            this.input = null;
         }
     }
 
@@ -144,6 +166,30 @@ class Inflater {
         setInput(b, 0, b.length);
     }
 
+    /**
+     * Sets input data for decompression. Should be called whenever
+     * needsInput() returns true indicating that more input data is
+     * required.
+     *
+     * <p> The data from the buffer's position to its limit is
+     * decompressed. The position is advanced as the inflate operations
+     * consume the data, up to the limit. The buffer's contents must not be
+     * changed until it has been consumed or other input has been set.
+     *
+     * @param input the input data buffer
+     * @see Inflater#needsInput
+     * @since 1.8
+     */
+    public void setInput(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        synchronized (zsRef) {
+            this.input = input;
+            this.len = 0;
+        }
+    }
+
     /**
      * Sets the preset dictionary to the given array of bytes. Should be
      * called when inflate() returns 0 and needsDictionary() returns true
@@ -182,6 +228,38 @@ class Inflater {
         setDictionary(b, 0, b.length);
     }
 
+    /**
+     * Sets the preset dictionary to the bytes of the given buffer. Should
+     * be called when inflate() returns 0 and needsDictionary() returns true
+     * indicating that a preset dictionary is required. The method getAdler()
+     * can be used to get the Adler-32 value of the dictionary needed.
+     *
+     * <p> The dictionary is the data from the buffer's position to its
+     * limit; the position is advanced to the limit.
+     *
+     * @param dictionary the dictionary data buffer
+     * @see Inflater#needsDictionary
+     * @see Inflater#getAdler
+     * @since 1.8
+     */
+    public void setDictionary(ByteBuffer dictionary) {
+        synchronized (zsRef) {
+            ensureOpen();
+            int rem = dictionary.remaining();
+            if (dictionary.hasArray()) {
+                setDictionary(zsRef.address(), dictionary.array(),
+                              dictionary.arrayOffset() + dictionary.position(),
+                              rem);
+                dictionary.position(dictionary.limit());
+            } else {
+                byte[] b = new byte[rem];
+                dictionary.get(b);
+                setDictionary(zsRef.address(), b, 0, rem);
+            }
+            needDict = false;
+        }
+    }
+
     /**
      * Returns the total number of bytes remaining in the input buffer.
      * This can be used to find out what bytes still remain in the input
@@ -190,7 +268,8 @@ class Inflater {
      */
     public int getRemaining() {
         synchronized (zsRef) {
-            return len;
+            ByteBuffer input = this.input;
+            return input == null ? len : input.remaining();
         }
     }
 
@@ -202,7 +281,8 @@ class Inflater {
      */
     public boolean needsInput() {
         synchronized (zsRef) {
-            return len <= 0;
+            ByteBuffer input = this.input;
+            return input == null ? len <= 0 : !input.hasRemaining();
         }
     }
 
@@ -255,11 +335,7 @@ class Inflater {
         }
         synchronized (zsRef) {
             ensureOpen();
-            int thisLen = this.len;
-            int n = inflateBytes(zsRef.address(), b, off, len);
-            bytesWritten += n;
-            bytesRead += (thisLen - this.len);
-            return n;
+            return inflate0(b, off, len);
         }
     }
 
@@ -280,6 +356,93 @@ class Inflater {
         return inflate(b, 0, b.length);
     }
 
+    /**
+     * Uncompresses bytes into the specified buffer, from its position up to
+     * its limit, advancing its position by the number of bytes written.
+     * Returns actual number of bytes uncompressed. A return value of 0
+     * indicates that needsInput() or needsDictionary() should be called in
+     * order to determine if more input data or a preset dictionary is
+     * required. In the latter case, getAdler() can be used to get the
+     * Adler-32 value of the dictionary required.
+     * @param output the buffer for the uncompressed data
+     * @return the actual number of uncompressed bytes
+     * @exception DataFormatException if the compressed data format is invalid
+     * @exception ReadOnlyBufferException if the buffer is read-only
+     * @see Inflater#needsInput
+     * @see Inflater#needsDictionary
+     * @since 1.8
+     */
+    public int inflate(ByteBuffer output) throws DataFormatException {
+        if (output.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        synchronized (zsRef) {
+            ensureOpen();
+            int pos = output.position();
+            int rem = output.remaining();
+            if (output.hasArray()) {
+                int n = inflate0(output.array(), output.arrayOffset() + pos,
+                                 rem);
+                output.position(pos + n);
+                return n;
+            }
+            // uncompress through the chunk array until the inflater leaves
+            // some of it unused
+            if (outputChunk == null) {
+                outputChunk = new byte[CHUNK_SIZE];
+            }
+            int n = 0;
+            while (n < rem) {
+                int len = Math.min(rem - n, CHUNK_SIZE);
+                int k = inflate0(outputChunk, 0, len);
+                output.put(outputChunk, 0, k);
+                n += k;
+                if (k < len || finished || needDict) {
+                    break;
+                }
+            }
+            return n;
+        }
+    }
+
+    /*
+     * Uncompresses into the given array, taking the input from the input
+     * buffer if one is set, and updates the byte counts.
+     */
+    private int inflate0(byte[] b, int off, int len)
+        throws DataFormatException
+    {
+        ByteBuffer input = this.input;
+        if (input != null) {
+            int pos = input.position();
+            int rem = input.remaining();
+            if (input.hasArray()) {
+                this.buf = input.array();
+                this.off = input.arrayOffset() + pos;
+                this.len = rem;
+            } else {
+                if (inputChunk == null) {
+                    inputChunk = new byte[CHUNK_SIZE];
+                }
+                int n = Math.min(rem, CHUNK_SIZE);
+                input.get(inputChunk, 0, n);
+                input.position(pos);
+                this.buf = inputChunk;
+                this.off = 0;
+                this.len = n;
+            }
+        }
+        int thisLen = this.len;
+        int n = inflateBytes(zsRef.address(), b, off, len);
+        int consumed = thisLen - this.len;
+        bytesWritten += n;
+        bytesRead += consumed;
+        if (input != null) {
+            input.position(input.position() + consumed);
+        }
+        return n;
+    }
+
     /**
      * Returns the ADLER-32 value of the uncompressed data.
      * @return the ADLER-32 value of the uncompressed data
@@ -351,6 +514,7 @@ class Inflater {
             ensureOpen();
             reset(zsRef.address());
             buf = defaultBuf;
+            input = null;
             finished = false;
             needDict = false;
             off = len = 0;
@@ -370,8 +534,13 @@ class Inflater {
             long addr = zsRef.address();
             zsRef.clear();
             if (addr != 0) {
-                end(addr);
+                // keep the z_stream for reuse
+                reset(addr);
+                if (!pool.offer(addr, nowrap ? 1 : 0))
+                    end(addr);
                 buf = null;
+                input = null;
+                inputChunk = outputChunk = null;
             }
         }
     }
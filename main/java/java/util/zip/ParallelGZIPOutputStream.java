@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing on several threads.
+ *
+ * <p> The data written is split into blocks, which are compressed
+ * concurrently by the tasks of a {@link ForkJoinPool}. Each block is
+ * compressed with the last 32K of data of the preceding block as preset
+ * dictionary, and ends with a sync flush, so that the compressed blocks
+ * written one after the other form a single deflate stream. The CRC-32 of
+ * the data is computed block by block and combined with {@link
+ * CRC32#combine}. The result is a single standard GZIP member that {@link
+ * GZIPInputStream} and other GZIP readers can read; it is slightly larger
+ * than the output of {@link GZIPOutputStream}, by a few bytes per block.
+ *
+ * <p> Up to twice as many blocks as the parallelism of the pool are
+ * compressed, or waiting to be written, at any time; writing to this
+ * stream blocks once that limit is reached, until the oldest block has
+ * been compressed and written to the underlying stream.
+ *
+ * @since 1.8
+ */
+public
+class ParallelGZIPOutputStream extends FilterOutputStream {
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    /*
+     * Size of the deflate window, and so of the dictionaries.
+     */
+    private final static int DICT_SIZE = 32 * 1024;
+
+    /*
+     * Default block size, as used by pigz.
+     */
+    private final static int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+
+    // the blocks being compressed or waiting to be written, oldest first
+    private final ArrayDeque<Block> pending = new ArrayDeque<>();
+
+    // deflaters not in use by a block
+    private final ConcurrentLinkedQueue<Deflater> deflaters =
+        new ConcurrentLinkedQueue<>();
+
+    // the block being filled, and the previous block submitted
+    private byte[] buf;
+    private int count;
+    private Block last;
+
+    private int crc;            // CRC-32 of the data of the blocks written
+    private long totalIn;       // number of bytes of the blocks submitted
+    private boolean finished;
+    private volatile boolean closed;
+    private Throwable failure;  // why a block could not be compressed
+
+    /**
+     * Creates a new output stream that compresses blocks of the default
+     * size with the default compression level on the {@linkplain
+     * ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out the output stream
+     * @exception IOException If an I/O error has occurred.
+     */
+    public ParallelGZIPOutputStream(OutputStream out) throws IOException {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a new output stream that compresses blocks of the specified
+     * size with the default compression level on the {@linkplain
+     * ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out the output stream
+     * @param blockSize the number of bytes of data compressed by one task
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code blockSize < 32768}
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int blockSize)
+        throws IOException
+    {
+        this(out, blockSize, Deflater.DEFAULT_COMPRESSION,
+             ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream that compresses blocks of the specified
+     * size with the specified compression level on the specified pool.
+     *
+     * @param out the output stream
+     * @param blockSize the number of bytes of data compressed by one task
+     * @param level the compression level (0-9), or {@link
+     *        Deflater#DEFAULT_COMPRESSION}
+     * @param pool the pool that runs the compression tasks
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code blockSize < 32768} or
+     *            the compression level is invalid
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int blockSize,
+                                    int level, ForkJoinPool pool)
+        throws IOException
+    {
+        super(out);
+        if (out == null || pool == null) {
+            throw new NullPointerException();
+        } else if (blockSize < DICT_SIZE) {
+            throw new IllegalArgumentException("blockSize < 32768");
+        } else if ((level < 0 || level > 9) &&
+                   level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = 2 * pool.getParallelism();
+        this.buf = new byte[blockSize];
+        writeHeader();
+    }
+
+    /**
+     * Writes a byte to the compressed output stream. This method will
+     * block until the byte can be written.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(int b) throws IOException {
+        byte[] buf = new byte[1];
+        buf[0] = (byte)(b & 0xff);
+        write(buf, 0, 1);
+    }
+
+    /**
+     * Writes array of bytes to the compressed output stream. This method
+     * will block until all the bytes are written.
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException If an I/O error has occurred.
+     */
+    public synchronized void write(byte[] b, int off, int len)
+        throws IOException
+    {
+        ensureOpen();
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buf, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Compresses the data written so far, and flushes the compressed
+     * data and the underlying stream. This method will block until all
+     * the data written so far has been compressed and written to the
+     * underlying stream.
+     * @exception IOException If an I/O error has occurred.
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            if (count > 0) {
+                submit(false);
+            }
+            while (!pending.isEmpty()) {
+                writeBlock();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void finish() throws IOException {
+        ensureOpen();
+        if (finished) {
+            return;
+        }
+        submit(true);
+        while (!pending.isEmpty()) {
+            writeBlock();
+        }
+        finished = true;
+        buf = null;
+        last = null;
+        byte[] trailer = new byte[TRAILER_SIZE];
+        writeInt(crc, trailer, 0);                 // CRC-32 of uncompr. data
+        writeInt((int)totalIn, trailer, 4);        // Number of uncompr. bytes
+        out.write(trailer);
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream. Compression tasks still running when this method
+     * throws complete in the background, and their results are discarded.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                pending.clear();
+                Deflater def;
+                while ((def = deflaters.poll()) != null) {
+                    def.end();
+                }
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (failure != null) {
+            throw new IOException("Block compression failed", failure);
+        }
+    }
+
+    /*
+     * Submits the current block for compression, first writing the oldest
+     * blocks if there are too many pending.
+     */
+    private void submit(boolean finish) throws IOException {
+        while (pending.size() >= maxPending) {
+            writeBlock();
+        }
+        Block block = new Block(buf, count, last, finish);
+        pending.add(block);
+        totalIn += count;
+        last = block;
+        if (!finish) {
+            buf = new byte[blockSize];
+            count = 0;
+        }
+        pool.execute(block);
+    }
+
+    /*
+     * Waits for the oldest pending block to be compressed and writes it.
+     */
+    private void writeBlock() throws IOException {
+        Block block = pending.peek();
+        try {
+            block.join();
+        } catch (RuntimeException | Error x) {
+            // the stream cannot be written further
+            failure = x;
+            throw new IOException("Block compression failed", x);
+        }
+        pending.remove();
+        out.write(block.out, 0, block.outLen);
+        crc = (int)CRC32.combine(crc & 0xffffffffL, block.crc, block.len);
+        block.out = null;
+        block.prev = null;
+    }
+
+    /*
+     * A block of data, and the task that compresses it.
+     */
+    private final class Block extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final byte[] in;
+        final int len;
+        final boolean finish;
+        // the previous block, for the dictionary, until compressed
+        Block prev;
+
+        // the results
+        long crc;
+        byte[] out;
+        int outLen;
+
+        Block(byte[] in, int len, Block prev, boolean finish) {
+            this.in = in;
+            this.len = len;
+            this.prev = prev;
+            this.finish = finish;
+        }
+
+        protected void compute() {
+            CRC32 crc32 = new CRC32();
+            crc32.update(in, 0, len);
+            crc = crc32.getValue();
+
+            Deflater def = deflaters.poll();
+            if (def == null) {
+                def = new Deflater(level, true);
+            }
+            try {
+                if (prev != null) {
+                    int dlen = Math.min(prev.len, DICT_SIZE);
+                    def.setDictionary(prev.in, prev.len - dlen, dlen);
+                }
+                def.setInput(in, 0, len);
+                byte[] b = new byte[len + (len >> 3) + 64];
+                int n = 0;
+                if (finish) {
+                    def.finish();
+                    while (!def.finished()) {
+                        if (n == b.length) {
+                            b = Arrays.copyOf(b, b.length << 1);
+                        }
+                        n += def.deflate(b, n, b.length - n);
+                    }
+                } else {
+                    // end the block with a sync flush, which byte aligns
+                    // the stream for the next block; the flush is complete
+                    // once the deflater leaves some of the buffer unused
+                    while (true) {
+                        if (n == b.length) {
+                            b = Arrays.copyOf(b, b.length << 1);
+                        }
+                        n += def.deflate(b, n, b.length - n,
+                                         Deflater.SYNC_FLUSH);
+                        if (n < b.length) {
+                            break;
+                        }
+                    }
+                }
+                out = b;
+                outLen = n;
+            } finally {
+                prev = null;
+                def.reset();
+                if (closed) {
+                    def.end();
+                } else {
+                    deflaters.add(def);
+                }
+            }
+        }
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private void writeInt(int i, byte[] buf, int offset) {
+        buf[offset] = (byte)i;
+        buf[offset + 1] = (byte)(i >> 8);
+        buf[offset + 2] = (byte)(i >> 16);
+        buf[offset + 3] = (byte)(i >> 24);
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.GZIPIndex.Checkpoint;
+
+/**
+ * This class implements an input stream for reading the uncompressed data
+ * of a GZIP file from any offset, using a {@link GZIPIndex} of the file.
+ *
+ * <p> To {@linkplain #seek seek} to an offset, the stream restarts the
+ * inflation at the last checkpoint of the index at or before the offset,
+ * and inflates the data up to the offset; seeking forward by less than the
+ * distance to the next checkpoint continues the current inflation. The
+ * time taken by a seek is therefore bounded by the distance between the
+ * checkpoints of the index, which is about the spacing given when the
+ * index was built plus the size of a deflate block.
+ *
+ * <p> As reading may start in the middle of a GZIP member, the CRC-32 of
+ * the data is not checked when reading; it is checked when the index is
+ * built.
+ *
+ * <p> The stream reads the channel at the positions it needs, and so
+ * changes the position of the channel; the channel must not be used by
+ * others while the stream is open.
+ *
+ * @see GZIPIndex
+ * @since 1.8
+ */
+public
+class SeekableGZIPInputStream extends InputStream {
+    private final SeekableByteChannel ch;
+    private final GZIPIndex index;
+    private final Inflater inf = new Inflater(true);
+    private final byte[] buf = new byte[GZIPIndex.BUF_SIZE];
+    private byte[] skipBuf;
+
+    private long cpos;          // position of the next compressed bytes
+    private long pos;           // position in the uncompressed data
+    private boolean eos;
+    private boolean closed;
+
+    /**
+     * Creates a new input stream reading the GZIP file of the specified
+     * channel, positioned at the start of the uncompressed data.
+     *
+     * @param ch the channel to read the GZIP file from
+     * @param index the index of the GZIP file
+     * @exception ZipException if the index was not built from the GZIP file
+     *                         of the channel, as told by its size, the
+     *                         header of its first member and its last bytes
+     * @exception IOException if an I/O error has occurred
+     */
+    public SeekableGZIPInputStream(SeekableByteChannel ch, GZIPIndex index)
+        throws IOException
+    {
+        if (ch == null || index == null) {
+            throw new NullPointerException();
+        }
+        index.check(ch);
+        this.ch = ch;
+        this.index = index;
+        restart(index.find(0));
+    }
+
+    /**
+     * Check to make sure that this stream has not been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Sets the offset in the uncompressed data at which the next read
+     * occurs. The offset may be beyond the end of the data, in which case
+     * reads return -1.
+     *
+     * @param pos the offset in the uncompressed data
+     * @exception IllegalArgumentException if {@code pos} is negative
+     * @exception ZipException if the compressed data is corrupt
+     * @exception IOException if an I/O error has occurred
+     */
+    public void seek(long pos) throws IOException {
+        ensureOpen();
+        if (pos < 0) {
+            throw new IllegalArgumentException("negative position");
+        }
+        Checkpoint cp = index.find(pos);
+        if (eos || pos < this.pos || cp.out > this.pos) {
+            restart(cp);
+        }
+        if (skipBuf == null) {
+            skipBuf = new byte[GZIPIndex.BUF_SIZE];
+        }
+        while (this.pos < pos) {
+            int n = read(skipBuf, 0,
+                         (int)Math.min(pos - this.pos, skipBuf.length));
+            if (n < 0) {
+                this.pos = pos;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the offset in the uncompressed data at which the next read
+     * occurs.
+     *
+     * @return the offset in the uncompressed data
+     */
+    public long position() {
+        return pos;
+    }
+
+    /**
+     * Returns the size of the uncompressed data.
+     *
+     * @return the size of the uncompressed data
+     */
+    public long size() {
+        return index.getSize();
+    }
+
+    /**
+     * Reads uncompressed data into an array of bytes. If <code>len</code> is not
+     * zero, the method will block until some input can be decompressed; otherwise,
+     * no bytes are read and <code>0</code> is returned.
+     * @param b the buffer into which the data is read
+     * @param off the start offset in the destination array <code>b</code>
+     * @param len the maximum number of bytes read
+     * @return  the actual number of bytes read, or -1 if the end of the
+     *          compressed input stream is reached
+     *
+     * @exception  NullPointerException If <code>b</code> is <code>null</code>.
+     * @exception  IndexOutOfBoundsException If <code>off</code> is negative,
+     * <code>len</code> is negative, or <code>len</code> is greater than
+     * <code>b.length - off</code>
+     * @exception ZipException if the compressed input data is corrupt.
+     * @exception IOException if an I/O error has occurred.
+     */
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        if (eos) {
+            return -1;
+        }
+        try {
+            while (true) {
+                int n = inf.inflate(b, off, len);
+                if (n > 0) {
+                    pos += n;
+                    return n;
+                }
+                if (inf.finished()) {
+                    if (!nextMember()) {
+                        eos = true;
+                        return -1;
+                    }
+                } else if (inf.needsDictionary()) {
+                    throw new ZipException("Unexpected preset dictionary");
+                } else if (inf.needsInput()) {
+                    fill();
+                }
+            }
+        } catch (DataFormatException e) {
+            String s = e.getMessage();
+            throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+        }
+    }
+
+    /**
+     * Reads a byte of uncompressed data. This method will block until
+     * enough input is available for decompression.
+     * @return the byte read, or -1 if end of compressed input is reached
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    /**
+     * Skips specified number of bytes of uncompressed data, seeking
+     * rather than inflating the data skipped when it is far enough.
+     * @param n the number of bytes to skip
+     * @return the actual number of bytes skipped.
+     * @exception IOException if an I/O error has occurred
+     */
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        long start = pos;
+        seek(Math.min(index.getSize(), start + Math.min(n, Long.MAX_VALUE - start)));
+        return pos - start;
+    }
+
+    /**
+     * Returns the number of bytes of uncompressed data from the current
+     * offset to the end of the data, or {@link Integer#MAX_VALUE} if it is
+     * larger.
+     * @return the number of bytes of uncompressed data remaining
+     * @exception IOException if an I/O error has occurred
+     */
+    public int available() throws IOException {
+        ensureOpen();
+        return (int)Math.max(0, Math.min(index.getSize() - pos,
+                                         Integer.MAX_VALUE));
+    }
+
+    /**
+     * Closes this input stream, and the channel it reads from.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            eos = true;
+            inf.end();
+            ch.close();
+        }
+    }
+
+    /*
+     * Restarts the inflation at the given checkpoint. A checkpoint within
+     * a byte of compressed data is reached by giving the inflater a primer
+     * that ends with that byte.
+     */
+    private void restart(Checkpoint cp) throws IOException {
+        inf.reset();
+        if (cp.window != null) {
+            inf.setDictionary(cp.window);
+        }
+        cpos = cp.in;
+        if (cp.bits != 0) {
+            byte[] b = new byte[1];
+            if (GZIPIndex.readAt(ch, cpos, b, 0, 1) != 1) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            inf.setInput(GZIPIndex.primer(cp.bits, b[0]));
+            cpos++;
+        }
+        pos = cp.out;
+        eos = false;
+    }
+
+    /*
+     * Gives the inflater the next bytes of compressed data.
+     */
+    private void fill() throws IOException {
+        int len = GZIPIndex.readAt(ch, cpos, buf, 0, buf.length);
+        if (len < 0) {
+            throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        inf.setInput(buf, 0, len);
+        cpos += len;
+    }
+
+    /*
+     * Moves on to the next GZIP member after the end of the inflated
+     * data of a member, and returns false if there is none.
+     */
+    private boolean nextMember() throws IOException {
+        long next = cpos - inf.getRemaining() + GZIPIndex.TRAILER_SIZE;
+        try {
+            next = GZIPIndex.readHeader(ch, next);
+        } catch (IOException ze) {
+            return false;   // ignore any malformed, as GZIPInputStream
+        }
+        inf.reset();
+        cpos = next;
+        return true;
+    }
+}
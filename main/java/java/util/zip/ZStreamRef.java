@@ -43,4 +43,53 @@ class ZStreamRef {
     void clear() {
         address = 0;
     }
+
+    /**
+     * A bounded pool of z_stream structures that have been reset and can
+     * be reused, each with a key for the parameters it was initialized
+     * with. A Deflater or Inflater that is ended, explicitly or when
+     * finalized, returns its z_stream to the pool rather than freeing it,
+     * so that short-lived instances do not initialize and free the zlib
+     * state each time.
+     */
+    static final class Pool {
+        private final long[] addresses;
+        private final int[] keys;
+        private int count;
+
+        Pool(int size) {
+            addresses = new long[size];
+            keys = new int[size];
+        }
+
+        /**
+         * Returns the address of a pooled z_stream with the given key,
+         * removing it from the pool, or 0 if there is none.
+         */
+        synchronized long take(int key) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (keys[i] == key) {
+                    long address = addresses[i];
+                    count--;
+                    addresses[i] = addresses[count];
+                    keys[i] = keys[count];
+                    return address;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Adds a z_stream that has been reset to the pool. Returns false
+         * if the pool is full, in which case the caller must free it.
+         */
+        synchronized boolean offer(long address, int key) {
+            if (count == addresses.length)
+                return false;
+            addresses[count] = address;
+            keys[count] = key;
+            count++;
+            return true;
+        }
+    }
 }
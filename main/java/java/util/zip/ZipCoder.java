@@ -44,7 +44,7 @@ import sun.nio.cs.ArrayEncoder;
 final class ZipCoder {
 
     String toString(byte[] ba, int length) {
-        CharsetDecoder cd = decoder().reset();
+        CharsetDecoder cd = decoder();
         int len = (int)(length * cd.maxCharsPerByte());
         char[] ca = new char[len];
         if (len == 0)
@@ -58,15 +58,20 @@ final class ZipCoder {
                 throw new IllegalArgumentException("MALFORMED");
             return new String(ca, 0, clen);
         }
-        ByteBuffer bb = ByteBuffer.wrap(ba, 0, length);
-        CharBuffer cb = CharBuffer.wrap(ca);
-        CoderResult cr = cd.decode(bb, cb, true);
-        if (!cr.isUnderflow())
-            throw new IllegalArgumentException(cr.toString());
-        cr = cd.flush(cb);
-        if (!cr.isUnderflow())
-            throw new IllegalArgumentException(cr.toString());
-        return new String(ca, 0, cb.position());
+        // The decoder is stateful, and ZipFile decodes names from several
+        // threads at once
+        synchronized (cd) {
+            cd.reset();
+            ByteBuffer bb = ByteBuffer.wrap(ba, 0, length);
+            CharBuffer cb = CharBuffer.wrap(ca);
+            CoderResult cr = cd.decode(bb, cb, true);
+            if (!cr.isUnderflow())
+                throw new IllegalArgumentException(cr.toString());
+            cr = cd.flush(cb);
+            if (!cr.isUnderflow())
+                throw new IllegalArgumentException(cr.toString());
+            return new String(ca, 0, cb.position());
+        }
     }
 
     String toString(byte[] ba) {
@@ -74,7 +79,7 @@ final class ZipCoder {
     }
 
     byte[] getBytes(String s) {
-        CharsetEncoder ce = encoder().reset();
+        CharsetEncoder ce = encoder();
         char[] ca = s.toCharArray();
         int len = (int)(ca.length * ce.maxBytesPerChar());
         byte[] ba = new byte[len];
@@ -88,18 +93,21 @@ final class ZipCoder {
                 throw new IllegalArgumentException("MALFORMED");
             return Arrays.copyOf(ba, blen);
         }
-        ByteBuffer bb = ByteBuffer.wrap(ba);
-        CharBuffer cb = CharBuffer.wrap(ca);
-        CoderResult cr = ce.encode(cb, bb, true);
-        if (!cr.isUnderflow())
-            throw new IllegalArgumentException(cr.toString());
-        cr = ce.flush(bb);
-        if (!cr.isUnderflow())
-            throw new IllegalArgumentException(cr.toString());
-        if (bb.position() == ba.length)  // defensive copy?
-            return ba;
-        else
-            return Arrays.copyOf(ba, bb.position());
+        synchronized (ce) {
+            ce.reset();
+            ByteBuffer bb = ByteBuffer.wrap(ba);
+            CharBuffer cb = CharBuffer.wrap(ca);
+            CoderResult cr = ce.encode(cb, bb, true);
+            if (!cr.isUnderflow())
+                throw new IllegalArgumentException(cr.toString());
+            cr = ce.flush(bb);
+            if (!cr.isUnderflow())
+                throw new IllegalArgumentException(cr.toString());
+            if (bb.position() == ba.length)  // defensive copy?
+                return ba;
+            else
+                return Arrays.copyOf(ba, bb.position());
+        }
     }
 
     // assume invoked only if "this" is not utf8
@@ -124,11 +132,13 @@ final class ZipCoder {
         return isUTF8;
     }
 
-    private Charset cs;
-    private CharsetDecoder dec;
-    private CharsetEncoder enc;
-    private boolean isUTF8;
-    private ZipCoder utf8;
+    // The coders are created lazily; the UTF-8 coders are used through
+    // their stateless array methods, the others while holding their lock
+    private final Charset cs;
+    private volatile CharsetDecoder dec;
+    private volatile CharsetEncoder enc;
+    private final boolean isUTF8;
+    private volatile ZipCoder utf8;
 
     private ZipCoder(Charset cs) {
         this.cs = cs;
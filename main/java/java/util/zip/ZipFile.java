@@ -30,9 +30,15 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.EOFException;
 import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -55,11 +61,16 @@ import static java.util.zip.ZipUtils.*;
  * or method in this class will cause a {@link NullPointerException} to be
  * thrown.
  *
+ * <p> The central directory of the zip file is read when the zip file is
+ * opened and indexed by entry name. Entries may be looked up, and their
+ * contents read, by several threads at once without them contending for
+ * a lock on the {@code ZipFile}.
+ *
  * @author      David Connelly
  */
 public
 class ZipFile implements ZipConstants, Closeable {
-    private long jzfile;           // address of jzfile data
+    private final Source zsrc;     // the zip file and its central directory
     private final String name;     // zip file name
     private final int total;       // total number of entries
     private final boolean locsig;  // if zip file starts with LOCSIG (usually true)
@@ -82,13 +93,6 @@ class ZipFile implements ZipConstants, Closeable {
      */
     public static final int OPEN_DELETE = 0x4;
 
-    static {
-        /* Zip library is loaded from System.initializeSystemClass */
-        initIDs();
-    }
-
-    private static native void initIDs();
-
     private static final boolean usemmap;
 
     static {
@@ -217,12 +221,12 @@ class ZipFile implements ZipConstants, Closeable {
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
         long t0 = System.nanoTime();
-        jzfile = open(name, mode, file.lastModified(), usemmap);
+        this.zsrc = Source.get(file, (mode & OPEN_DELETE) != 0);
         sun.misc.PerfCounter.getZipFileOpenTime().addElapsedTimeFrom(t0);
         sun.misc.PerfCounter.getZipFileCount().increment();
         this.name = name;
-        this.total = getTotal(jzfile);
-        this.locsig = startsWithLOC(jzfile);
+        this.total = zsrc.total;
+        this.locsig = zsrc.startsWithLoc;
     }
 
     /**
@@ -284,13 +288,11 @@ class ZipFile implements ZipConstants, Closeable {
      * Since 1.7
      */
     public String getComment() {
-        synchronized (this) {
-            ensureOpen();
-            byte[] bcomm = getCommentBytes(jzfile);
-            if (bcomm == null)
-                return null;
-            return zc.toString(bcomm, bcomm.length);
-        }
+        ensureOpen();
+        byte[] bcomm = zsrc.comment;
+        if (bcomm == null)
+            return null;
+        return zc.toString(bcomm, bcomm.length);
     }
 
     /**
@@ -305,25 +307,14 @@ class ZipFile implements ZipConstants, Closeable {
         if (name == null) {
             throw new NullPointerException("name");
         }
-        long jzentry = 0;
-        synchronized (this) {
-            ensureOpen();
-            jzentry = getEntry(jzfile, zc.getBytes(name), true);
-            if (jzentry != 0) {
-                ZipEntry ze = getZipEntry(name, jzentry);
-                freeEntry(jzfile, jzentry);
-                return ze;
-            }
+        ensureOpen();
+        int pos = zsrc.getEntryPos(zc.getBytes(name), true);
+        if (pos != -1) {
+            return getZipEntry(name, pos);
         }
         return null;
     }
 
-    private static native long getEntry(long jzfile, byte[] name,
-                                        boolean addSlash);
-
-    // freeEntry releases the C jzentry struct.
-    private static native void freeEntry(long jzfile, long jzentry);
-
     // the outstanding inputstreams that need to be closed,
     // mapped to the inflater objects they use.
     private final Map<InputStream, Inflater> streams = new WeakHashMap<>();
@@ -346,41 +337,47 @@ class ZipFile implements ZipConstants, Closeable {
         if (entry == null) {
             throw new NullPointerException("entry");
         }
-        long jzentry = 0;
-        ZipFileInputStream in = null;
-        synchronized (this) {
-            ensureOpen();
-            if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
-                jzentry = getEntry(jzfile, zc.getBytesUTF8(entry.name), false);
-            } else {
-                jzentry = getEntry(jzfile, zc.getBytes(entry.name), false);
-            }
-            if (jzentry == 0) {
-                return null;
-            }
-            in = new ZipFileInputStream(jzentry);
+        int pos;
+        ensureOpen();
+        if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
+            pos = zsrc.getEntryPos(zc.getBytesUTF8(entry.name), false);
+        } else {
+            pos = zsrc.getEntryPos(zc.getBytes(entry.name), false);
+        }
+        if (pos == -1) {
+            return null;
+        }
+        ZipFileInputStream in = new ZipFileInputStream(pos);
 
-            switch (getEntryMethod(jzentry)) {
-            case STORED:
-                synchronized (streams) {
-                    streams.put(in, null);
-                }
-                return in;
-            case DEFLATED:
-                // MORE: Compute good size for inflater stream:
-                long size = getEntrySize(jzentry) + 2; // Inflater likes a bit of slack
-                if (size > 65536) size = 8192;
-                if (size <= 0) size = 4096;
-                Inflater inf = getInflater();
-                InputStream is =
-                    new ZipFileInflaterInputStream(in, inf, (int)size);
-                synchronized (streams) {
-                    streams.put(is, inf);
+        // The streams are registered while holding the lock on streams, and
+        // close sets closeRequested before closing the registered streams,
+        // so no stream is left open once the zip file is closed.
+        switch (zsrc.cen16(pos + CENHOW)) {
+        case STORED:
+            synchronized (streams) {
+                ensureOpen();
+                streams.put(in, null);
+            }
+            return in;
+        case DEFLATED:
+            // MORE: Compute good size for inflater stream:
+            long size = in.size() + 2; // Inflater likes a bit of slack
+            if (size > 65536) size = 8192;
+            if (size <= 0) size = 4096;
+            Inflater inf = getInflater();
+            InputStream is =
+                new ZipFileInflaterInputStream(in, inf, (int)size);
+            synchronized (streams) {
+                if (closeRequested) {
+                    // close has ended the cached inflaters already
+                    inf.end();
                 }
-                return is;
-            default:
-                throw new ZipException("invalid compression method");
+                ensureOpen();
+                streams.put(is, inf);
             }
+            return is;
+        default:
+            throw new ZipException("invalid compression method");
         }
     }
 
@@ -490,10 +487,8 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public boolean hasNext() {
-            synchronized (ZipFile.this) {
-                ensureOpen();
-                return i < total;
-            }
+            ensureOpen();
+            return i < total;
         }
 
         public ZipEntry nextElement() {
@@ -501,31 +496,11 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public ZipEntry next() {
-            synchronized (ZipFile.this) {
-                ensureOpen();
-                if (i >= total) {
-                    throw new NoSuchElementException();
-                }
-                long jzentry = getNextEntry(jzfile, i++);
-                if (jzentry == 0) {
-                    String message;
-                    if (closeRequested) {
-                        message = "ZipFile concurrently closed";
-                    } else {
-                        message = getZipMessage(ZipFile.this.jzfile);
-                    }
-                    throw new ZipError("jzentry == 0" +
-                                       ",\n jzfile = " + ZipFile.this.jzfile +
-                                       ",\n total = " + ZipFile.this.total +
-                                       ",\n name = " + ZipFile.this.name +
-                                       ",\n i = " + i +
-                                       ",\n message = " + message
-                        );
-                }
-                ZipEntry ze = getZipEntry(null, jzentry);
-                freeEntry(jzfile, jzentry);
-                return ze;
+            ensureOpen();
+            if (i >= total) {
+                throw new NoSuchElementException();
             }
+            return getZipEntry(null, zsrc.entries[i++]);
         }
     }
 
@@ -554,39 +529,40 @@ class ZipFile implements ZipConstants, Closeable {
                         Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
     }
 
-    private ZipEntry getZipEntry(String name, long jzentry) {
+    // Returns the entry whose CEN header is at the given position
+    private ZipEntry getZipEntry(String name, int pos) {
         ZipEntry e = new ZipEntry();
-        e.flag = getEntryFlag(jzentry);  // get the flag first
+        e.flag = zsrc.cen16(pos + CENFLG);  // get the flag first
+        int nlen = zsrc.cen16(pos + CENNAM);
+        int elen = zsrc.cen16(pos + CENEXT);
+        int clen = zsrc.cen16(pos + CENCOM);
         if (name != null) {
             e.name = name;
         } else {
-            byte[] bname = getEntryBytes(jzentry, JZENTRY_NAME);
-            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
-                e.name = zc.toStringUTF8(bname, bname.length);
-            } else {
-                e.name = zc.toString(bname, bname.length);
-            }
-        }
-        e.time = dosToJavaTime(getEntryTime(jzentry));
-        e.crc = getEntryCrc(jzentry);
-        e.size = getEntrySize(jzentry);
-        e.csize = getEntryCSize(jzentry);
-        e.method = getEntryMethod(jzentry);
-        e.setExtra0(getEntryBytes(jzentry, JZENTRY_EXTRA), false);
-        byte[] bcomm = getEntryBytes(jzentry, JZENTRY_COMMENT);
-        if (bcomm == null) {
-            e.comment = null;
-        } else {
-            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
-                e.comment = zc.toStringUTF8(bcomm, bcomm.length);
-            } else {
-                e.comment = zc.toString(bcomm, bcomm.length);
-            }
+            e.name = decode(e.flag, zsrc.cenBytes(pos + CENHDR, nlen));
+        }
+        e.time = dosToJavaTime(zsrc.cen32(pos + CENTIM));
+        e.crc = zsrc.cen32(pos + CENCRC);
+        e.method = zsrc.cen16(pos + CENHOW);
+        if (elen != 0) {
+            e.setExtra0(zsrc.cenBytes(pos + CENHDR + nlen, elen), false);
+        }
+        e.size = zsrc.cenField64(pos, CENLEN);
+        e.csize = zsrc.cenField64(pos, CENSIZ);
+        if (clen != 0) {
+            e.comment = decode(e.flag,
+                               zsrc.cenBytes(pos + CENHDR + nlen + elen, clen));
         }
         return e;
     }
 
-    private static native long getNextEntry(long jzfile, int i);
+    private String decode(int flag, byte[] b) {
+        if (!zc.isUTF8() && (flag & EFS) != 0) {
+            return zc.toStringUTF8(b, b.length);
+        } else {
+            return zc.toString(b, b.length);
+        }
+    }
 
     /**
      * Returns the number of entries in the ZIP file.
@@ -607,11 +583,11 @@ class ZipFile implements ZipConstants, Closeable {
      * @throws IOException if an I/O error has occurred
      */
     public void close() throws IOException {
-        if (closeRequested)
-            return;
-        closeRequested = true;
-
         synchronized (this) {
+            if (closeRequested)
+                return;
+            closeRequested = true;
+
             // Close streams, release their inflaters
             synchronized (streams) {
                 if (false == streams.isEmpty()) {
@@ -635,12 +611,9 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             }
 
-            if (jzfile != 0) {
-                // Close the zip file
-                long zf = this.jzfile;
-                jzfile = 0;
-
-                close(zf);
+            // Close the zip file, unless opened by another ZipFile too
+            if (zsrc != null) {
+                Source.release(zsrc);
             }
         }
     }
@@ -663,14 +636,12 @@ class ZipFile implements ZipConstants, Closeable {
         close();
     }
 
-    private static native void close(long jzfile);
-
     private void ensureOpen() {
         if (closeRequested) {
             throw new IllegalStateException("zip file closed");
         }
 
-        if (jzfile == 0) {
+        if (zsrc == null) {
             throw new IllegalStateException("The object is not initialized.");
         }
     }
@@ -684,43 +655,43 @@ class ZipFile implements ZipConstants, Closeable {
     /*
      * Inner class implementing the input stream used to read a
      * (possibly compressed) zip file entry.
+     *
+     * Reads do not lock the ZipFile, so that reading an entry does not
+     * wait for the lookups and streams of other entries.
      */
    private class ZipFileInputStream extends InputStream {
         private volatile boolean closeRequested = false;
-        protected long jzentry; // address of jzentry data
-        private   long pos;     // current position within entry data
+        private   long pos;     // current position of entry data in the file
         protected long rem;     // number of remaining bytes within entry
         protected long size;    // uncompressed size of this entry
 
-        ZipFileInputStream(long jzentry) {
-            pos = 0;
-            rem = getEntryCSize(jzentry);
-            size = getEntrySize(jzentry);
-            this.jzentry = jzentry;
+        ZipFileInputStream(int cenpos) throws IOException {
+            rem = zsrc.cenField64(cenpos, CENSIZ);
+            size = zsrc.cenField64(cenpos, CENLEN);
+            pos = zsrc.dataPos(cenpos);
         }
 
         public int read(byte b[], int off, int len) throws IOException {
-            synchronized (ZipFile.this) {
-                long rem = this.rem;
-                long pos = this.pos;
-                if (rem == 0) {
-                    return -1;
-                }
-                if (len <= 0) {
-                    return 0;
-                }
-                if (len > rem) {
-                    len = (int) rem;
-                }
+            if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (rem == 0) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (len > rem) {
+                len = (int) rem;
+            }
 
-                ensureOpenOrZipException();
-                len = ZipFile.read(ZipFile.this.jzfile, jzentry, pos, b,
-                                   off, len);
-                if (len > 0) {
-                    this.pos = (pos + len);
-                    this.rem = (rem - len);
-                }
+            ensureOpenOrZipException();
+            len = zsrc.readAt(pos, b, off, len);
+            if (len < 0) {
+                throw new ZipException("invalid entry size (unexpected end of zip file)");
             }
+            pos += len;
+            rem -= len;
             if (rem == 0) {
                 close();
             }
@@ -761,12 +732,6 @@ class ZipFile implements ZipConstants, Closeable {
             closeRequested = true;
 
             rem = 0;
-            synchronized (ZipFile.this) {
-                if (jzentry != 0 && ZipFile.this.jzfile != 0) {
-                    freeEntry(ZipFile.this.jzfile, jzentry);
-                    jzentry = 0;
-                }
-            }
             synchronized (streams) {
                 streams.remove(this);
             }
@@ -783,6 +748,9 @@ class ZipFile implements ZipConstants, Closeable {
                 public boolean startsWithLocHeader(ZipFile zip) {
                     return zip.startsWithLocHeader();
                 }
+                public String[] getMetaInfEntryNames(ZipFile zip) {
+                    return zip.getMetaInfEntryNames();
+                }
              }
         );
     }
@@ -795,26 +763,512 @@ class ZipFile implements ZipConstants, Closeable {
         return locsig;
     }
 
-    private static native long open(String name, int mode, long lastModified,
-                                    boolean usemmap) throws IOException;
-    private static native int getTotal(long jzfile);
-    private static native boolean startsWithLOC(long jzfile);
-    private static native int read(long jzfile, long jzentry,
-                                   long pos, byte[] b, int off, int len);
-
-    // access to the native zentry object
-    private static native long getEntryTime(long jzentry);
-    private static native long getEntryCrc(long jzentry);
-    private static native long getEntryCSize(long jzentry);
-    private static native long getEntrySize(long jzentry);
-    private static native int getEntryMethod(long jzentry);
-    private static native int getEntryFlag(long jzentry);
-    private static native byte[] getCommentBytes(long jzfile);
-
-    private static final int JZENTRY_NAME = 0;
-    private static final int JZENTRY_EXTRA = 1;
-    private static final int JZENTRY_COMMENT = 2;
-    private static native byte[] getEntryBytes(long jzentry, int type);
-
-    private static native String getZipMessage(long jzfile);
+    /**
+     * Returns the names of the entries whose names start with "META-INF/",
+     * ignoring case, or null if there are none.
+     */
+    private String[] getMetaInfEntryNames() {
+        ensureOpen();
+        int[] metaInf = zsrc.metaInf;
+        if (metaInf.length == 0) {
+            return null;
+        }
+        String[] names = new String[metaInf.length];
+        for (int i = 0; i < metaInf.length; i++) {
+            int pos = metaInf[i];
+            names[i] = decode(zsrc.cen16(pos + CENFLG),
+                              zsrc.cenBytes(pos + CENHDR,
+                                            zsrc.cen16(pos + CENNAM)));
+        }
+        return names;
+    }
+
+    /**
+     * A zip file opened for reading, with its central directory (CEN)
+     * indexed by entry name. The ZipFile objects that open the same,
+     * unmodified, file share one Source, which is closed when the last of
+     * them is closed.
+     *
+     * <p> Unless memory mapping is disabled, the CEN is mapped, and
+     * otherwise read into memory. The mapping is unmapped by the garbage
+     * collector once unreachable. The entry data is read with a seek and a
+     * read of the RandomAccessFile, under the lock of the Source, rather
+     * than with positional reads of a FileChannel, which would close the
+     * zip file for all its users if the reading thread were interrupted.
+     *
+     * <p> The index is an open addressing hash table, built once and never
+     * modified, so lookups need no locking.
+     */
+    private static final class Source {
+        // the shared sources, by file name, modification time and size
+        private static final HashMap<Key, Source> files = new HashMap<>();
+
+        private static final class Key {
+            final String name;
+            final long lastModified;
+            final long length;
+
+            Key(File file) {
+                this.name = file.getPath();
+                this.lastModified = file.lastModified();
+                this.length = file.length();
+            }
+
+            public int hashCode() {
+                return name.hashCode() ^ Long.hashCode(lastModified);
+            }
+
+            public boolean equals(Object obj) {
+                if (!(obj instanceof Key))
+                    return false;
+                Key key = (Key)obj;
+                return name.equals(key.name)
+                    && lastModified == key.lastModified
+                    && length == key.length;
+            }
+        }
+
+        private final Key key;          // null if not shared
+        private int refs = 1;           // guarded by files
+
+        private final RandomAccessFile zfile;
+        private File deleteOnClose;     // file to delete when closed
+
+        private ByteBuffer cen;         // the CEN, little-endian
+        private long locpos;            // position of the first LOC header
+        private long cenoff;            // offset of the CEN from locpos
+        boolean startsWithLoc;          // if the file starts with LOCSIG
+        byte[] comment;                 // zip file comment, or null
+        int total;                      // number of entries
+        int[] entries;                  // CEN position of each entry
+        int[] metaInf;                  // CEN position of META-INF entries
+
+        // (name hash, entry index + 1) pairs, indexed by the name hash;
+        // an index of 0 marks an empty slot
+        private int[] table;
+        private int tableMask;
+
+        static Source get(File file, boolean toDelete) throws IOException {
+            Key key = toDelete ? null : new Key(file);
+            if (key != null) {
+                synchronized (files) {
+                    Source src = files.get(key);
+                    if (src != null) {
+                        src.refs++;
+                        return src;
+                    }
+                }
+            }
+            Source src = new Source(key, file, toDelete);
+            if (key != null) {
+                synchronized (files) {
+                    Source prev = files.putIfAbsent(key, src);
+                    if (prev != null) {
+                        // opened concurrently by another ZipFile
+                        prev.refs++;
+                        src.close();
+                        return prev;
+                    }
+                }
+            }
+            return src;
+        }
+
+        static void release(Source src) throws IOException {
+            synchronized (files) {
+                if (--src.refs > 0)
+                    return;
+                if (src.key != null)
+                    files.remove(src.key);
+            }
+            src.close();
+        }
+
+        private Source(Key key, File file, boolean toDelete)
+            throws IOException
+        {
+            this.key = key;
+            this.zfile = new RandomAccessFile(file, "r");
+            try {
+                initCEN(file);
+                if (toDelete && !file.delete())
+                    deleteOnClose = file;
+            } catch (IOException | RuntimeException e) {
+                try {
+                    close();
+                } catch (IOException x) {
+                    e.addSuppressed(x);
+                }
+                throw e;
+            }
+        }
+
+        private void close() throws IOException {
+            try {
+                zfile.close();
+            } finally {
+                if (deleteOnClose != null)
+                    deleteOnClose.delete();
+            }
+        }
+
+        private static void zerror(String msg) throws ZipException {
+            throw new ZipException(msg);
+        }
+
+        /*
+         * Finds the END header, reads the CEN and indexes its entries.
+         */
+        private void initCEN(File file) throws IOException {
+            long len = zfile.length();
+            if (len == 0)
+                zerror("zip file is empty");
+            if (len >= 4) {
+                byte[] sig = new byte[4];
+                readFullyAt(sig, 0, 4, 0);
+                startsWithLoc = get32(sig, 0) == LOCSIG;
+            }
+
+            // Search backwards for the END header, which is followed by
+            // the zip file comment of at most 64K
+            int tlen = (int)Math.min(len, ENDHDR + 0xFFFF);
+            long tpos = len - tlen;
+            byte[] tail = new byte[tlen];
+            readFullyAt(tail, 0, tlen, tpos);
+            int end = -1;
+            for (int i = tlen - ENDHDR; i >= 0; i--) {
+                if (tail[i] == 'P' && tail[i + 1] == 'K' &&
+                    tail[i + 2] == 5 && tail[i + 3] == 6 &&
+                    (i + ENDHDR + get16(tail, i + ENDCOM) == tlen ||
+                     verifyEND(tpos + i, tail, i))) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end == -1)
+                zerror("zip END header not found");
+            long endpos = tpos + end;
+            long cenlen = get32(tail, end + ENDSIZ);
+            long cenoff = get32(tail, end + ENDOFF);
+            int comlen = Math.min(get16(tail, end + ENDCOM),
+                                  tlen - end - ENDHDR);
+            if (comlen > 0) {
+                comment = Arrays.copyOfRange(tail, end + ENDHDR,
+                                             end + ENDHDR + comlen);
+            }
+
+            // Use the ZIP64 END header if the END header does not hold the
+            // actual values
+            if ((cenlen == ZIP64_MAGICVAL || cenoff == ZIP64_MAGICVAL ||
+                 get16(tail, end + ENDTOT) == ZIP64_MAGICCOUNT) &&
+                endpos >= ZIP64_LOCHDR) {
+                byte[] loc64 = new byte[ZIP64_LOCHDR];
+                readFullyAt(loc64, 0, ZIP64_LOCHDR, endpos - ZIP64_LOCHDR);
+                long end64pos = get64(loc64, ZIP64_LOCOFF);
+                if (get32(loc64, 0) == ZIP64_LOCSIG && end64pos >= 0 &&
+                    end64pos <= endpos - ZIP64_LOCHDR - ZIP64_ENDHDR) {
+                    byte[] end64 = new byte[ZIP64_ENDHDR];
+                    readFullyAt(end64, 0, ZIP64_ENDHDR, end64pos);
+                    if (get32(end64, 0) != ZIP64_ENDSIG)
+                        zerror("invalid zip64 END header");
+                    cenlen = get64(end64, ZIP64_ENDSIZ);
+                    cenoff = get64(end64, ZIP64_ENDOFF);
+                    endpos = end64pos;
+                }
+            }
+
+            if (cenlen < 0 || cenlen > endpos)
+                zerror("invalid END header (bad central directory size)");
+            long cenpos = endpos - cenlen;
+            // the zip file may be prefixed with a stub
+            locpos = cenpos - cenoff;
+            if (cenoff < 0 || locpos < 0)
+                zerror("invalid END header (bad central directory offset)");
+            if (cenlen > Integer.MAX_VALUE)
+                zerror("invalid END header (central directory too large)");
+            this.cenoff = cenoff;
+
+            if (usemmap)
+                cen = mapCEN(file, cenpos, cenlen);
+            if (cen == null) {
+                byte[] b = new byte[(int)cenlen];
+                readFullyAt(b, 0, b.length, cenpos);
+                cen = ByteBuffer.wrap(b);
+            }
+            cen.order(ByteOrder.LITTLE_ENDIAN);
+            indexCEN();
+        }
+
+        /*
+         * Maps the CEN with a channel of its own, which is closed once
+         * mapped, so that an interrupt cannot close zfile. Returns null if
+         * the mapping was interrupted.
+         */
+        private static ByteBuffer mapCEN(File file, long cenpos, long cenlen)
+            throws IOException
+        {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                return raf.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                                            cenpos, cenlen);
+            } catch (ClosedByInterruptException x) {
+                // the interrupt status of the thread remains set
+                return null;
+            }
+        }
+
+        /*
+         * Tells whether the END header at the given position, whose comment
+         * length does not match the end of the file, is the actual END
+         * header, as when some bytes were appended to the zip file.
+         */
+        private boolean verifyEND(long endpos, byte[] b, int off)
+            throws IOException
+        {
+            long cenpos = endpos - get32(b, off + ENDSIZ);
+            long locpos = cenpos - get32(b, off + ENDOFF);
+            if (cenpos < 0 || locpos < 0)
+                return false;
+            byte[] sig = new byte[4];
+            try {
+                readFullyAt(sig, 0, 4, cenpos);
+                if (get32(sig, 0) != CENSIG)
+                    return false;
+                readFullyAt(sig, 0, 4, locpos);
+                return get32(sig, 0) == LOCSIG;
+            } catch (EOFException x) {
+                return false;
+            }
+        }
+
+        /*
+         * Checks the CEN headers and builds the index.
+         */
+        private void indexCEN() throws ZipException {
+            int limit = cen.limit();
+            int[] entries = new int[Math.max(16, limit / (CENHDR + 16))];
+            int[] metaInf = new int[0];
+            int n = 0;
+            int pos = 0;
+            while (pos + CENHDR <= limit) {
+                if (cen32(pos) != CENSIG)
+                    zerror("invalid CEN header (bad signature)");
+                int method = cen16(pos + CENHOW);
+                int nlen = cen16(pos + CENNAM);
+                int next = pos + CENHDR + nlen + cen16(pos + CENEXT)
+                           + cen16(pos + CENCOM);
+                if ((cen16(pos + CENFLG) & 1) != 0)
+                    zerror("invalid CEN header (encrypted entry)");
+                if (method != STORED && method != DEFLATED)
+                    zerror("invalid CEN header (bad compression method: "
+                           + method + ")");
+                if (next > limit)
+                    zerror("invalid CEN header (bad header size)");
+                checkSizes(pos);
+                if (n == entries.length)
+                    entries = Arrays.copyOf(entries, n << 1);
+                entries[n++] = pos;
+                if (isMetaName(pos + CENHDR, nlen)) {
+                    metaInf = Arrays.copyOf(metaInf, metaInf.length + 1);
+                    metaInf[metaInf.length - 1] = pos;
+                }
+                pos = next;
+            }
+            this.total = n;
+            this.entries = Arrays.copyOf(entries, n);
+            this.metaInf = metaInf;
+
+            // A table of at least twice the number of entries keeps the
+            // probe sequences short. The entries are inserted last first so
+            // that lookups find the last of entries with the same name.
+            int cap = 2;
+            while (cap < n * 2)
+                cap <<= 1;
+            int[] table = new int[cap * 2];
+            int mask = cap - 1;
+            for (int i = n - 1; i >= 0; i--) {
+                int p = entries[i];
+                int h = 0;
+                for (int j = p + CENHDR, e = j + cen16(p + CENNAM); j < e; j++)
+                    h = 31 * h + cen.get(j);
+                int slot = mix(h) & mask;
+                while (table[2 * slot + 1] != 0)
+                    slot = (slot + 1) & mask;
+                table[2 * slot] = h;
+                table[2 * slot + 1] = i + 1;
+            }
+            this.table = table;
+            this.tableMask = mask;
+        }
+
+        /*
+         * Checks that the sizes and the LOC header offset of the entry at
+         * the given CEN position, which may come from its ZIP64 extra field,
+         * describe data that lies before the CEN.
+         */
+        private void checkSizes(int pos) throws ZipException {
+            long size = cenField64(pos, CENLEN);
+            long csize = cenField64(pos, CENSIZ);
+            long off = cenField64(pos, CENOFF);
+            if (size < 0)
+                zerror("invalid CEN header (bad uncompressed size)");
+            if (csize < 0 || csize > cenoff)
+                zerror("invalid CEN header (bad compressed size)");
+            if (off < 0 || off > cenoff - LOCHDR - csize)
+                zerror("invalid CEN header (bad local header offset)");
+        }
+
+        private static int mix(int h) {
+            return h ^ (h >>> 16);
+        }
+
+        private boolean isMetaName(int off, int len) {
+            final String meta = "META-INF/";
+            if (len < meta.length())
+                return false;
+            for (int i = 0; i < meta.length(); i++) {
+                int c = cen.get(off + i);
+                if (c >= 'a' && c <= 'z')
+                    c -= 'a' - 'A';
+                if (c != meta.charAt(i))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the CEN position of the entry with the given name, or of
+         * the entry with the name followed by a slash if there is none and
+         * addSlash is true, or -1 if there is no such entry.
+         */
+        int getEntryPos(byte[] name, boolean addSlash) {
+            int h = 0;
+            for (byte b : name)
+                h = 31 * h + b;
+            int pos = lookup(name, h, false);
+            if (pos == -1 && addSlash && name.length > 0 &&
+                name[name.length - 1] != '/') {
+                pos = lookup(name, 31 * h + '/', true);
+            }
+            return pos;
+        }
+
+        private int lookup(byte[] name, int h, boolean slash) {
+            int[] table = this.table;
+            int mask = tableMask;
+            for (int slot = mix(h) & mask; ; slot = (slot + 1) & mask) {
+                int index = table[2 * slot + 1];
+                if (index == 0)
+                    return -1;
+                if (table[2 * slot] == h) {
+                    int pos = entries[index - 1];
+                    if (nameEquals(pos, name, slash))
+                        return pos;
+                }
+            }
+        }
+
+        private boolean nameEquals(int pos, byte[] name, boolean slash) {
+            int len = name.length;
+            if (cen16(pos + CENNAM) != (slash ? len + 1 : len))
+                return false;
+            int off = pos + CENHDR;
+            for (int i = 0; i < len; i++) {
+                if (cen.get(off + i) != name[i])
+                    return false;
+            }
+            return !slash || cen.get(off + len) == '/';
+        }
+
+        int cen16(int pos) {
+            return cen.getShort(pos) & 0xffff;
+        }
+
+        long cen32(int pos) {
+            return cen.getInt(pos) & 0xffffffffL;
+        }
+
+        byte[] cenBytes(int pos, int len) {
+            byte[] b = new byte[len];
+            for (int i = 0; i < len; i++)
+                b[i] = cen.get(pos + i);
+            return b;
+        }
+
+        /**
+         * Returns the uncompressed size (CENLEN), compressed size (CENSIZ)
+         * or LOC header offset (CENOFF) of the entry at the given CEN
+         * position, taken from its ZIP64 extra field if it does not fit in
+         * the CEN header.
+         */
+        long cenField64(int pos, int field) {
+            long v = cen32(pos + field);
+            if (v != ZIP64_MAGICVAL)
+                return v;
+            // The ZIP64 extra field holds, in this order, those of the
+            // uncompressed size, compressed size and LOC offset that do not
+            // fit in the CEN header
+            int skip = 0;
+            if (field != CENLEN && cen32(pos + CENLEN) == ZIP64_MAGICVAL)
+                skip += 8;
+            if (field == CENOFF && cen32(pos + CENSIZ) == ZIP64_MAGICVAL)
+                skip += 8;
+            int off = pos + CENHDR + cen16(pos + CENNAM);
+            int end = off + cen16(pos + CENEXT);
+            while (off + 4 <= end) {
+                int tag = cen16(off);
+                int sz = cen16(off + 2);
+                off += 4;
+                if (off + sz > end)
+                    break;
+                if (tag == EXTID_ZIP64) {
+                    if (skip + 8 <= sz)
+                        return cen.getLong(off + skip);
+                    break;
+                }
+                off += sz;
+            }
+            return v;
+        }
+
+        /**
+         * Returns the position in the file of the data of the entry at the
+         * given CEN position.
+         */
+        long dataPos(int pos) throws IOException {
+            long loc = locpos + cenField64(pos, CENOFF);
+            byte[] hdr = new byte[LOCHDR];
+            try {
+                readFullyAt(hdr, 0, LOCHDR, loc);
+            } catch (EOFException x) {
+                zerror("invalid LOC header (bad offset)");
+            }
+            if (get32(hdr, 0) != LOCSIG)
+                zerror("invalid LOC header (bad signature)");
+            return loc + LOCHDR + get16(hdr, LOCNAM) + get16(hdr, LOCEXT);
+        }
+
+        /**
+         * Reads up to len bytes at the given position of the file. Returns
+         * the number of bytes read, or -1 at the end of the file.
+         */
+        int readAt(long pos, byte[] b, int off, int len) throws IOException {
+            synchronized (this) {
+                zfile.seek(pos);
+                return zfile.read(b, off, len);
+            }
+        }
+
+        private void readFullyAt(byte[] b, int off, int len, long pos)
+            throws IOException
+        {
+            while (len > 0) {
+                int n = readAt(pos, b, off, len);
+                if (n < 0)
+                    throw new EOFException();
+                pos += n;
+                off += n;
+                len -= n;
+            }
+        }
+    }
 }
@@ -118,4 +118,69 @@ class ZipUtils {
     public static final long get64(byte b[], int off) {
         return get32(b, off) | (get32(b, off+4) << 32);
     }
+
+    /**
+     * Combines two CRCs computed with the given reversed polynomial, with
+     * the usual pre and post inversion, of two consecutive sequences of
+     * bytes, the second of which has a length of len2. The CRC of the first
+     * sequence is carried over the zero bits of the second one with the
+     * method of zlib's crc32_combine, by squaring a GF(2) operator matrix.
+     */
+    static int combineCRC(int poly, int crc1, int crc2, long len2) {
+        if (len2 <= 0)
+            return crc1;
+
+        int[] even = new int[32];    // even-power-of-two zeros operator
+        int[] odd = new int[32];     // odd-power-of-two zeros operator
+
+        // put operator for one zero bit in odd
+        odd[0] = poly;
+        int row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+
+        // put operator for two zero bits in even
+        gf2MatrixSquare(even, odd);
+
+        // put operator for four zero bits in odd
+        gf2MatrixSquare(odd, even);
+
+        // apply len2 zeros to crc1 (first square will put the operator for
+        // one zero byte, eight zero bits, in even)
+        do {
+            // apply zeros operator for this bit of len2
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0)
+                crc1 = gf2MatrixTimes(even, crc1);
+            len2 >>= 1;
+
+            // if no more bits set, then done
+            if (len2 == 0)
+                break;
+
+            // another iteration of the loop with odd and even swapped
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0)
+                crc1 = gf2MatrixTimes(odd, crc1);
+            len2 >>= 1;
+        } while (len2 != 0);
+
+        return crc1 ^ crc2;
+    }
+
+    private static int gf2MatrixTimes(int[] mat, int vec) {
+        int sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0)
+                sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(int[] square, int[] mat) {
+        for (int n = 0; n < 32; n++)
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+    }
 }
@@ -202,6 +202,16 @@ public class ManagementFactoryHelper {
         public String getParentLoggerName(String loggerName) {
             return LoggingSupport.getParentLoggerName(loggerName);
         }
+
+        @Override
+        public long getHandlerQueueDepth(String loggerName) {
+            return LoggingSupport.getHandlerQueueDepth(loggerName);
+        }
+
+        @Override
+        public long getHandlerDropCount(String loggerName) {
+            return LoggingSupport.getHandlerDropCount(loggerName);
+        }
     }
 
     private static List<BufferPoolMXBean> bufferPools = null;
@@ -212,6 +222,8 @@ public class ManagementFactoryHelper {
                 .getDirectBufferPool()));
             bufferPools.add(createBufferPoolMXBean(sun.nio.ch.FileChannelImpl
                 .getMappedBufferPool()));
+            bufferPools.add(createBufferPoolMXBean(sun.nio.ch.DirectBufferPool
+                .getBufferPool()));
         }
         return bufferPools;
     }
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.misc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import sun.security.action.GetPropertyAction;
+
+/*
+ * ClassPathIndex records, for the jar files on application class paths,
+ * the names of the packages that the entries of each jar file belong to,
+ * so that URLClassPath can find the jar files that may contain a resource
+ * with a hash probe instead of searching every jar file in turn. Each
+ * record also keeps the few manifest attributes that URLClassPath needs
+ * to expand the class path, so that a jar file with a valid record need
+ * not be opened until a resource is actually looked up in it.
+ *
+ * Unlike the meta-index, which only lists package prefixes for the jar
+ * files of the JRE, the records are exact and are built at run time, the
+ * first time a jar file is indexed. They are persisted in the file named
+ * by the sun.misc.URLClassPath.indexCache system property, which enables
+ * the index; a record is only used while the length and the modification
+ * time of its jar file are unchanged. The cache file is read once, and is
+ * rewritten, without the records of the jar files that have changed or
+ * disappeared, whenever new records have been built.
+ *
+ * The on-disk representation is a DataOutput stream:
+ *
+ * <PRE>
+ *     int     magic "CPIX"
+ *     short   version (1)
+ *     int     number of records, then for each record:
+ *         UTF     jar file path
+ *         long    length
+ *         long    modification time
+ *         byte    flags (HAS_JAR_INDEX, HAS_EXTENSIONS, HAS_CLASS_PATH)
+ *         UTF     value of the Class-Path attribute, if HAS_CLASS_PATH
+ *         int     number of packages, then a UTF package name for each
+ * </PRE>
+ *
+ * Package names are the names of entries up to their last '/', ignoring
+ * a trailing '/', so "a/b/C.class" and "a/b/" belong to packages "a/b"
+ * and "a" respectively; see packageOf.
+ */
+class ClassPathIndex {
+    private static final int MAGIC = 0x43504958;        // "CPIX"
+    private static final int VERSION = 1;
+
+    private static final int HAS_JAR_INDEX = 1;
+    private static final int HAS_EXTENSIONS = 2;
+    private static final int HAS_CLASS_PATH = 4;
+
+    // The smallest sizes of a record and of a package name in the cache file
+    private static final int MIN_RECORD_SIZE = 2 + 8 + 8 + 1 + 4;
+    private static final int MIN_PACKAGE_SIZE = 2;
+
+    // The cache file, or null if the index is disabled
+    private static final File cacheFile;
+
+    static {
+        String p = AccessController.doPrivileged(
+            new GetPropertyAction("sun.misc.URLClassPath.indexCache"));
+        cacheFile = (p != null && !p.isEmpty()) ? new File(p) : null;
+    }
+
+    // Maps jar file paths to their records, once the cache file is read
+    private static volatile Map<String, ClassPathIndex> records;
+
+    // Whether records have been built since the cache file was read
+    private static volatile boolean dirty;
+
+    final long length;
+    final long lastModified;
+    private final int flags;
+    // value of the Class-Path attribute, or null if none
+    final String classPath;
+    final String[] packages;
+
+    private ClassPathIndex(long length, long lastModified, int flags,
+                           String classPath, String[] packages) {
+        this.length = length;
+        this.lastModified = lastModified;
+        this.flags = flags;
+        this.classPath = classPath;
+        this.packages = packages;
+    }
+
+    /*
+     * Returns true if the jar file has a META-INF/INDEX.LIST, in which case
+     * the resources it leads to are not limited to its own packages.
+     */
+    boolean hasJarIndex() {
+        return (flags & HAS_JAR_INDEX) != 0;
+    }
+
+    /*
+     * Returns true if the jar file can be opened lazily, that is if
+     * expanding the class path needs nothing but the recorded Class-Path.
+     */
+    boolean isDeferrable() {
+        return (flags & (HAS_JAR_INDEX | HAS_EXTENSIONS)) == 0;
+    }
+
+    static boolean isEnabled() {
+        return cacheFile != null;
+    }
+
+    /*
+     * Returns the package that a resource or entry of the given name
+     * belongs to.
+     */
+    static String packageOf(String name) {
+        int end = name.length();
+        if (end > 0 && name.charAt(end - 1) == '/') {
+            end--;
+        }
+        int pos = name.lastIndexOf('/', end - 1);
+        return pos == -1 ? "" : name.substring(0, pos);
+    }
+
+    /*
+     * Returns the record of the given jar file if it is still valid, or
+     * null. This method must be called from a privileged context.
+     */
+    static ClassPathIndex forJar(String path) {
+        if (cacheFile == null) {
+            return null;
+        }
+        ClassPathIndex r = getRecords().get(path);
+        if (r != null) {
+            File f = new File(path);
+            if (r.lastModified != f.lastModified() || r.length != f.length()) {
+                return null;
+            }
+        }
+        return r;
+    }
+
+    /*
+     * Builds and returns the record of the given open jar file, or null if
+     * its modification time is not available. This method must be called
+     * from a privileged context.
+     */
+    static ClassPathIndex add(String path, JarFile jar) throws IOException {
+        if (cacheFile == null) {
+            return null;
+        }
+        File f = new File(path);
+        long lastModified = f.lastModified();
+        long length = f.length();
+        if (lastModified == 0) {
+            return null;
+        }
+        int flags = 0;
+        HashSet<String> set = new HashSet<>();
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.equals(JarIndex.INDEX_NAME)) {
+                flags |= HAS_JAR_INDEX;
+            }
+            set.add(packageOf(name));
+        }
+        String classPath = null;
+        Manifest man = jar.getManifest();
+        if (man != null) {
+            Attributes attr = man.getMainAttributes();
+            classPath = attr.getValue(Attributes.Name.CLASS_PATH);
+            if (classPath != null) {
+                flags |= HAS_CLASS_PATH;
+            }
+            if (attr.getValue(Attributes.Name.EXTENSION_LIST) != null) {
+                flags |= HAS_EXTENSIONS;
+            }
+        }
+        ClassPathIndex r = new ClassPathIndex(length, lastModified, flags,
+            classPath, set.toArray(new String[set.size()]));
+        getRecords().put(path, r);
+        dirty = true;
+        return r;
+    }
+
+    private static Map<String, ClassPathIndex> getRecords() {
+        Map<String, ClassPathIndex> map = records;
+        if (map == null) {
+            synchronized (ClassPathIndex.class) {
+                if ((map = records) == null) {
+                    map = new ConcurrentHashMap<>();
+                    load(map);
+                    records = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    /*
+     * Reads the cache file into the given map. A missing, unreadable or
+     * corrupt cache file is silently treated as empty. The counts read are
+     * bounded by the length of the file, so that a corrupt count cannot
+     * cause a huge allocation.
+     */
+    private static void load(final Map<String, ClassPathIndex> map) {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                if (!cacheFile.isFile()) {
+                    return null;
+                }
+                long size = cacheFile.length();
+                try (DataInputStream in = new DataInputStream(
+                         new BufferedInputStream(
+                             new FileInputStream(cacheFile)))) {
+                    if (in.readInt() != MAGIC ||
+                        in.readUnsignedShort() != VERSION) {
+                        return null;
+                    }
+                    int n = checkCount(in.readInt(), size / MIN_RECORD_SIZE);
+                    for (; n > 0; n--) {
+                        String path = in.readUTF();
+                        long length = in.readLong();
+                        long lastModified = in.readLong();
+                        int flags = in.readUnsignedByte();
+                        String classPath = (flags & HAS_CLASS_PATH) != 0
+                            ? in.readUTF() : null;
+                        String[] packages = new String[checkCount(
+                            in.readInt(), size / MIN_PACKAGE_SIZE)];
+                        for (int i = 0; i < packages.length; i++) {
+                            packages[i] = in.readUTF();
+                        }
+                        map.put(path, new ClassPathIndex(length, lastModified,
+                            flags, classPath, packages));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    map.clear();
+                }
+                return null;
+            }
+        });
+    }
+
+    private static int checkCount(int n, long max) throws IOException {
+        if (n < 0 || n > max) {
+            throw new IOException("Corrupt class path index");
+        }
+        return n;
+    }
+
+    /*
+     * Rewrites the cache file if records have been built since it was
+     * read. The file is replaced as a whole, so that concurrent readers
+     * see either the old or the new records. Failures are silently
+     * ignored, as the cache file only speeds up later runs.
+     */
+    static void save() {
+        if (!dirty) {
+            return;
+        }
+        synchronized (ClassPathIndex.class) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    File tmp = null;
+                    try {
+                        File dir = cacheFile.getAbsoluteFile().getParentFile();
+                        tmp = File.createTempFile(cacheFile.getName(), null,
+                                                  dir);
+                        try (DataOutputStream out = new DataOutputStream(
+                                 new BufferedOutputStream(
+                                     new FileOutputStream(tmp)))) {
+                            write(out);
+                        }
+                        if (!tmp.renameTo(cacheFile)) {
+                            cacheFile.delete();
+                            if (!tmp.renameTo(cacheFile)) {
+                                tmp.delete();
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        if (tmp != null) {
+                            tmp.delete();
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    private static void write(DataOutputStream out) throws IOException {
+        // leave out the records of jar files that have changed
+        Map<String, ClassPathIndex> valid = new HashMap<>();
+        for (Map.Entry<String, ClassPathIndex> e : getRecords().entrySet()) {
+            File f = new File(e.getKey());
+            ClassPathIndex r = e.getValue();
+            if (r.lastModified == f.lastModified() && r.length == f.length()) {
+                valid.put(e.getKey(), r);
+            }
+        }
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(valid.size());
+        for (Map.Entry<String, ClassPathIndex> e : valid.entrySet()) {
+            ClassPathIndex r = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeLong(r.length);
+            out.writeLong(r.lastModified);
+            out.writeByte(r.flags);
+            if (r.classPath != null) {
+                out.writeUTF(r.classPath);
+            }
+            out.writeInt(r.packages.length);
+            for (String pkg : r.packages) {
+                out.writeUTF(pkg);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.misc;
+
+/**
+ * A per-thread cache of the default-sized byte and char arrays used by the
+ * buffered readers, writers and stream coders in java.io and sun.nio.cs.
+ * Short-lived streams take an array from the cache when they are created
+ * and give it back when they are closed, so that a thread which opens and
+ * closes many streams keeps reusing the same few arrays.
+ *
+ * <p> An array may only be returned to the cache by an owner that can prove
+ * that no other code holds a reference to it: the array must have been
+ * handed to nothing but classes of the bootstrap class loader (see {@link
+ * #isTrusted}) that do not pass it on to a stream they wrap, and the owner
+ * must not touch it again after the release. Arrays that come out of the
+ * cache are not cleared.
+ */
+public final class IOBufferCache {
+
+    /**
+     * The size of the arrays kept by the cache, the default buffer size
+     * of the java.io buffered streams.
+     */
+    public static final int BUFFER_SIZE = 8192;
+
+    // the number of arrays of each kind kept per thread
+    private static final int CACHE_SIZE = 4;
+
+    private static final ThreadLocal<IOBufferCache> cache =
+        new ThreadLocal<IOBufferCache>() {
+            @Override
+            protected IOBufferCache initialValue() {
+                return new IOBufferCache();
+            }
+        };
+
+    private final byte[][] bytes = new byte[CACHE_SIZE][];
+    private int byteCount;
+
+    private final char[][] chars = new char[CACHE_SIZE][];
+    private int charCount;
+
+    private IOBufferCache() { }
+
+    /**
+     * Returns true if instances of the given class may see a cached array.
+     * Only classes defined by the bootstrap class loader are trusted not to
+     * retain an array passed to them.
+     */
+    public static boolean isTrusted(Class<?> c) {
+        return c.getClassLoader() == null;
+    }
+
+    /**
+     * Returns a byte array of length {@link #BUFFER_SIZE}, taken from the
+     * cache of the current thread if possible.
+     */
+    public static byte[] getByteArray() {
+        IOBufferCache c = cache.get();
+        if (c.byteCount == 0)
+            return new byte[BUFFER_SIZE];
+        int i = --c.byteCount;
+        byte[] b = c.bytes[i];
+        c.bytes[i] = null;
+        return b;
+    }
+
+    /**
+     * Gives a byte array back to the cache of the current thread. Arrays of
+     * a length other than {@link #BUFFER_SIZE} are ignored, as are arrays
+     * that do not fit in the cache.
+     */
+    public static void releaseByteArray(byte[] b) {
+        if (b == null || b.length != BUFFER_SIZE)
+            return;
+        IOBufferCache c = cache.get();
+        if (c.byteCount < CACHE_SIZE)
+            c.bytes[c.byteCount++] = b;
+    }
+
+    /**
+     * Returns a char array of length {@link #BUFFER_SIZE}, taken from the
+     * cache of the current thread if possible.
+     */
+    public static char[] getCharArray() {
+        IOBufferCache c = cache.get();
+        if (c.charCount == 0)
+            return new char[BUFFER_SIZE];
+        int i = --c.charCount;
+        char[] b = c.chars[i];
+        c.chars[i] = null;
+        return b;
+    }
+
+    /**
+     * Gives a char array back to the cache of the current thread. Arrays of
+     * a length other than {@link #BUFFER_SIZE} are ignored, as are arrays
+     * that do not fit in the cache.
+     */
+    public static void releaseCharArray(char[] b) {
+        if (b == null || b.length != BUFFER_SIZE)
+            return;
+        IOBufferCache c = cache.get();
+        if (c.charCount < CACHE_SIZE)
+            c.chars[c.charCount++] = b;
+    }
+}
@@ -26,14 +26,19 @@
 package sun.misc;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.FilePermission;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.net.*;
 import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.StringTokenizer;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedExceptionAction;
@@ -51,6 +56,8 @@ import sun.net.www.ParseUtil;
 Launcher */
 public class Launcher {
     private static URLStreamHandlerFactory factory = new Factory();
+    private static final ClassList classList =
+        ClassList.forFile(System.getProperty("sun.misc.Launcher.classList"));
     private static Launcher launcher = new Launcher();
     private static String bootClassPath =
         System.getProperty("sun.boot.class.path");
@@ -82,6 +89,11 @@ public class Launcher {
         // Also set the context class loader for the primordial thread.
         Thread.currentThread().setContextClassLoader(loader);
 
+        // Write the classes loaded at exit, if requested
+        if (classList != null) {
+            classList.register();
+        }
+
         // Finally, install a security manager if requested
         String s = System.getProperty("java.security.manager");
         if (s != null) {
@@ -113,6 +125,61 @@ public class Launcher {
         return loader;
     }
 
+    /*
+     * Records the names of the classes loaded through the application class
+     * loader, including those its parents define, and writes them at exit,
+     * in the order they were first loaded, one per line in internal form.
+     * The file of a training run, named by the sun.misc.Launcher.classList
+     * system property, is meant for -XX:SharedClassListFile, so that the VM
+     * dumps these classes into the shared archive that later runs map with
+     * -Xshare; classes that the VM loads on its own are not recorded.
+     */
+    static class ClassList implements Runnable {
+        private final File file;
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+        private final ConcurrentLinkedQueue<String> names =
+            new ConcurrentLinkedQueue<>();
+
+        private ClassList(File file) {
+            this.file = file;
+        }
+
+        static ClassList forFile(String path) {
+            return (path == null || path.isEmpty())
+                ? null : new ClassList(new File(path));
+        }
+
+        void register() {
+            SharedSecrets.getJavaLangAccess()
+                .registerShutdownHook(3 /* after application hooks */,
+                    false /* only register if shutdown is not in progress */,
+                    this);
+        }
+
+        void add(String name) {
+            if (seen.add(name)) {
+                names.add(name);
+            }
+        }
+
+        public void run() {
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    try (PrintWriter out = new PrintWriter(
+                             new OutputStreamWriter(
+                                 new FileOutputStream(file), "UTF-8"))) {
+                        for (String name : names) {
+                            out.println(name.replace('.', '/'));
+                        }
+                    } catch (IOException e) {
+                        // Silently fail, as the run itself has succeeded
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
     /*
      * The class loader used for loading installed extensions.
      */
@@ -335,7 +402,11 @@ public class Launcher {
                 throw new ClassNotFoundException(name);
             }
 
-            return (super.loadClass(name, resolve));
+            Class<?> c = super.loadClass(name, resolve);
+            if (classList != null) {
+                classList.add(name);
+            }
+            return c;
         }
 
         /**
@@ -26,6 +26,7 @@
 package sun.misc;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 import sun.misc.JarIndex;
 import sun.misc.InvalidJarIndexException;
@@ -102,7 +103,10 @@ public class URLClassPath {
     private URLStreamHandler jarHandler;
 
     /* Whether this URLClassLoader has been closed yet */
-    private boolean closed = false;
+    private volatile boolean closed = false;
+
+    /* The index of the loaders by package, if enabled and built */
+    private volatile LoaderIndex loaderIndex;
 
     /* The context to be used when loading classes and resources.  If non-null
      * this is the context that was captured during the creation of the
@@ -162,6 +166,7 @@ public class URLClassPath {
             }
         }
         closed = true;
+        loaderIndex = null;
         return result;
     }
 
@@ -181,6 +186,7 @@ public class URLClassPath {
 
             urls.add(0, url);
             path.add(url);
+            loaderIndex = null;
 
             if (lookupCacheURLs != null) {
                 // The lookup cache is no longer valid, since getLookupCache()
@@ -210,8 +216,9 @@ public class URLClassPath {
      */
     public URL findResource(String name, boolean check) {
         Loader loader;
-        int[] cache = getLookupCache(name);
-        for (int i = 0; (loader = getNextLoader(cache, i)) != null; i++) {
+        Loader[] indexed = getIndexedLoaders(name);
+        int[] cache = indexed == null ? getLookupCache(name) : null;
+        for (int i = 0; (loader = getNextLoader(indexed, cache, i)) != null; i++) {
             URL url = loader.findResource(name, check);
             if (url != null) {
                 return url;
@@ -234,8 +241,9 @@ public class URLClassPath {
         }
 
         Loader loader;
-        int[] cache = getLookupCache(name);
-        for (int i = 0; (loader = getNextLoader(cache, i)) != null; i++) {
+        Loader[] indexed = getIndexedLoaders(name);
+        int[] cache = indexed == null ? getLookupCache(name) : null;
+        for (int i = 0; (loader = getNextLoader(indexed, cache, i)) != null; i++) {
             Resource res = loader.getResource(name, check);
             if (res != null) {
                 return res;
@@ -255,7 +263,8 @@ public class URLClassPath {
                                      final boolean check) {
         return new Enumeration<URL>() {
             private int index = 0;
-            private int[] cache = getLookupCache(name);
+            private Loader[] indexed = getIndexedLoaders(name);
+            private int[] cache = indexed == null ? getLookupCache(name) : null;
             private URL url = null;
 
             private boolean next() {
@@ -263,7 +272,7 @@ public class URLClassPath {
                     return true;
                 } else {
                     Loader loader;
-                    while ((loader = getNextLoader(cache, index++)) != null) {
+                    while ((loader = getNextLoader(indexed, cache, index++)) != null) {
                         url = loader.findResource(name, check);
                         if (url != null) {
                             return true;
@@ -303,7 +312,8 @@ public class URLClassPath {
                                     final boolean check) {
         return new Enumeration<Resource>() {
             private int index = 0;
-            private int[] cache = getLookupCache(name);
+            private Loader[] indexed = getIndexedLoaders(name);
+            private int[] cache = indexed == null ? getLookupCache(name) : null;
             private Resource res = null;
 
             private boolean next() {
@@ -311,7 +321,7 @@ public class URLClassPath {
                     return true;
                 } else {
                     Loader loader;
-                    while ((loader = getNextLoader(cache, index++)) != null) {
+                    while ((loader = getNextLoader(indexed, cache, index++)) != null) {
                         res = loader.getResource(name, check);
                         if (res != null) {
                             return true;
@@ -485,6 +495,126 @@ public class URLClassPath {
         }
     }
 
+    /**
+     * Returns the next Loader that may contain the resource to lookup,
+     * like getNextLoader(int[], int), but from the given candidates of
+     * the loader index if non-null. Iterating over the candidates takes
+     * no lock.
+     */
+    private Loader getNextLoader(Loader[] indexed, int[] cache, int index) {
+        if (indexed != null) {
+            return (index < indexed.length && !closed) ? indexed[index] : null;
+        }
+        return getNextLoader(cache, index);
+    }
+
+    /*
+     * Returns the loaders that may contain the specified resource, in
+     * search order, or null if the loader index is disabled. The index
+     * is built, which expands the whole search path, on first use and
+     * after URLs are added; lookups are then a hash probe.
+     */
+    private Loader[] getIndexedLoaders(String name) {
+        if (!ClassPathIndex.isEnabled()) {
+            return null;
+        }
+        LoaderIndex li = loaderIndex;
+        if (li == null && (li = buildLoaderIndex()) == null) {
+            return null;
+        }
+        return li.get(name);
+    }
+
+    private synchronized LoaderIndex buildLoaderIndex() {
+        if (closed) {
+            return null;
+        }
+        LoaderIndex li = loaderIndex;
+        if (li == null) {
+            int n = loaders.size();
+            while (getLoader(n) != null) {
+                n = loaders.size();
+            }
+            li = new LoaderIndex(loaders.toArray(new Loader[n]));
+            loaderIndex = li;
+            ClassPathIndex.save();
+        }
+        return li;
+    }
+
+    /*
+     * Index of the loaders of a fully expanded search path by the packages
+     * of their resources. Loaders that cannot list their packages, such as
+     * directories, are candidates for every resource. The index does not
+     * change once built, and the candidates of each package are merged
+     * once, so that parallel lookups need no lock.
+     */
+    private static final class LoaderIndex {
+        private final Loader[] loaders;
+        // the ascending positions of the loaders of each package
+        private final HashMap<String, int[]> positions = new HashMap<>();
+        // the ascending positions of the loaders that are always searched
+        private final int[] unindexed;
+        private final Loader[] unindexedLoaders;
+        private final ConcurrentHashMap<String, Loader[]> candidates =
+            new ConcurrentHashMap<>();
+
+        LoaderIndex(Loader[] loaders) {
+            this.loaders = loaders;
+            int[] others = new int[loaders.length];
+            int count = 0;
+            for (int i = 0; i < loaders.length; i++) {
+                String[] packages = loaders[i].getPackages();
+                if (packages == null) {
+                    others[count++] = i;
+                    continue;
+                }
+                for (String pkg : packages) {
+                    int[] p = positions.get(pkg);
+                    if (p == null) {
+                        p = new int[] { i };
+                    } else {
+                        p = Arrays.copyOf(p, p.length + 1);
+                        p[p.length - 1] = i;
+                    }
+                    positions.put(pkg, p);
+                }
+            }
+            unindexed = Arrays.copyOf(others, count);
+            unindexedLoaders = new Loader[count];
+            for (int i = 0; i < count; i++) {
+                unindexedLoaders[i] = loaders[unindexed[i]];
+            }
+        }
+
+        Loader[] get(String name) {
+            String pkg = ClassPathIndex.packageOf(name);
+            Loader[] c = candidates.get(pkg);
+            if (c == null) {
+                int[] p = positions.get(pkg);
+                if (p == null) {
+                    return unindexedLoaders;
+                }
+                // merge the two ascending lists of positions
+                c = new Loader[p.length + unindexed.length];
+                int i = 0, j = 0, k = 0;
+                while (i < p.length || j < unindexed.length) {
+                    if (j == unindexed.length ||
+                        (i < p.length && p[i] < unindexed[j])) {
+                        c[k++] = loaders[p[i++]];
+                    } else {
+                        c[k++] = loaders[unindexed[j++]];
+                    }
+                }
+                Loader[] prev = candidates.putIfAbsent(pkg, c);
+                if (prev != null) {
+                    c = prev;
+                }
+            }
+            return c;
+        }
+    }
+
     /*
      * Returns the Loader at the specified position in the URL search
      * path. The URLs are opened and expanded as needed. Returns null
@@ -783,16 +913,28 @@ public class URLClassPath {
         URL[] getClassPath() throws IOException {
             return null;
         }
+
+        /*
+         * Returns the names of the packages of all the resources of this
+         * loader, or null if they are not known.
+         */
+        String[] getPackages() {
+            return null;
+        }
     }
 
     /*
      * Inner class used to represent a Loader of resources from a JAR URL.
      */
     static class JarLoader extends Loader {
-        private JarFile jar;
+        private volatile JarFile jar;
         private final URL csu;
         private JarIndex index;
         private MetaIndex metaIndex;
+        private String jarPath;             // path of a local jar file
+        private ClassPathIndex packageIndex;
+        private boolean deferred;           // opened on the first lookup
+        private volatile boolean skipped;   // the deferred opening failed
         private URLStreamHandler handler;
         private final HashMap<String, Loader> lmap;
         private final AccessControlContext acc;
@@ -838,16 +980,33 @@ public class URLClassPath {
                 // entry recorded in meta-index file or such jar file is
                 // missing in JRE. See bug 6340399.
                 if (metaIndex == null) {
-                    ensureOpen();
+                    // Likewise, a valid record in the class path index is
+                    // enough to expand the class path without opening the
+                    // jar file.
+                    if (ClassPathIndex.isEnabled()) {
+                        jarPath = new FileURLMapper(url).getPath();
+                        packageIndex = ClassPathIndex.forJar(jarPath);
+                    }
+                    if (packageIndex == null || !packageIndex.isDeferrable()
+                        || (System.getSecurityManager() != null
+                            && !DISABLE_JAR_CHECKING)) {
+                        ensureOpen();
+                    } else {
+                        deferred = true;
+                    }
                 }
             }
         }
 
         @Override
-        public void close () throws IOException {
-            // closing is synchronized at higher level
+        public synchronized void close () throws IOException {
+            // closing is synchronized at higher level, but a deferred
+            // opening may be in progress
             if (!closed) {
                 closed = true;
+                if (jar == null && deferred) {
+                    return; // opening was deferred, and is not needed
+                }
                 // in case not already open.
                 ensureOpen();
                 jar.close();
@@ -862,45 +1021,85 @@ public class URLClassPath {
             return "file".equals(url.getProtocol());
         }
 
+        /*
+         * Opens the jar file if not yet open. A deferred opening happens on
+         * a lookup, which may run concurrently with others, so the jar file
+         * is opened under the lock of this loader and published once its
+         * index is read.
+         */
         private void ensureOpen() throws IOException {
             if (jar == null) {
-                try {
-                    java.security.AccessController.doPrivileged(
-                        new java.security.PrivilegedExceptionAction<Void>() {
-                            public Void run() throws IOException {
-                                if (DEBUG) {
-                                    System.err.println("Opening " + csu);
-                                    Thread.dumpStack();
-                                }
+                synchronized (this) {
+                    if (jar == null) {
+                        if (deferred && closed) {
+                            throw new IOException("closed");
+                        }
+                        open();
+                    }
+                }
+            }
+        }
+
+        private void open() throws IOException {
+            try {
+                java.security.AccessController.doPrivileged(
+                    new java.security.PrivilegedExceptionAction<Void>() {
+                        public Void run() throws IOException {
+                            if (DEBUG) {
+                                System.err.println("Opening " + csu);
+                                Thread.dumpStack();
+                            }
 
-                                jar = getJarFile(csu);
-                                index = JarIndex.getJarIndex(jar, metaIndex);
-                                if (index != null) {
-                                    String[] jarfiles = index.getJarFiles();
-                                // Add all the dependent URLs to the lmap so that loaders
-                                // will not be created for them by URLClassPath.getLoader(int)
-                                // if the same URL occurs later on the main class path.  We set
-                                // Loader to null here to avoid creating a Loader for each
-                                // URL until we actually need to try to load something from them.
-                                    for(int i = 0; i < jarfiles.length; i++) {
-                                        try {
-                                            URL jarURL = new URL(csu, jarfiles[i]);
-                                            // If a non-null loader already exists, leave it alone.
-                                            String urlNoFragString = URLUtil.urlNoFragString(jarURL);
-                                            if (!lmap.containsKey(urlNoFragString)) {
-                                                lmap.put(urlNoFragString, null);
-                                            }
-                                        } catch (MalformedURLException e) {
-                                            continue;
+                            JarFile jar = getJarFile(csu);
+                            index = JarIndex.getJarIndex(jar, metaIndex);
+                            if (index != null) {
+                                String[] jarfiles = index.getJarFiles();
+                            // Add all the dependent URLs to the lmap so that loaders
+                            // will not be created for them by URLClassPath.getLoader(int)
+                            // if the same URL occurs later on the main class path.  We set
+                            // Loader to null here to avoid creating a Loader for each
+                            // URL until we actually need to try to load something from them.
+                                for(int i = 0; i < jarfiles.length; i++) {
+                                    try {
+                                        URL jarURL = new URL(csu, jarfiles[i]);
+                                        // If a non-null loader already exists, leave it alone.
+                                        String urlNoFragString = URLUtil.urlNoFragString(jarURL);
+                                        if (!lmap.containsKey(urlNoFragString)) {
+                                            lmap.put(urlNoFragString, null);
                                         }
+                                    } catch (MalformedURLException e) {
+                                        continue;
                                     }
                                 }
-                                return null;
                             }
-                        }, acc);
-                } catch (java.security.PrivilegedActionException pae) {
-                    throw (IOException)pae.getException();
+                            JarLoader.this.jar = jar;
+                            return null;
+                        }
+                    }, acc);
+            } catch (java.security.PrivilegedActionException pae) {
+                throw (IOException)pae.getException();
+            }
+        }
+
+        /*
+         * Opens the jar file for a lookup. Returns false if its opening was
+         * deferred and fails, in which case the jar file is skipped, as it
+         * would have been had it failed to open when this loader was
+         * created.
+         */
+        private boolean openForLookup() {
+            if (skipped) {
+                return false;
+            }
+            try {
+                ensureOpen();
+                return true;
+            } catch (IOException e) {
+                if (!deferred) {
+                    throw new InternalError(e);
                 }
+                skipped = true;
+                return false;
             }
         }
 
@@ -939,10 +1138,8 @@ public class URLClassPath {
          * Returns the index of this JarLoader if it exists.
          */
         JarIndex getIndex() {
-            try {
-                ensureOpen();
-            } catch (IOException e) {
-                throw new InternalError(e);
+            if (!openForLookup()) {
+                return null;
             }
             return index;
         }
@@ -1034,10 +1231,8 @@ public class URLClassPath {
                 }
             }
 
-            try {
-                ensureOpen();
-            } catch (IOException e) {
-                throw new InternalError(e);
+            if (!openForLookup()) {
+                return null;
             }
             final JarEntry entry = jar.getJarEntry(name);
             if (entry != null)
@@ -1121,10 +1316,8 @@ public class URLClassPath {
                      */
                     boolean visitedURL = !visited.add(URLUtil.urlNoFragString(url));
                     if (!visitedURL) {
-                        try {
-                            newLoader.ensureOpen();
-                        } catch (IOException e) {
-                            throw new InternalError(e);
+                        if (!newLoader.openForLookup()) {
+                            continue;
                         }
                         final JarEntry entry = newLoader.jar.getJarEntry(name);
                         if (entry != null) {
@@ -1180,6 +1373,14 @@ public class URLClassPath {
                 return null;
             }
 
+            // A deferred jar file has no Extension-List attribute, as its
+            // record would not be deferrable with HAS_EXTENSIONS set, so
+            // there are no extension dependencies to check
+            if (jar == null && deferred) {
+                String value = packageIndex.classPath;
+                return value != null ? parseClassPath(csu, value) : null;
+            }
+
             ensureOpen();
             parseExtensionsDependencies();
 
@@ -1198,6 +1399,35 @@ public class URLClassPath {
             return null;
         }
 
+        /*
+         * Returns the names of the packages of the entries of this jar
+         * file, building its record in the class path index if needed, or
+         * null if lookups in this jar file cannot be limited to them.
+         */
+        String[] getPackages() {
+            if (jarPath == null || closed) {
+                return null;
+            }
+            if (packageIndex == null) {
+                try {
+                    packageIndex = AccessController.doPrivileged(
+                        new PrivilegedExceptionAction<ClassPathIndex>() {
+                            public ClassPathIndex run() throws IOException {
+                                ensureOpen();
+                                return ClassPathIndex.add(jarPath, jar);
+                            }
+                        }, acc);
+                } catch (java.security.PrivilegedActionException pae) {
+                    return null;
+                }
+                if (packageIndex == null) {
+                    jarPath = null;     // do not try again
+                    return null;
+                }
+            }
+            return packageIndex.hasJarIndex() ? null : packageIndex.packages;
+        }
+
         /*
          * parse the standard extension dependencies
          */
@@ -166,6 +166,21 @@ public class VM {
         return booted;
     }
 
+    private static volatile boolean systemLoaderInitialized = false;
+
+    // Invoked by ClassLoader.initSystemClassLoader once the system class
+    // loader is set. Method handles need the system class loader to
+    // resolve the types of their lambda forms, so reflection only uses
+    // them from then on.
+    //
+    public static void systemLoaderInitialized() {
+        systemLoaderInitialized = true;
+    }
+
+    public static boolean isSystemLoaderInitialized() {
+        return systemLoaderInitialized;
+    }
+
     // Waits until VM completes initialization
     //
     // This method is invoked by the Finalizer thread
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import sun.misc.Cleaner;
+import sun.misc.JavaNioAccess;
+import sun.misc.SharedSecrets;
+import sun.misc.VM;
+import sun.security.action.GetPropertyAction;
+import sun.util.logging.PlatformLogger;
+
+/**
+ * A pool of direct byte buffers with explicit release.
+ *
+ * <p> Requests are rounded up to a power-of-two size class between 4K and
+ * 1M. Each size class carves its buffers out of slabs, large direct buffers
+ * that are allocated once and kept for the life of the VM, so that buffers
+ * that are released and allocated again never go through {@code
+ * Bits.reserveMemory} or wait for a {@code Cleaner}. Larger requests, and
+ * requests made once the slabs reach the pool limit, are served by {@link
+ * ByteBuffer#allocateDirect} and freed when released.
+ *
+ * <p> A buffer obtained from {@link #allocate} must be given back exactly
+ * once with {@link #release}, after which neither it nor any view of it may
+ * be used. A pooled buffer that becomes unreachable without having been
+ * released is detected and its memory is returned to the pool; it is
+ * counted as a leak and, when the {@code jdk.nio.directBufferPool.leakDetection}
+ * property is {@code true}, logged with the stack trace of its allocation.
+ *
+ * <p> The pool is exposed as the "direct-pooled" {@code BufferPoolMXBean}.
+ * Its count and total capacity are those of the buffers currently allocated
+ * from the slabs; its memory used is the size of the slabs. The slabs are
+ * also included in the "direct" pool.
+ */
+public class DirectBufferPool {
+
+    // -- Configuration --
+
+    // smallest and largest size class, as shifts
+    private static final int MIN_SHIFT = 12;
+    private static final int MAX_SHIFT = 20;
+
+    // the size of the smaller slabs; each slab holds at most MAX_SLOTS
+    // and at least one buffer
+    private static final int SLAB_SIZE = 256 * 1024;
+    private static final int MAX_SLOTS = 64;
+
+    // upper limit on the total size of the slabs
+    private static final long MAX_POOL_MEMORY = getMaxPoolMemory();
+
+    // true to record and log the allocation site of leaked buffers
+    private static final boolean LEAK_DETECTION = Boolean.parseBoolean(
+        AccessController.doPrivileged(
+            new GetPropertyAction("jdk.nio.directBufferPool.leakDetection")));
+
+    private static final JavaNioAccess NIO_ACCESS =
+        SharedSecrets.getJavaNioAccess();
+
+    private static long getMaxPoolMemory() {
+        String s = AccessController.doPrivileged(
+            new GetPropertyAction("jdk.nio.directBufferPool.maxMemory"));
+        if (s != null) {
+            try {
+                long m = Long.parseLong(s);
+                if (m >= 0)
+                    return m;
+            } catch (NumberFormatException e) {
+                // ignore the property if not well formed
+            }
+        }
+        // default to a quarter of the direct memory limit, at most 256M
+        return Math.min(VM.maxDirectMemory() / 4, 256L * 1024 * 1024);
+    }
+
+
+    // -- State --
+
+    private static final SizeClass[] sizeClasses;
+    static {
+        sizeClasses = new SizeClass[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < sizeClasses.length; i++)
+            sizeClasses[i] = new SizeClass(1 << (MIN_SHIFT + i));
+    }
+
+    // pooled buffers that became unreachable without being released
+    private static final ReferenceQueue<ByteBuffer> queue =
+        new ReferenceQueue<>();
+
+    // total size of the slabs
+    private static final AtomicLong poolMemory = new AtomicLong();
+
+    // number and total capacity of the buffers allocated from the slabs
+    private static final AtomicLong leasedCount = new AtomicLong();
+    private static final AtomicLong leasedCapacity = new AtomicLong();
+
+    // number of buffers reclaimed by leak detection
+    private static final AtomicLong leakCount = new AtomicLong();
+
+    private DirectBufferPool() { }
+
+    /**
+     * A region of a slab that holds one buffer at a time.
+     */
+    private static final class Slot {
+        final SizeClass sizeClass;
+        final long address;
+        // the current lease, or null if the slot is free
+        Lease lease;
+
+        Slot(SizeClass sizeClass, long address) {
+            this.sizeClass = sizeClass;
+            this.address = address;
+        }
+    }
+
+    /**
+     * One allocation of a slot. Attached to the buffer handed out, so that
+     * release can find the slot and tell a stale buffer from the current one.
+     */
+    private static final class Lease {
+        final Slot slot;
+        Tracker tracker;
+        // set when the lease is released, or reclaimed as leaked; guarded
+        // by the lock of the size class
+        boolean released;
+        boolean reclaimed;
+
+        Lease(Slot slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Enqueued when the buffer of a lease becomes unreachable.
+     */
+    private static final class Tracker extends PhantomReference<ByteBuffer> {
+        final Lease lease;
+        // the allocation site, when leak detection is enabled
+        final Throwable site;
+
+        Tracker(ByteBuffer buf, Lease lease) {
+            super(buf, queue);
+            this.lease = lease;
+            this.site = LEAK_DETECTION ? new Throwable("Allocation site") : null;
+        }
+    }
+
+    /**
+     * The slabs and free slots of one buffer size.
+     */
+    private static final class SizeClass {
+        final int size;
+        final int slabSlots;
+        // slabs, kept reachable so that their memory is never freed
+        final ArrayList<ByteBuffer> slabs = new ArrayList<>();
+        // all slots, kept reachable so that the trackers of their leases
+        // are enqueued when a buffer is leaked
+        final ArrayList<Slot> slots = new ArrayList<>();
+        // stack of free slots
+        Slot[] free = new Slot[MAX_SLOTS];
+        int freeCount;
+
+        SizeClass(int size) {
+            this.size = size;
+            this.slabSlots = Math.max(1, Math.min(MAX_SLOTS, SLAB_SIZE / size));
+        }
+
+        // Returns a free slot, or null.  Must be called while holding this
+        // object's lock.
+        Slot poll() {
+            if (freeCount == 0)
+                return null;
+            Slot slot = free[--freeCount];
+            free[freeCount] = null;
+            return slot;
+        }
+
+        // Must be called while holding this object's lock.
+        void put(Slot slot) {
+            if (freeCount == free.length) {
+                Slot[] a = new Slot[free.length << 1];
+                System.arraycopy(free, 0, a, 0, freeCount);
+                free = a;
+            }
+            free[freeCount++] = slot;
+        }
+
+        // Allocates a new slab, or returns null if the pool limit would be
+        // exceeded or there is not enough direct memory.  Must be called
+        // without holding this object's lock, as the allocation may wait
+        // for the collector to free direct memory.
+        ByteBuffer newSlab() {
+            long slabSize = (long)size * slabSlots;
+            long m;
+            do {
+                m = poolMemory.get();
+                if (slabSize > MAX_POOL_MEMORY - m)
+                    return null;
+            } while (!poolMemory.compareAndSet(m, m + slabSize));
+            try {
+                return ByteBuffer.allocateDirect((int)slabSize);
+            } catch (OutOfMemoryError e) {
+                poolMemory.addAndGet(-slabSize);
+                return null;
+            }
+        }
+
+        // Adds the slots of a slab from newSlab to the free slots.  Must be
+        // called while holding this object's lock.
+        void addSlab(ByteBuffer slab) {
+            slabs.add(slab);
+            long base = ((DirectBuffer)slab).address();
+            for (int i = slabSlots - 1; i >= 0; i--) {
+                Slot slot = new Slot(this, base + (long)i * size);
+                slots.add(slot);
+                put(slot);
+            }
+        }
+
+        // Frees a slab from newSlab that was not needed after all.
+        void discard(ByteBuffer slab) {
+            ((DirectBuffer)slab).cleaner().clean();
+            poolMemory.addAndGet(-slab.capacity());
+        }
+    }
+
+    private static SizeClass sizeClassFor(int size) {
+        if (size > (1 << MAX_SHIFT))
+            return null;
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+        return sizeClasses[Math.max(shift, MIN_SHIFT) - MIN_SHIFT];
+    }
+
+    /**
+     * Returns the memory of the pooled buffers found to be unreachable to
+     * their slots.
+     */
+    private static void reclaimLeaked() {
+        Tracker t;
+        while ((t = (Tracker)queue.poll()) != null) {
+            Slot slot = t.lease.slot;
+            SizeClass sc = slot.sizeClass;
+            synchronized (sc) {
+                if (slot.lease != t.lease)
+                    continue;       // released in the meantime
+                slot.lease = null;
+                t.lease.reclaimed = true;
+                sc.put(slot);
+            }
+            leasedCount.decrementAndGet();
+            leasedCapacity.addAndGet(-sc.size);
+            leakCount.incrementAndGet();
+            if (t.site != null) {
+                PlatformLogger.getLogger("sun.nio.ch").warning(
+                    "Direct buffer of " + sc.size +
+                    " bytes was not released to the pool", t.site);
+            }
+        }
+    }
+
+    /**
+     * Returns a direct buffer with a position of zero, a limit of the given
+     * size and a capacity of at least the given size. Its contents are
+     * undefined.
+     *
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static ByteBuffer allocate(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+        reclaimLeaked();
+        SizeClass sc = sizeClassFor(size);
+        if (sc == null)
+            return ByteBuffer.allocateDirect(size);
+        Lease lease = null;
+        ByteBuffer slab = null;
+        while (lease == null) {
+            synchronized (sc) {
+                Slot slot = sc.poll();
+                if (slot == null && slab != null) {
+                    sc.addSlab(slab);
+                    slab = null;
+                    slot = sc.poll();
+                }
+                if (slot != null) {
+                    lease = new Lease(slot);
+                    slot.lease = lease;
+                }
+            }
+            if (lease == null) {
+                // allocate outside the lock, so that other threads can
+                // take released slots while the allocation waits
+                slab = sc.newSlab();
+                if (slab == null)
+                    return ByteBuffer.allocateDirect(size);
+            }
+        }
+        if (slab != null) {
+            // slots were released or added by another thread meanwhile
+            sc.discard(slab);
+        }
+        Slot slot = lease.slot;
+        ByteBuffer buf = NIO_ACCESS.newDirectByteBuffer(slot.address, sc.size,
+                                                       lease);
+        lease.tracker = new Tracker(buf, lease);
+        leasedCount.incrementAndGet();
+        leasedCapacity.addAndGet(sc.size);
+        buf.limit(size);
+        return buf;
+    }
+
+    /**
+     * Tells whether the given buffer was allocated from the slabs of the
+     * pool.
+     */
+    public static boolean isPooled(ByteBuffer buf) {
+        return buf.isDirect()
+            && ((DirectBuffer)buf).attachment() instanceof Lease;
+    }
+
+    /**
+     * Releases a buffer obtained from {@link #allocate}, returning its
+     * memory to the pool, or freeing it if it was not allocated from the
+     * slabs.
+     *
+     * @throws IllegalStateException if the buffer has already been released
+     */
+    public static void release(ByteBuffer buf) {
+        Object att = ((DirectBuffer)buf).attachment();
+        if (!(att instanceof Lease)) {
+            Cleaner cl = ((DirectBuffer)buf).cleaner();
+            if (cl != null)
+                cl.clean();
+            return;
+        }
+        Lease lease = (Lease)att;
+        Slot slot = lease.slot;
+        SizeClass sc = slot.sizeClass;
+        boolean reclaimed = false;
+        synchronized (sc) {
+            if (lease.released)
+                throw new IllegalStateException("Buffer already released");
+            lease.released = true;
+            if (lease.reclaimed) {
+                // the buffer may be unreachable once its attachment has
+                // been read, and so reclaimed as leaked by another thread
+                reclaimed = true;
+            } else {
+                slot.lease = null;
+                sc.put(slot);
+            }
+        }
+        if (reclaimed) {
+            leakCount.decrementAndGet();
+            return;
+        }
+        lease.tracker.clear();
+        lease.tracker = null;
+        leasedCount.decrementAndGet();
+        leasedCapacity.addAndGet(-sc.size);
+    }
+
+    /**
+     * Returns the number of pooled buffers that were reclaimed because they
+     * became unreachable without being released.
+     */
+    public static long getLeakCount() {
+        return leakCount.get();
+    }
+
+    /**
+     * Returns the pool for monitoring by the BufferPoolMXBean.
+     */
+    public static JavaNioAccess.BufferPool getBufferPool() {
+        return new JavaNioAccess.BufferPool() {
+            @Override
+            public String getName() {
+                return "direct-pooled";
+            }
+            @Override
+            public long getCount() {
+                return leasedCount.get();
+            }
+            @Override
+            public long getTotalCapacity() {
+                return leasedCapacity.get();
+            }
+            @Override
+            public long getMemoryUsed() {
+                return poolMemory.get();
+            }
+        };
+    }
+}
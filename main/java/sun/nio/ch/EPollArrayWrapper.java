@@ -60,6 +60,7 @@ import java.util.Map;
 class EPollArrayWrapper {
     // EPOLL_EVENTS
     private static final int EPOLLIN      = 0x001;
+    private static final int EPOLLET      = 1 << 31;
 
     // opcodes
     private static final int EPOLL_CTL_ADD      = 1;
@@ -125,8 +126,17 @@ class EPollArrayWrapper {
     // descriptor is registered with epoll.
     private final BitSet registered = new BitSet();
 
+    // True if file descriptors are registered in edge-triggered mode
+    private final boolean edgeTriggered;
+
 
     EPollArrayWrapper() throws IOException {
+        this(false);
+    }
+
+    EPollArrayWrapper(boolean edgeTriggered) throws IOException {
+        this.edgeTriggered = edgeTriggered;
+
         // creates the epoll file descriptor
         epfd = epollCreate();
 
@@ -297,7 +307,12 @@ class EPollArrayWrapper {
                         opcode = (events != 0) ? EPOLL_CTL_ADD : 0;
                     }
                     if (opcode != 0) {
-                        epollCtl(epfd, opcode, fd, events);
+                        // the interrupt fd stays level-triggered as it is
+                        // registered by initInterrupt
+                        if (edgeTriggered && opcode != EPOLL_CTL_DEL)
+                            epollCtl(epfd, opcode, fd, events | EPOLLET);
+                        else
+                            epollCtl(epfd, opcode, fd, events);
                         if (opcode == EPOLL_CTL_ADD) {
                             registered.set(fd);
                         } else if (opcode == EPOLL_CTL_DEL) {
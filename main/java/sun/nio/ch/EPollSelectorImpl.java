@@ -35,6 +35,7 @@ import java.nio.channels.spi.SelectorProvider;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * An implementation of Selector for Linux 2.6+ kernels that uses
@@ -66,12 +67,24 @@ class EPollSelectorImpl
      * the abstract superclass Selector.
      */
     EPollSelectorImpl(SelectorProvider sp) throws IOException {
+        this(sp, false);
+    }
+
+    /**
+     * Creates a selector that registers its channels with epoll in
+     * edge-triggered mode if edgeTriggered is true. Readiness is then only
+     * reported when it changes, so a channel that is selected must be read
+     * or written until the operation would block.
+     */
+    EPollSelectorImpl(SelectorProvider sp, boolean edgeTriggered)
+        throws IOException
+    {
         super(sp);
         long pipeFds = IOUtil.makePipe(false);
         fd0 = (int) (pipeFds >>> 32);
         fd1 = (int) pipeFds;
         try {
-            pollWrapper = new EPollArrayWrapper();
+            pollWrapper = new EPollArrayWrapper(edgeTriggered);
             pollWrapper.initInterrupt(fd0, fd1);
             fdToKey = new HashMap<>();
         } catch (Throwable t) {
@@ -90,6 +103,13 @@ class EPollSelectorImpl
     }
 
     protected int doSelect(long timeout) throws IOException {
+        return doSelect(null, timeout);
+    }
+
+    @Override
+    protected int doSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
         if (closed)
             throw new ClosedSelectorException();
         processDeregisterQueue();
@@ -100,9 +120,9 @@ class EPollSelectorImpl
             end();
         }
         processDeregisterQueue();
-        int numKeysUpdated = updateSelectedKeys();
+        // Clear the wakeup pipe before the ready keys are processed, as an
+        // action may close this selector
         if (pollWrapper.interrupted()) {
-            // Clear the wakeup pipe
             pollWrapper.putEventOps(pollWrapper.interruptedIndex(), 0);
             synchronized (interruptLock) {
                 pollWrapper.clearInterrupted();
@@ -110,14 +130,15 @@ class EPollSelectorImpl
                 interruptTriggered = false;
             }
         }
-        return numKeysUpdated;
+        return updateSelectedKeys(action);
     }
 
     /**
      * Update the keys whose fd's have been selected by the epoll.
-     * Add the ready keys to the ready queue.
+     * Add the ready keys to the ready queue, or hand them to the action
+     * if there is one.
      */
-    private int updateSelectedKeys() {
+    private int updateSelectedKeys(Consumer<SelectionKey> action) {
         int entries = pollWrapper.updated;
         int numKeysUpdated = 0;
         for (int i=0; i<entries; i++) {
@@ -126,17 +147,7 @@ class EPollSelectorImpl
             // ski is null in the case of an interrupt
             if (ski != null) {
                 int rOps = pollWrapper.getEventOps(i);
-                if (selectedKeys.contains(ski)) {
-                    if (ski.channel.translateAndSetReadyOps(rOps, ski)) {
-                        numKeysUpdated++;
-                    }
-                } else {
-                    ski.channel.translateAndSetReadyOps(rOps, ski);
-                    if ((ski.nioReadyOps() & ski.nioInterestOps()) != 0) {
-                        selectedKeys.add(ski);
-                        numKeysUpdated++;
-                    }
-                }
+                numKeysUpdated += processReadyEvents(rOps, ski, action);
             }
         }
         return numKeysUpdated;
@@ -36,6 +36,10 @@ public class EPollSelectorProvider
         return new EPollSelectorImpl(this);
     }
 
+    AbstractSelector openSelector(boolean edgeTriggered) throws IOException {
+        return new EPollSelectorImpl(this, edgeTriggered);
+    }
+
     public Channel inheritedChannel() throws IOException {
         return InheritedChannel.getChannel();
     }
@@ -655,19 +655,32 @@ public class FileChannelImpl
 
     private static final int TRANSFER_SIZE = 8192;
 
+    // Size of the buffer used to transfer from a socket or pipe channel of
+    // this implementation; large enough to take a full socket receive
+    // buffer in a single read
+    private static final int TRUSTED_TRANSFER_SIZE = 64 * 1024;
+
     private long transferFromArbitraryChannel(ReadableByteChannel src,
                                               long position, long count)
         throws IOException
     {
-        // Untrusted target: Use a newly-erased buffer
-        int c = (int)Math.min(count, TRANSFER_SIZE);
+        // A selectable channel of this implementation only writes into the
+        // buffer, so the buffer need not be erased and can be larger.
+        // SelChImpl is a public interface, so the channel's class must be
+        // defined by the boot loader as well. Any other source gets a
+        // newly-erased buffer
+        boolean trusted = (src instanceof SelChImpl)
+            && src.getClass().getClassLoader() == null;
+        int size = trusted ? TRUSTED_TRANSFER_SIZE : TRANSFER_SIZE;
+        int c = (int)Math.min(count, size);
         ByteBuffer bb = Util.getTemporaryDirectBuffer(c);
         long tw = 0;                    // Total bytes written
         long pos = position;
         try {
-            Util.erase(bb);
+            if (!trusted)
+                Util.erase(bb);
             while (tw < count) {
-                bb.limit((int)Math.min((count - tw), (long)TRANSFER_SIZE));
+                bb.limit((int)Math.min((count - tw), (long)c));
                 // ## Bug: Will block reading src if this channel
                 // ##      is asynchronously closed
                 int nr = src.read(bb);
@@ -801,10 +814,10 @@ public class FileChannelImpl
 
         private volatile long address;
         private final long size;
-        private final int cap;
+        private final long cap;
         private final FileDescriptor fd;
 
-        private Unmapper(long address, long size, int cap,
+        private Unmapper(long address, long size, long cap,
                          FileDescriptor fd)
         {
             assert (address != 0);
@@ -921,25 +934,7 @@ public class FileChannelImpl
             int pagePosition = (int)(position % allocationGranularity);
             long mapPosition = position - pagePosition;
             long mapSize = size + pagePosition;
-            try {
-                // If no exception was thrown from map0, the address is valid
-                addr = map0(imode, mapPosition, mapSize);
-            } catch (OutOfMemoryError x) {
-                // An OutOfMemoryError may indicate that we've exhausted memory
-                // so force gc and re-attempt map
-                System.gc();
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException y) {
-                    Thread.currentThread().interrupt();
-                }
-                try {
-                    addr = map0(imode, mapPosition, mapSize);
-                } catch (OutOfMemoryError y) {
-                    // After a second OOME, fail
-                    throw new IOException("Map failed", y);
-                }
-            }
+            addr = mapWithRetry(imode, mapPosition, mapSize);
 
             // On Windows, and potentially other platforms, we need an open
             // file descriptor for some mapping operations.
@@ -972,6 +967,114 @@ public class FileChannelImpl
         }
     }
 
+    private long mapWithRetry(int imode, long mapPosition, long mapSize)
+        throws IOException
+    {
+        try {
+            // If no exception was thrown from map0, the address is valid
+            return map0(imode, mapPosition, mapSize);
+        } catch (OutOfMemoryError x) {
+            // An OutOfMemoryError may indicate that we've exhausted memory
+            // so force gc and re-attempt map
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException y) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                return map0(imode, mapPosition, mapSize);
+            } catch (OutOfMemoryError y) {
+                // After a second OOME, fail
+                throw new IOException("Map failed", y);
+            }
+        }
+    }
+
+    /**
+     * Maps a region of this channel's file into memory as a single mapping
+     * that is not limited to Integer.MAX_VALUE bytes. Invoked by
+     * MappedRegion.map; the mapping is accounted for in the "mapped" buffer
+     * pool and released when the region is closed.
+     */
+    MappedRegion mapRegion(MapMode mode, long position, long size)
+        throws IOException
+    {
+        ensureOpen();
+        if (mode == null)
+            throw new NullPointerException("Mode is null");
+        if (position < 0L)
+            throw new IllegalArgumentException("Negative position");
+        if (size <= 0L)
+            throw new IllegalArgumentException("Size is not positive");
+        if (position + size < 0)
+            throw new IllegalArgumentException("Position + size overflow");
+
+        int imode = -1;
+        if (mode == MapMode.READ_ONLY)
+            imode = MAP_RO;
+        else if (mode == MapMode.READ_WRITE)
+            imode = MAP_RW;
+        else if (mode == MapMode.PRIVATE)
+            imode = MAP_PV;
+        assert (imode >= 0);
+        if ((mode != MapMode.READ_ONLY) && !writable)
+            throw new NonWritableChannelException();
+        if (!readable)
+            throw new NonReadableChannelException();
+
+        long addr = -1;
+        int ti = -1;
+        try {
+            begin();
+            ti = threads.add();
+            if (!isOpen())
+                return null;
+
+            long filesize;
+            do {
+                filesize = nd.size(fd);
+            } while ((filesize == IOStatus.INTERRUPTED) && isOpen());
+            if (!isOpen())
+                return null;
+
+            if (filesize < position + size) { // Extend file size
+                if (!writable) {
+                    throw new IOException("Channel not open for writing " +
+                        "- cannot extend file to required size");
+                }
+                int rv;
+                do {
+                    rv = nd.truncate(fd, position + size);
+                } while ((rv == IOStatus.INTERRUPTED) && isOpen());
+                if (!isOpen())
+                    return null;
+            }
+
+            int pagePosition = (int)(position % allocationGranularity);
+            long mapPosition = position - pagePosition;
+            long mapSize = size + pagePosition;
+            addr = mapWithRetry(imode, mapPosition, mapSize);
+
+            FileDescriptor mfd;
+            try {
+                mfd = nd.duplicateForMapping(fd);
+            } catch (IOException ioe) {
+                unmap0(addr, mapSize);
+                throw ioe;
+            }
+
+            assert (IOStatus.checkAll(addr));
+            assert (addr % allocationGranularity == 0);
+            Unmapper um = new Unmapper(addr, mapSize, size, mfd);
+            return new MappedRegion(addr + pagePosition, size, mfd,
+                                    (imode != MAP_RO) && writable, um);
+        } finally {
+            threads.remove(ti);
+            end(IOStatus.checkAll(addr));
+        }
+    }
+
     /**
      * Invoked by sun.management.ManagementFactoryHelper to create the management
      * interface for mapped buffers.
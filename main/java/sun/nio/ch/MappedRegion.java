@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import sun.misc.Cleaner;
+import sun.misc.Unsafe;
+
+/**
+ * A region of a file that is mapped into memory as one mapping and indexed
+ * with {@code long} offsets, so that it is not limited to the 2GB of a
+ * {@link MappedByteBuffer}.
+ *
+ * <p> The mapping is released by {@link #close}, deterministically, rather
+ * than when the garbage collector finds the region unreachable (which it
+ * still does as a fallback for regions that are never closed). Closing
+ * waits for accesses in progress in other threads to complete; any access
+ * after the region is closed fails with {@link IllegalStateException}.
+ * Every access pays for an atomic update of the usage count, so the bulk
+ * methods should be preferred for throughput.
+ *
+ * <p> {@link #load(long,long)} and {@link #isLoaded(long,long)} apply to
+ * ranges of the region. An {@link AccessHint} tells the region how it is
+ * going to be read: with {@link AccessHint#SEQUENTIAL} the window after the
+ * one being read is loaded ahead of the reader by a background thread.
+ *
+ * <p> Multi-byte values are read and written in the region's byte order,
+ * which is initially {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.
+ */
+public final class MappedRegion implements Closeable {
+
+    /**
+     * How the region is going to be accessed.
+     */
+    public static enum AccessHint {
+        /** No particular access pattern; nothing is loaded ahead. */
+        NORMAL,
+        /** The region is read front to back; the next window is loaded ahead. */
+        SEQUENTIAL,
+        /** The region is read at random; nothing is loaded ahead. */
+        RANDOM
+    }
+
+    private static final Unsafe unsafe = Unsafe.getUnsafe();
+
+    private static final long arrayBaseOffset =
+        (long)unsafe.arrayBaseOffset(byte[].class);
+
+    // Bulk copies are split so that safepoint polls are not delayed too long
+    private static final long UNSAFE_COPY_THRESHOLD = 1024L * 1024L;
+
+    // The largest range covered by one buffer view (load, isLoaded, force)
+    private static final long VIEW_SIZE = 1L << 30;
+
+    // The size of the window loaded ahead of a sequential reader
+    private static final int PREFETCH_SHIFT = 24;
+
+    private static final boolean nativeBigEndian =
+        (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
+
+    // address of the first byte of the region, and its size
+    private final long address;
+    private final long size;
+    private final FileDescriptor fd;
+    private final boolean writable;
+    private final Cleaner cleaner;
+
+    // number of accesses in progress, or -1 once the region is closed
+    private final AtomicInteger users = new AtomicInteger();
+
+    private volatile AccessHint hint = AccessHint.NORMAL;
+
+    // the last window loaded ahead of a sequential reader
+    private volatile long prefetched = -1L;
+
+    private boolean bigEndian = true;
+
+    MappedRegion(long address, long size, FileDescriptor fd,
+                 boolean writable, Runnable unmapper)
+    {
+        this.address = address;
+        this.size = size;
+        this.fd = fd;
+        this.writable = writable;
+        this.cleaner = Cleaner.create(this, unmapper);
+    }
+
+    /**
+     * Maps a region of the file of the given channel into memory.
+     *
+     * @param  ch        a file channel opened by the platform's default
+     *                   file system provider
+     * @param  mode      the mapping mode, as for {@link FileChannel#map}
+     * @param  position  the position within the file at which the region
+     *                   starts; must be non-negative
+     * @param  size      the size of the region; must be positive
+     *
+     * @return  the mapped region
+     *
+     * @throws  IllegalArgumentException
+     *          if the channel is not a platform file channel, or the
+     *          preconditions on the parameters do not hold
+     * @throws  IOException
+     *          if some other I/O error occurs, as for {@link FileChannel#map}
+     */
+    public static MappedRegion map(FileChannel ch, MapMode mode,
+                                   long position, long size)
+        throws IOException
+    {
+        if (!(ch instanceof FileChannelImpl))
+            throw new IllegalArgumentException("Not a platform file channel");
+        MappedRegion region =
+            ((FileChannelImpl)ch).mapRegion(mode, position, size);
+        if (region == null)
+            throw new java.nio.channels.ClosedChannelException();
+        return region;
+    }
+
+    /**
+     * Returns the size of this region.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the byte order used for multi-byte values.
+     */
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Sets the byte order used for multi-byte values.
+     */
+    public MappedRegion order(ByteOrder bo) {
+        bigEndian = (bo == ByteOrder.BIG_ENDIAN);
+        return this;
+    }
+
+    /**
+     * Tells the region how it is going to be accessed.
+     */
+    public void setAccessHint(AccessHint hint) {
+        if (hint == null)
+            throw new NullPointerException();
+        this.hint = hint;
+        this.prefetched = -1L;
+    }
+
+    // -- Access control --
+
+    private void acquire() {
+        for (;;) {
+            int n = users.get();
+            if (n < 0)
+                throw new IllegalStateException("Region closed");
+            if (users.compareAndSet(n, n + 1))
+                return;
+        }
+    }
+
+    private void release() {
+        users.decrementAndGet();
+    }
+
+    private long checkIndex(long index, long len) {
+        if (index < 0 || len < 0 || index > size - len)
+            throw new IndexOutOfBoundsException("Index: " + index +
+                                                ", length: " + len);
+        if (hint == AccessHint.SEQUENTIAL)
+            prefetchAfter(index);
+        return address + index;
+    }
+
+    private void checkWritable() {
+        if (!writable)
+            throw new ReadOnlyBufferException();
+    }
+
+    /**
+     * Unmaps the region. Waits for accesses in progress in other threads
+     * to complete. Invoking this method on a closed region has no effect.
+     */
+    public void close() {
+        for (;;) {
+            int n = users.get();
+            if (n < 0)
+                return;
+            if (n == 0 && users.compareAndSet(0, -1))
+                break;
+            Thread.yield();
+        }
+        cleaner.clean();
+    }
+
+    // -- Single values --
+
+    public byte get(long index) {
+        acquire();
+        try {
+            return unsafe.getByte(checkIndex(index, 1));
+        } finally {
+            release();
+        }
+    }
+
+    public void put(long index, byte b) {
+        checkWritable();
+        acquire();
+        try {
+            unsafe.putByte(checkIndex(index, 1), b);
+        } finally {
+            release();
+        }
+    }
+
+    public int getInt(long index) {
+        acquire();
+        try {
+            long a = checkIndex(index, 4);
+            int x;
+            if ((a & 3) == 0) {
+                x = unsafe.getInt(a);
+                if (bigEndian != nativeBigEndian)
+                    x = Integer.reverseBytes(x);
+            } else {
+                x = 0;
+                for (int i = 0; i < 4; i++)
+                    x = (x << 8) | (unsafe.getByte(a + byteIndex(i, 4)) & 0xff);
+            }
+            return x;
+        } finally {
+            release();
+        }
+    }
+
+    public void putInt(long index, int value) {
+        checkWritable();
+        acquire();
+        try {
+            long a = checkIndex(index, 4);
+            if ((a & 3) == 0) {
+                if (bigEndian != nativeBigEndian)
+                    value = Integer.reverseBytes(value);
+                unsafe.putInt(a, value);
+            } else {
+                for (int i = 3; i >= 0; i--) {
+                    unsafe.putByte(a + byteIndex(i, 4), (byte)value);
+                    value >>>= 8;
+                }
+            }
+        } finally {
+            release();
+        }
+    }
+
+    public long getLong(long index) {
+        acquire();
+        try {
+            long a = checkIndex(index, 8);
+            long x;
+            if ((a & 7) == 0) {
+                x = unsafe.getLong(a);
+                if (bigEndian != nativeBigEndian)
+                    x = Long.reverseBytes(x);
+            } else {
+                x = 0;
+                for (int i = 0; i < 8; i++)
+                    x = (x << 8) | (unsafe.getByte(a + byteIndex(i, 8)) & 0xffL);
+            }
+            return x;
+        } finally {
+            release();
+        }
+    }
+
+    public void putLong(long index, long value) {
+        checkWritable();
+        acquire();
+        try {
+            long a = checkIndex(index, 8);
+            if ((a & 7) == 0) {
+                if (bigEndian != nativeBigEndian)
+                    value = Long.reverseBytes(value);
+                unsafe.putLong(a, value);
+            } else {
+                for (int i = 7; i >= 0; i--) {
+                    unsafe.putByte(a + byteIndex(i, 8), (byte)value);
+                    value >>>= 8;
+                }
+            }
+        } finally {
+            release();
+        }
+    }
+
+    // Offset of the i-th most significant byte of a value of n bytes
+    private int byteIndex(int i, int n) {
+        return bigEndian ? i : (n - 1 - i);
+    }
+
+    // -- Bulk transfers --
+
+    /**
+     * Copies {@code len} bytes starting at {@code index} into the given
+     * array.
+     */
+    public void get(long index, byte[] dst, int off, int len) {
+        if (off < 0 || len < 0 || off > dst.length - len)
+            throw new IndexOutOfBoundsException();
+        acquire();
+        try {
+            copy(null, checkIndex(index, len),
+                 dst, arrayBaseOffset + off, len);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Copies {@code len} bytes of the given array into the region, starting
+     * at {@code index}.
+     */
+    public void put(long index, byte[] src, int off, int len) {
+        checkWritable();
+        if (off < 0 || len < 0 || off > src.length - len)
+            throw new IndexOutOfBoundsException();
+        acquire();
+        try {
+            copy(src, arrayBaseOffset + off,
+                 null, checkIndex(index, len), len);
+        } finally {
+            release();
+        }
+    }
+
+    private static void copy(Object src, long srcOffset,
+                             Object dst, long dstOffset, long len)
+    {
+        while (len > 0) {
+            long n = Math.min(len, UNSAFE_COPY_THRESHOLD);
+            unsafe.copyMemory(src, srcOffset, dst, dstOffset, n);
+            srcOffset += n;
+            dstOffset += n;
+            len -= n;
+        }
+    }
+
+    // -- Paging --
+
+    // A buffer over part of the region that shares the mapping but has no
+    // cleaner of its own, used for the page-level operations of
+    // MappedByteBuffer
+    private MappedByteBuffer view(long index, long len) {
+        assert len <= VIEW_SIZE;
+        if (writable)
+            return Util.newMappedByteBuffer((int)len, address + index, fd, null);
+        return Util.newMappedByteBufferR((int)len, address + index, fd, null);
+    }
+
+    /**
+     * Makes a best effort to load the given range of the region into
+     * physical memory, as {@link MappedByteBuffer#load} does for a buffer.
+     */
+    public void load(long index, long len) {
+        acquire();
+        try {
+            checkRange(index, len);
+            for (long n; len > 0; index += n, len -= n) {
+                n = Math.min(len, VIEW_SIZE);
+                view(index, n).load();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Tells whether the given range of the region is likely to be resident
+     * in physical memory, as {@link MappedByteBuffer#isLoaded} does for a
+     * buffer.
+     */
+    public boolean isLoaded(long index, long len) {
+        acquire();
+        try {
+            checkRange(index, len);
+            for (long n; len > 0; index += n, len -= n) {
+                n = Math.min(len, VIEW_SIZE);
+                if (!view(index, n).isLoaded())
+                    return false;
+            }
+            return true;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Forces changes made to the region to be written to the storage
+     * device, as {@link MappedByteBuffer#force} does for a buffer.
+     */
+    public void force() {
+        acquire();
+        try {
+            if (!writable)
+                return;
+            long index = 0;
+            for (long n, len = size; len > 0; index += n, len -= n) {
+                n = Math.min(len, VIEW_SIZE);
+                view(index, n).force();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    private void checkRange(long index, long len) {
+        if (index < 0 || len < 0 || index > size - len)
+            throw new IndexOutOfBoundsException("Index: " + index +
+                                                ", length: " + len);
+    }
+
+    // -- Read-ahead for sequential access --
+
+    private static class PrefetcherHolder {
+        static final ExecutorService prefetcher =
+            Executors.newSingleThreadExecutor(ThreadPool.defaultThreadFactory());
+    }
+
+    // Loads the window after the one that contains index, once per window
+    private void prefetchAfter(long index) {
+        final long window = (index >>> PREFETCH_SHIFT) + 1;
+        if (window == prefetched)
+            return;
+        prefetched = window;
+        final long start = window << PREFETCH_SHIFT;
+        if (start >= size)
+            return;
+        try {
+            PrefetcherHolder.prefetcher.execute(new Runnable() {
+                public void run() {
+                    try {
+                        load(start, Math.min(1L << PREFETCH_SHIFT, size - start));
+                    } catch (IllegalStateException closed) {
+                        // region closed before the window could be loaded
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ignore) { }
+    }
+}
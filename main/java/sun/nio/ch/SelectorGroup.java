@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A group of selectors, each owned by one event loop thread, over which
+ * channels are spread so that no single selector or thread limits the
+ * number of connections that can be served.
+ *
+ * <p> A channel is registered with the group together with a {@link
+ * Handler}. The group picks the event loop with the fewest registered
+ * channels and the channel stays with that loop until its key is
+ * cancelled. The handler is invoked on the loop thread for each selection
+ * of the key, and it may change the key's interest set or cancel it. If
+ * the handler throws an exception, the channel is closed and the exception
+ * is passed to the uncaught exception handler of the loop thread. If the
+ * handler throws an error, the error terminates the loop and its selector
+ * is closed.
+ *
+ * <p> Registrations are queued and performed by the loop thread between two
+ * selection operations, so registering never waits for a selection in
+ * progress, and a burst of registrations costs a single wakeup.
+ *
+ * <p> Selectors of the default provider on Linux can be opened in
+ * edge-triggered mode, in which a key is only selected when the readiness
+ * of its channel changes. Handlers must then read or write until the
+ * operation would block.
+ */
+public class SelectorGroup implements Closeable {
+
+    /**
+     * Handles the selection of a key, on the thread of its event loop.
+     */
+    public interface Handler {
+        void handle(SelectionKey key) throws IOException;
+    }
+
+    private final EventLoop[] loops;
+    private volatile boolean closed;
+
+    /**
+     * Opens a group of the given number of event loops, with threads from
+     * the given factory or daemon threads if the factory is null.
+     *
+     * @throws UnsupportedOperationException if edgeTriggered is true and
+     *         the default selector provider does not support it
+     */
+    public SelectorGroup(int nLoops, boolean edgeTriggered,
+                         ThreadFactory factory)
+        throws IOException
+    {
+        if (nLoops <= 0)
+            throw new IllegalArgumentException("'nLoops' must be > 0");
+        if (factory == null)
+            factory = ThreadPool.defaultThreadFactory();
+        loops = new EventLoop[nLoops];
+        try {
+            for (int i = 0; i < nLoops; i++)
+                loops[i] = new EventLoop(openSelector(edgeTriggered));
+        } catch (IOException | RuntimeException e) {
+            for (EventLoop loop : loops) {
+                if (loop != null) {
+                    try {
+                        loop.selector.close();
+                    } catch (IOException x) {
+                        e.addSuppressed(x);
+                    }
+                }
+            }
+            throw e;
+        }
+        for (EventLoop loop : loops) {
+            Thread t = factory.newThread(loop);
+            loop.thread = t;
+            t.start();
+        }
+    }
+
+    /**
+     * Opens a group with one level-triggered event loop per processor.
+     */
+    public static SelectorGroup open() throws IOException {
+        return new SelectorGroup(Runtime.getRuntime().availableProcessors(),
+                                 false, null);
+    }
+
+    private static Selector openSelector(boolean edgeTriggered)
+        throws IOException
+    {
+        SelectorProvider sp = SelectorProvider.provider();
+        if (sp instanceof SelectorProviderImpl)
+            return ((SelectorProviderImpl)sp).openSelector(edgeTriggered);
+        if (edgeTriggered)
+            throw new UnsupportedOperationException(
+                "Edge-triggered selection not supported");
+        return sp.openSelector();
+    }
+
+    /**
+     * Returns the number of event loops.
+     */
+    public int size() {
+        return loops.length;
+    }
+
+    /**
+     * Registers a non-blocking channel with the least loaded event loop.
+     * The returned future is completed with the selection key, whose
+     * attachment is the handler, once the loop has performed the
+     * registration, or exceptionally if the registration fails.
+     *
+     * @throws IllegalBlockingModeException if the channel is in blocking mode
+     * @throws ClosedSelectorException if the group is closed
+     */
+    public CompletableFuture<SelectionKey> register(SelectableChannel ch,
+                                                    int ops,
+                                                    Handler handler)
+    {
+        if (handler == null)
+            throw new NullPointerException();
+        if (ch.isBlocking())
+            throw new IllegalBlockingModeException();
+        if (closed)
+            throw new ClosedSelectorException();
+        EventLoop target = loops[0];
+        for (int i = 1; i < loops.length; i++) {
+            if (loops[i].load < target.load)
+                target = loops[i];
+        }
+        Registration r = new Registration(ch, ops, handler);
+        target.submit(r);
+        return r.future;
+    }
+
+    /**
+     * Closes the group: the event loops stop, their selectors are closed
+     * and the registered channels are deregistered. Unless invoked from an
+     * event loop thread, this method waits for the loops to terminate.
+     */
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        for (EventLoop loop : loops)
+            loop.selector.wakeup();
+        boolean interrupted = false;
+        for (EventLoop loop : loops) {
+            if (loop.thread == Thread.currentThread())
+                continue;
+            while (loop.thread.isAlive()) {
+                try {
+                    loop.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private static final class Registration {
+        final SelectableChannel ch;
+        final int ops;
+        final Handler handler;
+        final CompletableFuture<SelectionKey> future =
+            new CompletableFuture<>();
+
+        Registration(SelectableChannel ch, int ops, Handler handler) {
+            this.ch = ch;
+            this.ops = ops;
+            this.handler = handler;
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+        final Selector selector;
+        final ConcurrentLinkedQueue<Registration> pending =
+            new ConcurrentLinkedQueue<>();
+        // true if the selector has been woken up for pending registrations
+        final AtomicBoolean wakeupNeeded = new AtomicBoolean();
+        // number of keys, as last seen by the loop thread
+        volatile int load;
+        // true once the loop has stopped and no longer takes registrations
+        volatile boolean terminated;
+        Thread thread;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void submit(Registration r) {
+            pending.add(r);
+            load++;     // racy, only a hint until the loop updates it
+            if (wakeupNeeded.compareAndSet(false, true))
+                selector.wakeup();
+            if (terminated)
+                failPending();
+        }
+
+        private void failPending() {
+            Registration r;
+            while ((r = pending.poll()) != null)
+                r.future.completeExceptionally(new ClosedSelectorException());
+        }
+
+        private void processRegistrations() {
+            wakeupNeeded.set(false);
+            Registration r;
+            while ((r = pending.poll()) != null) {
+                try {
+                    SelectionKey key = r.ch.register(selector, r.ops,
+                                                     r.handler);
+                    r.future.complete(key);
+                } catch (Throwable x) {
+                    r.future.completeExceptionally(x);
+                }
+            }
+        }
+
+        private void dispatch(SelectionKey key) {
+            if (!key.isValid())
+                return;
+            Handler handler = (Handler)key.attachment();
+            try {
+                handler.handle(key);
+            } catch (Exception x) {
+                // Errors terminate the loop
+                try {
+                    key.channel().close();
+                } catch (IOException ignore) { }
+                Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, x);
+            }
+        }
+
+        public void run() {
+            try {
+                while (!closed) {
+                    processRegistrations();
+                    selector.select(this::dispatch);
+                    load = selector.keys().size();
+                }
+            } catch (IOException | ClosedSelectorException x) {
+                // the loop cannot continue
+            } finally {
+                try {
+                    selector.close();
+                } catch (IOException ignore) { }
+                terminated = true;
+                failPending();
+            }
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.nio.channels.*;
 import java.nio.channels.spi.*;
 import java.net.SocketException;
 import java.util.*;
+import java.util.function.Consumer;
 
 
 /**
@@ -105,6 +106,97 @@ public abstract class SelectorImpl
         return lockAndDoSelect(0);
     }
 
+    /**
+     * Selects, invoking the action for each ready key rather than adding the
+     * keys to the selected-key set.  Invoked while synchronized on this
+     * selector, its key set and its selected-key set.  The default
+     * implementation selects into the selected-key set and then drains it
+     * to the action; subclasses override this method to hand ready keys to
+     * the action directly, using processReadyEvents.
+     */
+    protected int doSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        selectedKeys.clear();
+        int numKeysSelected = doSelect(timeout);
+        SelectionKey[] keysToConsume =
+            selectedKeys.toArray(new SelectionKey[0]);
+        selectedKeys.clear();
+        for (SelectionKey k : keysToConsume) {
+            action.accept(k);
+            if (!isOpen())
+                throw new ClosedSelectorException();
+        }
+        return numKeysSelected;
+    }
+
+    private int lockAndDoSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        synchronized (this) {
+            if (!isOpen())
+                throw new ClosedSelectorException();
+            synchronized (publicKeys) {
+                synchronized (publicSelectedKeys) {
+                    return doSelect(action, timeout);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int select(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        Objects.requireNonNull(action);
+        if (timeout < 0)
+            throw new IllegalArgumentException("Negative timeout");
+        return lockAndDoSelect(action, (timeout == 0) ? -1 : timeout);
+    }
+
+    @Override
+    public int selectNow(Consumer<SelectionKey> action) throws IOException {
+        Objects.requireNonNull(action);
+        return lockAndDoSelect(action, 0);
+    }
+
+    /**
+     * Invoked by doSelect to process the ready operations of a key.  If the
+     * action is null then the key is added to the selected-key set, or its
+     * ready set is updated if it is already there.  Otherwise the action is
+     * invoked if the key is ready for an operation in its interest set.
+     * Returns 1 if the key was selected or consumed, 0 otherwise.
+     *
+     * @throws ClosedSelectorException if the action closed this selector
+     */
+    protected final int processReadyEvents(int rOps,
+                                           SelectionKeyImpl ski,
+                                           Consumer<SelectionKey> action)
+    {
+        if (action != null) {
+            ski.channel.translateAndSetReadyOps(rOps, ski);
+            if ((ski.nioReadyOps() & ski.nioInterestOps()) != 0) {
+                action.accept(ski);
+                if (!isOpen())
+                    throw new ClosedSelectorException();
+                return 1;
+            }
+        } else {
+            if (selectedKeys.contains(ski)) {
+                if (ski.channel.translateAndUpdateReadyOps(rOps, ski)) {
+                    return 1;
+                }
+            } else {
+                ski.channel.translateAndSetReadyOps(rOps, ski);
+                if ((ski.nioReadyOps() & ski.nioInterestOps()) != 0) {
+                    selectedKeys.add(ski);
+                    return 1;
+                }
+            }
+        }
+        return 0;
+    }
+
     public void implCloseSelector() throws IOException {
         wakeup();
         synchronized (this) {
@@ -52,6 +52,19 @@ public abstract class SelectorProviderImpl
 
     public abstract AbstractSelector openSelector() throws IOException;
 
+    /**
+     * Opens a selector, in edge-triggered mode if requested and supported.
+     *
+     * @throws UnsupportedOperationException if edgeTriggered is true and
+     *         this provider's selectors do not support edge-triggered mode
+     */
+    AbstractSelector openSelector(boolean edgeTriggered) throws IOException {
+        if (edgeTriggered)
+            throw new UnsupportedOperationException(
+                "Edge-triggered selection not supported");
+        return openSelector();
+    }
+
     public ServerSocketChannel openServerSocketChannel() throws IOException {
         return new ServerSocketChannelImpl(this);
     }
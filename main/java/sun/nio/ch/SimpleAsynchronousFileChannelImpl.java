@@ -26,12 +26,17 @@
 package sun.nio.ch;
 
 import java.nio.channels.*;
+import java.util.Arrays;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.nio.ByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.io.FileDescriptor;
 import java.io.IOException;
+import sun.security.action.GetIntegerAction;
 
 /**
  * "Portable" implementation of AsynchronousFileChannel for use on operating
@@ -54,12 +59,35 @@ public class SimpleAsynchronousFileChannelImpl
     private final NativeThreadSet threads = new NativeThreadSet(2);
 
 
+    // Maximum number of threads performing reads and writes for a channel,
+    // if set; by default it is the maximum size of the thread pool, so
+    // that the number of reads and writes in flight is only limited by
+    // the threads available to perform them
+    private static final int MAX_IO_WORKERS = AccessController.doPrivileged(
+        new GetIntegerAction("sun.nio.ch.maxAsyncFileIOWorkers", 0));
+
+    // Pending reads and writes, performed by at most maxWorkers tasks of
+    // the executor at any time
+    private final ConcurrentLinkedQueue<IORequest> requests =
+        new ConcurrentLinkedQueue<>();
+
+    // Number of worker tasks submitted to the executor, and its maximum
+    private final AtomicInteger workers = new AtomicInteger();
+    private final int maxWorkers;
+
     SimpleAsynchronousFileChannelImpl(FileDescriptor fdObj,
                                       boolean reading,
                                       boolean writing,
                                       ExecutorService executor)
     {
         super(fdObj, reading, writing, executor);
+        if (MAX_IO_WORKERS > 0) {
+            maxWorkers = MAX_IO_WORKERS;
+        } else if (executor instanceof ThreadPoolExecutor) {
+            maxWorkers = ((ThreadPoolExecutor)executor).getMaximumPoolSize();
+        } else {
+            maxWorkers = Integer.MAX_VALUE;
+        }
     }
 
     public static AsynchronousFileChannel open(FileDescriptor fdo,
@@ -73,6 +101,122 @@ public class SimpleAsynchronousFileChannelImpl
         return new SimpleAsynchronousFileChannelImpl(fdo, reading, writing, executor);
     }
 
+    /**
+     * A read or write, performed by a worker. The result is delivered by
+     * complete, which is invoked once perform has returned, or by fail if
+     * the request cannot be performed.
+     */
+    private static abstract class IORequest {
+        abstract void perform();
+        abstract void complete();
+        abstract void fail(Throwable exc);
+    }
+
+    /**
+     * Queues a request and starts a worker to perform it, unless the
+     * maximum number of workers is already running. If the worker is
+     * rejected by the executor, the request is dequeued again.
+     */
+    private void submit(IORequest request) {
+        requests.add(request);
+        try {
+            startWorkerIfNeeded();
+        } catch (RejectedExecutionException x) {
+            // if another worker took the request already, it is performed
+            boolean queued = requests.remove(request);
+            failQueuedIfNoWorkers(x);
+            if (queued)
+                throw x;
+        }
+    }
+
+    /**
+     * Fails the queued requests with the given rejection if no worker is
+     * running, as they would otherwise never be performed.
+     */
+    private void failQueuedIfNoWorkers(RejectedExecutionException x) {
+        if (workers.get() == 0) {
+            IORequest request;
+            while ((request = requests.poll()) != null)
+                request.fail(x);
+        }
+    }
+
+    private boolean tryAddWorker() {
+        int n;
+        do {
+            n = workers.get();
+            if (n >= maxWorkers)
+                return false;
+        } while (!workers.compareAndSet(n, n + 1));
+        return true;
+    }
+
+    private void startWorkerIfNeeded() {
+        if (!requests.isEmpty() && tryAddWorker()) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException x) {
+                workers.decrementAndGet();
+                throw x;
+            }
+        }
+    }
+
+    // Performs queued requests until the queue is empty. The worker gives
+    // up its place while a result is delivered, so that a handler which
+    // waits for another request on this channel does not starve it. The
+    // place is given up as well if perform or complete throws.
+    private final Runnable worker = new Runnable() {
+        public void run() {
+            boolean counted = true;     // this worker holds a place
+            Throwable exc = null;
+            try {
+                IORequest request;
+                while ((request = requests.poll()) != null) {
+                    try {
+                        request.perform();
+                    } finally {
+                        counted = false;
+                        workers.decrementAndGet();
+                    }
+                    try {
+                        startWorkerIfNeeded();
+                    } catch (RejectedExecutionException ignore) {
+                        // this worker performs the queued requests itself
+                        // if it gets its place back, and otherwise the
+                        // workers that hold the places do
+                    }
+                    request.complete();
+                    if (!tryAddWorker())
+                        return;
+                    counted = true;
+                }
+            } catch (RuntimeException | Error x) {
+                exc = x;
+            } finally {
+                if (counted)
+                    workers.decrementAndGet();
+                // a request may have been queued after the queue was found
+                // empty, or this worker may be ending early
+                try {
+                    startWorkerIfNeeded();
+                } catch (RejectedExecutionException x) {
+                    failQueuedIfNoWorkers(x);
+                    if (exc == null) {
+                        exc = x;
+                    } else {
+                        exc.addSuppressed(x);
+                    }
+                }
+            }
+            if (exc instanceof RuntimeException)
+                throw (RuntimeException)exc;
+            if (exc instanceof Error)
+                throw (Error)exc;
+        }
+    };
+
     @Override
     public void close() throws IOException {
         // mark channel as closed
@@ -308,10 +452,14 @@ public class SimpleAsynchronousFileChannelImpl
 
         final PendingFuture<Integer,A> result = (handler == null) ?
             new PendingFuture<Integer,A>(this) : null;
-        Runnable task = new Runnable() {
-            public void run() {
-                int n = 0;
-                Throwable exc = null;
+        IORequest request = new IORequest() {
+            int n = 0;
+            Throwable exc = null;
+
+            void perform() {
+                // nothing to do if the result is no longer wanted
+                if (result != null && result.isCancelled())
+                    return;
 
                 int ti = threads.add();
                 try {
@@ -329,14 +477,22 @@ public class SimpleAsynchronousFileChannelImpl
                     end();
                     threads.remove(ti);
                 }
+            }
+
+            void complete() {
                 if (handler == null) {
                     result.setResult(n, exc);
                 } else {
                     Invoker.invokeUnchecked(handler, attachment, n, exc);
                 }
             }
+
+            void fail(Throwable x) {
+                exc = x;
+                complete();
+            }
         };
-        executor.execute(task);
+        submit(request);
         return result;
     }
 
@@ -362,10 +518,14 @@ public class SimpleAsynchronousFileChannelImpl
 
         final PendingFuture<Integer,A> result = (handler == null) ?
             new PendingFuture<Integer,A>(this) : null;
-        Runnable task = new Runnable() {
-            public void run() {
-                int n = 0;
-                Throwable exc = null;
+        IORequest request = new IORequest() {
+            int n = 0;
+            Throwable exc = null;
+
+            void perform() {
+                // nothing to do if the result is no longer wanted
+                if (result != null && result.isCancelled())
+                    return;
 
                 int ti = threads.add();
                 try {
@@ -383,14 +543,324 @@ public class SimpleAsynchronousFileChannelImpl
                     end();
                     threads.remove(ti);
                 }
+            }
+
+            void complete() {
                 if (handler == null) {
                     result.setResult(n, exc);
                 } else {
                     Invoker.invokeUnchecked(handler, attachment, n, exc);
                 }
             }
+
+            void fail(Throwable x) {
+                exc = x;
+                complete();
+            }
         };
-        executor.execute(task);
+        submit(request);
         return result;
     }
+
+    // -- batched reads and writes --
+
+    // Largest run of adjacent transfers combined into one read or write
+    private static final int MAX_COALESCED_SIZE = 256 * 1024;
+
+    @Override
+    public Future<Long> read(ByteBuffer[] dsts, long[] positions) {
+        return implBatch(false, dsts, positions, null, null);
+    }
+
+    @Override
+    public <A> void read(ByteBuffer[] dsts,
+                         long[] positions,
+                         A attachment,
+                         CompletionHandler<Long,? super A> handler)
+    {
+        if (handler == null)
+            throw new NullPointerException("'handler' is null");
+        implBatch(false, dsts, positions, attachment, handler);
+    }
+
+    @Override
+    public Future<Long> write(ByteBuffer[] srcs, long[] positions) {
+        return implBatch(true, srcs, positions, null, null);
+    }
+
+    @Override
+    public <A> void write(ByteBuffer[] srcs,
+                          long[] positions,
+                          A attachment,
+                          CompletionHandler<Long,? super A> handler)
+    {
+        if (handler == null)
+            throw new NullPointerException("'handler' is null");
+        implBatch(true, srcs, positions, attachment, handler);
+    }
+
+    /**
+     * Performs a batch of reads or writes. The transfers are sorted by file
+     * position and runs of transfers of adjacent file regions are combined;
+     * each run is then a request of its own, so that the runs are performed
+     * by as many workers as the channel may use. The result is delivered
+     * once the last run has completed.
+     */
+    private <A> Future<Long> implBatch(final boolean write,
+                                       final ByteBuffer[] bufs,
+                                       final long[] positions,
+                                       final A attachment,
+                                       final CompletionHandler<Long,? super A> handler)
+    {
+        if (bufs.length != positions.length)
+            throw new IllegalArgumentException("Arrays of different lengths");
+        for (int i = 0; i < bufs.length; i++) {
+            if (positions[i] < 0)
+                throw new IllegalArgumentException("Negative position");
+            if (!write && bufs[i].isReadOnly())
+                throw new IllegalArgumentException("Read-only buffer");
+        }
+        if (write && !writing)
+            throw new NonWritableChannelException();
+        if (!write && !reading)
+            throw new NonReadableChannelException();
+
+        // complete immediately if channel is closed
+        if (!isOpen()) {
+            Throwable exc = new ClosedChannelException();
+            if (handler == null)
+                return CompletedFuture.withResult(0L, exc);
+            Invoker.invokeIndirectly(handler, attachment, 0L, exc, executor);
+            return null;
+        }
+
+        final Integer[] order = sortedOrder(positions);
+        final int[] runs = runs(bufs, positions, order);
+        if (runs.length == 1) {
+            // nothing to transfer
+            if (handler == null)
+                return CompletedFuture.withResult(0L);
+            Invoker.invokeIndirectly(handler, attachment, 0L, null, executor);
+            return null;
+        }
+
+        final PendingFuture<Long,A> result = (handler == null) ?
+            new PendingFuture<Long,A>(this) : null;
+        final AtomicInteger pending = new AtomicInteger(runs.length - 1);
+        final AtomicLong total = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // delivers the result once the last run has completed
+        final Runnable runDone = new Runnable() {
+            public void run() {
+                if (pending.decrementAndGet() != 0)
+                    return;
+                long n = total.get();
+                Throwable exc = failure.get();
+                if (handler == null) {
+                    result.setResult(n, exc);
+                } else {
+                    Invoker.invokeUnchecked(handler, attachment, n, exc);
+                }
+            }
+        };
+        for (int r = 0; r < runs.length - 1; r++) {
+            final int from = runs[r];
+            final int to = runs[r + 1];
+            IORequest request = new IORequest() {
+                void perform() {
+                    // nothing to do if the result is no longer wanted, or
+                    // if another run of the batch has failed
+                    if ((result != null && result.isCancelled()) ||
+                        failure.get() != null)
+                        return;
+
+                    int ti = threads.add();
+                    try {
+                        begin();
+                        total.addAndGet(transferRun(write, bufs, positions,
+                                                    order, from, to));
+                    } catch (IOException x) {
+                        if (!isOpen())
+                            x = new AsynchronousCloseException();
+                        failure.compareAndSet(null, x);
+                    } finally {
+                        end();
+                        threads.remove(ti);
+                    }
+                }
+
+                void complete() {
+                    runDone.run();
+                }
+
+                void fail(Throwable x) {
+                    failure.compareAndSet(null, x);
+                    runDone.run();
+                }
+            };
+            try {
+                submit(request);
+            } catch (RejectedExecutionException x) {
+                if (r == 0)
+                    throw x;
+                // the runs submitted already complete the batch
+                failure.compareAndSet(null, x);
+                for (int left = runs.length - 1 - r; left > 0; left--)
+                    runDone.run();
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexes of the transfers in file position order.
+     */
+    private static Integer[] sortedOrder(long[] positions) {
+        int count = positions.length;
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(positions[a], positions[b]));
+        return order;
+    }
+
+    /**
+     * Splits the transfers, in file position order, into runs of transfers
+     * of adjacent file regions, skipping the transfers with no bytes
+     * remaining. Returns the start of each run in order, followed by the
+     * end of the last run.
+     */
+    private static int[] runs(ByteBuffer[] bufs, long[] positions,
+                              Integer[] order)
+    {
+        int count = order.length;
+        int[] runs = new int[count + 1];
+        int nruns = 0;
+        int i = 0;
+        while (i < count && !bufs[order[i]].hasRemaining())
+            i++;
+        while (i < count) {
+            int first = order[i];
+            long start = positions[first];
+            long end = start + bufs[first].remaining();
+            runs[nruns++] = i;
+            int j = i + 1;
+            while (j < count) {
+                int k = order[j];
+                int rem = bufs[k].remaining();
+                if (rem == 0) {
+                    j++;
+                    continue;
+                }
+                if (positions[k] != end || end - start + rem > MAX_COALESCED_SIZE)
+                    break;
+                end += rem;
+                j++;
+            }
+            i = j;
+        }
+        runs[nruns++] = count;
+        return Arrays.copyOf(runs, nruns);
+    }
+
+    /**
+     * Performs the transfers order[from..to), which cover adjacent file
+     * regions, with a single read or write if there are several.
+     */
+    private long transferRun(boolean write,
+                             ByteBuffer[] bufs,
+                             long[] positions,
+                             Integer[] order,
+                             int from,
+                             int to)
+        throws IOException
+    {
+        int first = order[from];
+        long start = positions[first];
+        long size = 0;
+        int n = 0;
+        for (int x = from; x < to; x++) {
+            int rem = bufs[order[x]].remaining();
+            if (rem > 0) {
+                size += rem;
+                n++;
+            }
+        }
+        if (n == 1)
+            return transfer(write, bufs[first], start);
+        return transferCoalesced(write, bufs, order, from, to, start,
+                                 (int)size);
+    }
+
+    /**
+     * Transfers the remaining bytes of a buffer, stopping early only at the
+     * end of the file when reading.
+     */
+    private long transfer(boolean write, ByteBuffer bb, long position)
+        throws IOException
+    {
+        long n = 0;
+        while (bb.hasRemaining()) {
+            int r;
+            do {
+                r = write ? IOUtil.write(fdObj, bb, position + n, nd)
+                          : IOUtil.read(fdObj, bb, position + n, nd);
+            } while ((r == IOStatus.INTERRUPTED) && isOpen());
+            if (r <= 0) {
+                if (!isOpen())
+                    throw new AsynchronousCloseException();
+                break;
+            }
+            n += r;
+        }
+        return n;
+    }
+
+    /**
+     * Transfers the buffers order[from..to), which cover the adjacent file
+     * regions starting at the given position, with one temporary buffer.
+     */
+    private long transferCoalesced(boolean write,
+                                   ByteBuffer[] bufs,
+                                   Integer[] order,
+                                   int from,
+                                   int to,
+                                   long position,
+                                   int size)
+        throws IOException
+    {
+        ByteBuffer bb = Util.getTemporaryDirectBuffer(size);
+        try {
+            if (write) {
+                for (int x = from; x < to; x++)
+                    bb.put(bufs[order[x]].duplicate());
+                bb.flip();
+                long n = transfer(true, bb, position);
+                // consume the bytes written from the sources
+                long left = n;
+                for (int x = from; x < to && left > 0; x++) {
+                    ByteBuffer src = bufs[order[x]];
+                    int len = (int)Math.min(src.remaining(), left);
+                    src.position(src.position() + len);
+                    left -= len;
+                }
+                return n;
+            } else {
+                long n = transfer(false, bb, position);
+                bb.flip();
+                for (int x = from; x < to && bb.hasRemaining(); x++) {
+                    ByteBuffer dst = bufs[order[x]];
+                    int len = Math.min(dst.remaining(), bb.remaining());
+                    int lim = bb.limit();
+                    bb.limit(bb.position() + len);
+                    dst.put(bb);
+                    bb.limit(lim);
+                }
+                return n;
+            }
+        } finally {
+            Util.releaseTemporaryDirectBuffer(bb);
+        }
+    }
 }
@@ -238,7 +238,7 @@ public class Util {
                 buf = cache.removeFirst();
                 free(buf);
             }
-            return ByteBuffer.allocateDirect(size);
+            return DirectBufferPool.allocate(size);
         }
     }
 
@@ -293,10 +293,11 @@ public class Util {
     }
 
     /**
-     * Frees the memory for the given direct buffer
+     * Frees the memory for the given direct buffer, or returns it to the
+     * direct buffer pool it was allocated from
      */
     private static void free(ByteBuffer buf) {
-        ((DirectBuffer)buf).cleaner().clean();
+        DirectBufferPool.release(buf);
     }
 
 
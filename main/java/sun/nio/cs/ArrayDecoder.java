@@ -32,4 +32,22 @@ package sun.nio.cs;
 
 public interface ArrayDecoder {
     int decode(byte[] src, int off, int len, char[] dst);
+
+    /*
+     * Tells whether each byte is decoded on its own to exactly one char,
+     * so that input can be decoded in pieces of any size with the method
+     * below.
+     */
+    default boolean isSingleByte() {
+        return false;
+    }
+
+    /*
+     * FastPath for single-byte decoders: decodes len bytes from src[sp] to
+     * len chars from dst[dp], REPLACE on unmappable input.
+     */
+    default void decodeSingleByte(byte[] src, int sp, int len,
+                                  char[] dst, int dp) {
+        throw new UnsupportedOperationException();
+    }
 }
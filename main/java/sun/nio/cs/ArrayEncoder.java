@@ -32,4 +32,23 @@ package sun.nio.cs;
 
 public interface ArrayEncoder {
     int encode(char[] src, int off, int len, byte[] dst);
+
+    /*
+     * Tells whether each char is encoded to exactly one byte, and each
+     * surrogate pair to one replacement byte, so that input not ending
+     * with a high surrogate can be encoded in pieces with the method below.
+     */
+    default boolean isSingleByte() {
+        return false;
+    }
+
+    /*
+     * FastPath for single-byte encoders: encodes len chars from src[sp] to
+     * dst[dp], which must have room for len bytes. REPLACE on malformed or
+     * unmappable input. Returns the number of bytes written.
+     */
+    default int encodeSingleByte(char[] src, int sp, int len,
+                                 byte[] dst, int dp) {
+        throw new UnsupportedOperationException();
+    }
 }
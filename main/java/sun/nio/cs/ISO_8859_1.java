@@ -129,6 +129,17 @@ class ISO_8859_1
                 dst[dp++] = (char)(src[sp++] & 0xff);
             return dp;
         }
+
+        public boolean isSingleByte() {
+            return true;
+        }
+
+        public void decodeSingleByte(byte[] src, int sp, int len,
+                                     char[] dst, int dp) {
+            int sl = sp + len;
+            while (sp < sl)
+                dst[dp++] = (char)(src[sp++] & 0xff);
+        }
     }
 
     private static class Encoder extends CharsetEncoder
@@ -261,5 +272,29 @@ class ISO_8859_1
             }
             return dp;
         }
+
+        public boolean isSingleByte() {
+            return true;
+        }
+
+        public int encodeSingleByte(char[] src, int sp, int len,
+                                    byte[] dst, int dp) {
+            int dp0 = dp;
+            int sl = sp + len;
+            while (sp < sl) {
+                int ret = encodeISOArray(src, sp, dst, dp, sl - sp);
+                sp = sp + ret;
+                dp = dp + ret;
+                if (sp < sl) {
+                    char c = src[sp++];
+                    if (Character.isHighSurrogate(c) && sp < sl &&
+                        Character.isLowSurrogate(src[sp])) {
+                        sp++;
+                    }
+                    dst[dp++] = repl;
+                }
+            }
+            return dp - dp0;
+        }
     }
 }
@@ -49,10 +49,21 @@ public class SingleByte
     final public static class Decoder extends CharsetDecoder
                                       implements ArrayDecoder {
         private final char[] b2c;
+        // true if bytes 0x00-0x7f decode to chars of the same value
+        private final boolean isASCIICompatible;
 
         public Decoder(Charset cs, char[] b2c) {
             super(cs, 1.0f, 1.0f);
             this.b2c = b2c;
+            this.isASCIICompatible = isASCIICompatible(b2c);
+        }
+
+        private static boolean isASCIICompatible(char[] b2c) {
+            for (int b = 0; b < 0x80; b++) {
+                if (b2c[b + 128] != b)
+                    return false;
+            }
+            return true;
         }
 
         private CoderResult decodeArrayLoop(ByteBuffer src, CharBuffer dst) {
@@ -70,6 +81,16 @@ public class SingleByte
                 cr = CoderResult.OVERFLOW;
             }
 
+            if (isASCIICompatible) {
+                int i = 0;
+                while (i < sl - sp && sa[sp + i] >= 0) {
+                    da[dp + i] = (char)sa[sp + i];
+                    i++;
+                }
+                sp += i;
+                dp += i;
+            }
+
             while (sp < sl) {
                 char c = decode(sa[sp]);
                 if (c == UNMAPPABLE_DECODING) {
@@ -119,15 +140,33 @@ public class SingleByte
         public int decode(byte[] src, int sp, int len, char[] dst) {
             if (len > dst.length)
                 len = dst.length;
-            int dp = 0;
-            while (dp < len) {
-                dst[dp] = decode(src[sp++]);
-                if (dst[dp] == UNMAPPABLE_DECODING) {
-                    dst[dp] = repl;
+            decodeSingleByte(src, sp, len, dst, 0);
+            return len;
+        }
+
+        public boolean isSingleByte() {
+            return true;
+        }
+
+        public void decodeSingleByte(byte[] src, int sp, int len,
+                                     char[] dst, int dp) {
+            int sl = sp + len;
+            if (isASCIICompatible) {
+                int i = 0;
+                while (i < sl - sp && src[sp + i] >= 0) {
+                    dst[dp + i] = (char)src[sp + i];
+                    i++;
                 }
-                dp++;
+                sp += i;
+                dp += i;
+            }
+            while (sp < sl) {
+                char c = decode(src[sp++]);
+                if (c == UNMAPPABLE_DECODING) {
+                    c = repl;
+                }
+                dst[dp++] = c;
             }
-            return dp;
         }
     }
 
@@ -136,11 +175,25 @@ public class SingleByte
         private Surrogate.Parser sgp;
         private final char[] c2b;
         private final char[] c2bIndex;
+        // true if chars 0x00-0x7f encode to bytes of the same value
+        private final boolean isASCIICompatible;
 
         public Encoder(Charset cs, char[] c2b, char[] c2bIndex) {
             super(cs, 1.0f, 1.0f);
             this.c2b = c2b;
             this.c2bIndex = c2bIndex;
+            this.isASCIICompatible = isASCIICompatible(c2b, c2bIndex);
+        }
+
+        private static boolean isASCIICompatible(char[] c2b, char[] c2bIndex) {
+            char index = c2bIndex[0];
+            if (index == UNMAPPABLE_ENCODING)
+                return false;
+            for (int c = 0; c < 0x80; c++) {
+                if (c2b[index + c] != c)
+                    return false;
+            }
+            return true;
         }
 
         public boolean canEncode(char c) {
@@ -167,6 +220,16 @@ public class SingleByte
                 cr = CoderResult.OVERFLOW;
             }
 
+            if (isASCIICompatible) {
+                int i = 0;
+                while (i < sl - sp && sa[sp + i] < 0x80) {
+                    da[dp + i] = (byte)sa[sp + i];
+                    i++;
+                }
+                sp += i;
+                dp += i;
+            }
+
             while (sp < sl) {
                 char c = sa[sp];
                 int b = encode(c);
@@ -255,6 +318,38 @@ public class SingleByte
             }
             return dp;
         }
+
+        public boolean isSingleByte() {
+            return true;
+        }
+
+        public int encodeSingleByte(char[] src, int sp, int len,
+                                    byte[] dst, int dp) {
+            int dp0 = dp;
+            int sl = sp + len;
+            if (isASCIICompatible) {
+                int i = 0;
+                while (i < sl - sp && src[sp + i] < 0x80) {
+                    dst[dp + i] = (byte)src[sp + i];
+                    i++;
+                }
+                sp += i;
+                dp += i;
+            }
+            while (sp < sl) {
+                char c = src[sp++];
+                int b = encode(c);
+                if (b == UNMAPPABLE_ENCODING) {
+                    if (Character.isHighSurrogate(c) && sp < sl &&
+                        Character.isLowSurrogate(src[sp])) {
+                        sp++;
+                    }
+                    b = repl;
+                }
+                dst[dp++] = (byte)b;
+            }
+            return dp - dp0;
+        }
     }
 
     // init the c2b and c2bIndex tables from b2c.
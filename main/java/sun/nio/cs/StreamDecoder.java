@@ -32,6 +32,7 @@ import java.io.*;
 import java.nio.*;
 import java.nio.channels.*;
 import java.nio.charset.*;
+import sun.misc.IOBufferCache;
 
 public class StreamDecoder extends Reader
 {
@@ -192,6 +193,7 @@ public class StreamDecoder extends Reader
                 return;
             implClose();
             isOpen = false;
+            releaseBuffer();
         }
     }
 
@@ -223,6 +225,13 @@ public class StreamDecoder extends Reader
     private CharsetDecoder decoder;
     private ByteBuffer bb;
 
+    // True if bb wraps an array taken from the IOBufferCache
+    private boolean pooled;
+
+    // The decoder, if it is a single-byte ArrayDecoder created by this
+    // stream, which then decodes without the CharsetDecoder state machine
+    private ArrayDecoder singleByteDecoder;
+
     // Exactly one of these is non-null
     private InputStream in;
     private ReadableByteChannel ch;
@@ -232,6 +241,10 @@ public class StreamDecoder extends Reader
          cs.newDecoder()
          .onMalformedInput(CodingErrorAction.REPLACE)
          .onUnmappableCharacter(CodingErrorAction.REPLACE));
+        if (decoder instanceof ArrayDecoder
+            && ((ArrayDecoder)decoder).isSingleByte()
+            && bb.hasArray())
+            singleByteDecoder = (ArrayDecoder)decoder;
     }
 
     StreamDecoder(InputStream in, Object lock, CharsetDecoder dec) {
@@ -248,7 +261,16 @@ public class StreamDecoder extends Reader
         if (ch == null) {
         this.in = in;
         this.ch = null;
-        bb = ByteBuffer.allocate(DEFAULT_BYTE_BUFFER_SIZE);
+        // The buffer is only seen by the stream and the decoder, so it can
+        // come from the per-thread cache if neither of them can keep it
+        if (in instanceof FileInputStream
+            && IOBufferCache.isTrusted(in.getClass())
+            && IOBufferCache.isTrusted(dec.getClass())) {
+            bb = ByteBuffer.wrap(IOBufferCache.getByteArray());
+            pooled = true;
+        } else {
+            bb = ByteBuffer.allocate(DEFAULT_BYTE_BUFFER_SIZE);
+        }
         }
         bb.flip();                      // So that bb is initially empty
     }
@@ -308,6 +330,9 @@ public class StreamDecoder extends Reader
         // to deal with it here.
         assert (end - off > 1);
 
+        if (singleByteDecoder != null)
+            return implReadSingleByte(cbuf, off, end);
+
         CharBuffer cb = CharBuffer.wrap(cbuf, off, end - off);
         if (cb.position() != 0)
         // Ensure that cb[0] == cbuf[off]
@@ -352,6 +377,32 @@ public class StreamDecoder extends Reader
         return cb.position();
     }
 
+    // Each byte is decoded on its own, so the bytes read are decoded straight
+    // into cbuf, as many as fit, and none is left over at end of input
+    private int implReadSingleByte(char[] cbuf, int off, int end)
+        throws IOException
+    {
+        int dp = off;
+        for (;;) {
+            int n = Math.min(bb.remaining(), end - dp);
+            if (n > 0) {
+                int pos = bb.position();
+                singleByteDecoder.decodeSingleByte(bb.array(),
+                                                   bb.arrayOffset() + pos,
+                                                   n, cbuf, dp);
+                bb.position(pos + n);
+                dp += n;
+            }
+            if (dp == end)
+                break;
+            if ((dp > off) && !inReady())
+                break;          // Block at most once
+            if (readBytes() < 0)
+                break;
+        }
+        return (dp == off) ? -1 : dp - off;
+    }
+
     String encodingName() {
         return ((cs instanceof HistoricallyNamedCharset)
             ? ((HistoricallyNamedCharset)cs).historicalName()
@@ -378,4 +429,23 @@ public class StreamDecoder extends Reader
         in.close();
     }
 
+    // Gives the buffer back to the cache once the stream is closed; the
+    // lock is held and every other use of bb is preceded by ensureOpen
+    private void releaseBuffer() {
+        if (pooled) {
+            pooled = false;
+            IOBufferCache.releaseByteArray(bb.array());
+            bb = null;
+        }
+    }
+
+    /**
+     * Tells whether the char arrays passed to the read methods of this
+     * decoder are only seen by classes of the bootstrap class loader, in
+     * which case the caller may take them from the {@link IOBufferCache}.
+     */
+    public boolean hasTrustedDecoder() {
+        return IOBufferCache.isTrusted(decoder.getClass());
+    }
+
 }
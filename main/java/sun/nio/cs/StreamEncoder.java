@@ -32,6 +32,7 @@ import java.io.*;
 import java.nio.*;
 import java.nio.channels.*;
 import java.nio.charset.*;
+import sun.misc.IOBufferCache;
 
 public class StreamEncoder extends Writer
 {
@@ -148,6 +149,7 @@ public class StreamEncoder extends Writer
                 return;
             implClose();
             isOpen = false;
+            releaseBuffer();
         }
     }
 
@@ -162,6 +164,13 @@ public class StreamEncoder extends Writer
     private CharsetEncoder encoder;
     private ByteBuffer bb;
 
+    // True if bb wraps an array taken from the IOBufferCache
+    private boolean pooled;
+
+    // The encoder, if it is a single-byte ArrayEncoder created by this
+    // stream, which then encodes without the CharsetEncoder state machine
+    private ArrayEncoder singleByteEncoder;
+
     // Exactly one of these is non-null
     private final OutputStream out;
     private WritableByteChannel ch;
@@ -176,6 +185,11 @@ public class StreamEncoder extends Writer
          cs.newEncoder()
          .onMalformedInput(CodingErrorAction.REPLACE)
          .onUnmappableCharacter(CodingErrorAction.REPLACE));
+        if (encoder instanceof ArrayEncoder
+            && ((ArrayEncoder)encoder).isSingleByte()
+            && encoder.replacement().length == 1
+            && bb.hasArray())
+            singleByteEncoder = (ArrayEncoder)encoder;
     }
 
     private StreamEncoder(OutputStream out, Object lock, CharsetEncoder enc) {
@@ -192,7 +206,16 @@ public class StreamEncoder extends Writer
                     bb = ByteBuffer.allocateDirect(DEFAULT_BYTE_BUFFER_SIZE);
         }
             if (ch == null) {
-        bb = ByteBuffer.allocate(DEFAULT_BYTE_BUFFER_SIZE);
+        // The buffer is only seen by the encoder and the stream, so it can
+        // come from the per-thread cache if neither of them can keep it
+        if (out instanceof FileOutputStream
+            && IOBufferCache.isTrusted(out.getClass())
+            && IOBufferCache.isTrusted(enc.getClass())) {
+            bb = ByteBuffer.wrap(IOBufferCache.getByteArray());
+            pooled = true;
+        } else {
+            bb = ByteBuffer.allocate(DEFAULT_BYTE_BUFFER_SIZE);
+        }
         }
     }
 
@@ -267,6 +290,9 @@ public class StreamEncoder extends Writer
         if (haveLeftoverChar)
         flushLeftoverChar(cb, false);
 
+        if (singleByteEncoder != null)
+            implWriteSingleByte(cb);
+
         while (cb.hasRemaining()) {
         CoderResult cr = encoder.encode(cb, bb, false);
         if (cr.isUnderflow()) {
@@ -286,6 +312,28 @@ public class StreamEncoder extends Writer
         }
     }
 
+    // Encodes straight into bb, in pieces that do not end with a high
+    // surrogate; such a char, and any that does not fit, is left in cb
+    // for the encoder
+    private void implWriteSingleByte(CharBuffer cb) throws IOException {
+        char[] sa = cb.array();
+        byte[] da = bb.array();
+        while (cb.hasRemaining()) {
+            int n = Math.min(cb.remaining(), bb.remaining());
+            if (n == 0) {
+                writeBytes();
+                continue;
+            }
+            int sp = cb.arrayOffset() + cb.position();
+            if (Character.isHighSurrogate(sa[sp + n - 1]) && --n == 0)
+                return;
+            int dp = bb.arrayOffset() + bb.position();
+            int written = singleByteEncoder.encodeSingleByte(sa, sp, n, da, dp);
+            cb.position(cb.position() + n);
+            bb.position(bb.position() + written);
+        }
+    }
+
     void implFlushBuffer() throws IOException {
         if (bb.position() > 0)
         writeBytes();
@@ -324,6 +372,25 @@ public class StreamEncoder extends Writer
         }
     }
 
+    // Gives the buffer back to the cache once the stream is closed; the
+    // lock is held and every other use of bb is preceded by ensureOpen
+    private void releaseBuffer() {
+        if (pooled) {
+            pooled = false;
+            IOBufferCache.releaseByteArray(bb.array());
+            bb = null;
+        }
+    }
+
+    /**
+     * Tells whether the char arrays passed to the write methods of this
+     * encoder are only seen by classes of the bootstrap class loader, in
+     * which case the caller may take them from the {@link IOBufferCache}.
+     */
+    public boolean hasTrustedEncoder() {
+        return IOBufferCache.isTrusted(encoder.getClass());
+    }
+
     String encodingName() {
         return ((cs instanceof HistoricallyNamedCharset)
             ? ((HistoricallyNamedCharset)cs).historicalName()
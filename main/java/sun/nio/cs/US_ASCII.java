@@ -146,6 +146,22 @@ public class US_ASCII
             }
             return dp;
         }
+
+        public boolean isSingleByte() {
+            return true;
+        }
+
+        public void decodeSingleByte(byte[] src, int sp, int len,
+                                     char[] dst, int dp) {
+            int sl = sp + len;
+            while (sp < sl) {
+                byte b = src[sp++];
+                if (b >= 0)
+                    dst[dp++] = (char)b;
+                else
+                    dst[dp++] = repl;
+            }
+        }
     }
 
     private static class Encoder extends CharsetEncoder
@@ -259,6 +275,29 @@ public class US_ASCII
             }
             return dp;
         }
+
+        public boolean isSingleByte() {
+            return true;
+        }
+
+        public int encodeSingleByte(char[] src, int sp, int len,
+                                    byte[] dst, int dp) {
+            int dp0 = dp;
+            int sl = sp + len;
+            while (sp < sl) {
+                char c = src[sp++];
+                if (c < 0x80) {
+                    dst[dp++] = (byte)c;
+                    continue;
+                }
+                if (Character.isHighSurrogate(c) && sp < sl &&
+                    Character.isLowSurrogate(src[sp])) {
+                    sp++;
+                }
+                dst[dp++] = repl;
+            }
+            return dp - dp0;
+        }
     }
 
 }
@@ -115,6 +115,9 @@ public class DoubleByte {
         final char[] b2cSB;
         final int b2Min;
         final int b2Max;
+        // true if bytes 0x00-0x7f decode on their own to chars of the same
+        // value, used by the decode loops to copy runs of ASCII bytes
+        final boolean isASCIICompatible;
 
         // for SimpleEUC override
         protected CoderResult crMalformedOrUnderFlow(int b) {
@@ -138,6 +141,17 @@ public class DoubleByte {
             this.b2cSB = b2cSB;
             this.b2Min = b2Min;
             this.b2Max = b2Max;
+            this.isASCIICompatible = isASCIICompatible(b2cSB);
+        }
+
+        private static boolean isASCIICompatible(char[] b2cSB) {
+            if (b2cSB == null)
+                return false;
+            for (int b = 0; b < 0x80; b++) {
+                if (b2cSB[b] != b)
+                    return false;
+            }
+            return true;
         }
 
         Decoder(Charset cs, char[][] b2c, char[] b2cSB, int b2Min, int b2Max) {
@@ -154,6 +168,16 @@ public class DoubleByte {
             int dl = dst.arrayOffset() + dst.limit();
 
             try {
+                if (isASCIICompatible) {
+                    int n = Math.min(sl - sp, dl - dp);
+                    int i = 0;
+                    while (i < n && sa[sp + i] >= 0) {
+                        da[dp + i] = (char)sa[sp + i];
+                        i++;
+                    }
+                    sp += i;
+                    dp += i;
+                }
                 while (sp < sl && dp < dl) {
                     // inline the decodeSingle/Double() for better performance
                     int inSize = 1;
@@ -219,6 +243,15 @@ public class DoubleByte {
             int dp = 0;
             int sl = sp + len;
             char repl = replacement().charAt(0);
+            if (isASCIICompatible) {
+                int i = 0;
+                while (i < sl - sp && src[sp + i] >= 0) {
+                    dst[dp + i] = (char)src[sp + i];
+                    i++;
+                }
+                sp += i;
+                dp += i;
+            }
             while (sp < sl) {
                 int b1 = src[sp++] & 0xff;
                 char c = b2cSB[b1];
@@ -485,6 +518,15 @@ public class DoubleByte {
             int dp = 0;
             int sl = sp + len;
             char repl = replacement().charAt(0);
+            if (isASCIICompatible) {
+                int i = 0;
+                while (i < sl - sp && src[sp + i] >= 0) {
+                    dst[dp + i] = (char)src[sp + i];
+                    i++;
+                }
+                sp += i;
+                dp += i;
+            }
             while (sp < sl) {
                 int b1 = src[sp++] & 0xff;
                 char c = b2cSB[b1];
@@ -515,17 +557,35 @@ public class DoubleByte {
         private final char[] c2b;
         private final char[] c2bIndex;
         Surrogate.Parser sgp;
+        // true if chars 0x00-0x7f encode to bytes of the same value, used
+        // by encodeArrayLoop to copy runs of ASCII chars. Only set for the
+        // classes that do not override encodeChar.
+        private final boolean isASCIICompatible;
 
         protected Encoder(Charset cs, char[] c2b, char[] c2bIndex) {
             super(cs, 2.0f, 2.0f);
             this.c2b = c2b;
             this.c2bIndex = c2bIndex;
+            this.isASCIICompatible = isASCIICompatible();
         }
 
         Encoder(Charset cs, float avg, float max, byte[] repl, char[] c2b, char[] c2bIndex) {
             super(cs, avg, max, repl);
             this.c2b = c2b;
             this.c2bIndex = c2bIndex;
+            this.isASCIICompatible = isASCIICompatible();
+        }
+
+        private boolean isASCIICompatible() {
+            if (c2b == null ||
+                (getClass() != Encoder.class &&
+                 getClass() != Encoder_EUC_SIM.class))
+                return false;
+            for (int c = 0; c < 0x80; c++) {
+                if (c2b[c2bIndex[0] + c] != c)
+                    return false;
+            }
+            return true;
         }
 
         public boolean canEncode(char c) {
@@ -548,6 +608,16 @@ public class DoubleByte {
             int dl = dst.arrayOffset() + dst.limit();
 
             try {
+                if (isASCIICompatible) {
+                    int n = Math.min(sl - sp, dl - dp);
+                    int i = 0;
+                    while (i < n && sa[sp + i] < 0x80) {
+                        da[dp + i] = (byte)sa[sp + i];
+                        i++;
+                    }
+                    sp += i;
+                    dp += i;
+                }
                 while (sp < sl) {
                     char c = sa[sp];
                     int bb = encodeChar(c);
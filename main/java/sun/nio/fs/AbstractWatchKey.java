@@ -26,7 +26,9 @@
 package sun.nio.fs;
 
 import java.nio.file.*;
+import java.security.AccessController;
 import java.util.*;
+import sun.security.action.GetIntegerAction;
 
 /**
  * Base implementation class for watch keys.
@@ -35,9 +37,10 @@ import java.util.*;
 abstract class AbstractWatchKey implements WatchKey {
 
     /**
-     * Maximum size of event list (in the future this may be tunable)
+     * Maximum size of event list, tunable with the
+     * {@code jdk.nio.file.WatchService.maxEventsPerPoll} property
      */
-    static final int MAX_EVENT_LIST_SIZE    = 512;
+    static final int MAX_EVENT_LIST_SIZE    = maxEventListSize();
 
     /**
      * Special event to signal overflow
@@ -66,6 +69,13 @@ abstract class AbstractWatchKey implements WatchKey {
     // event for the context is an ENTRY_MODIFY event).
     private Map<Object,WatchEvent<?>> lastModifyEvents;
 
+    private static int maxEventListSize() {
+        int size = AccessController.doPrivileged(
+            new GetIntegerAction("jdk.nio.file.WatchService.maxEventsPerPoll",
+                                 512));
+        return (size > 0) ? size : 512;
+    }
+
     protected AbstractWatchKey(Path dir, AbstractWatchService watcher) {
         this.watcher = watcher;
         this.dir = dir;
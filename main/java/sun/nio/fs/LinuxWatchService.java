@@ -28,17 +28,27 @@ package sun.nio.fs;
 import sun.misc.Unsafe;
 
 import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.sun.nio.file.ExtendedWatchEventModifier;
+import sun.security.action.GetIntegerAction;
+
 import static sun.nio.fs.UnixConstants.*;
 import static sun.nio.fs.UnixNativeDispatcher.read;
 import static sun.nio.fs.UnixNativeDispatcher.write;
@@ -50,6 +60,12 @@ import static sun.nio.fs.UnixNativeDispatcher.write;
  * mechanism. Requests to add or remove a watch, or close the watch service,
  * cause the thread to wakeup and process the request. Events are processed
  * by the thread which causes it to signal/queue the corresponding watch keys.
+ *
+ * A directory registered with the FILE_TREE modifier is watched along with
+ * all of its subdirectories, each having an inotify watch of its own. The
+ * thread adds watches for subdirectories as they are created or moved into
+ * the tree, and removes the watches of those moved out of it. The events of
+ * a file tree key have a context relative to the registered directory.
  */
 
 class LinuxWatchService
@@ -108,29 +124,30 @@ class LinuxWatchService
      * WatchKey implementation
      */
     private static class LinuxWatchKey extends AbstractWatchKey {
-        // inotify descriptor
-        private final int ifd;
         // watch descriptor
         private volatile int wd;
 
-        LinuxWatchKey(UnixPath dir, LinuxWatchService watcher, int ifd, int wd) {
+        // the following fields are accessed only by the poller thread
+
+        // inotify events to report
+        private int mask;
+        // true if registered with the FILE_TREE modifier
+        private boolean fileTree;
+        // for a file tree, maps the watch descriptors of the subdirectories
+        // to their path relative to the directory
+        private final Map<Integer,UnixPath> subdirs;
+
+        LinuxWatchKey(UnixPath dir, LinuxWatchService watcher, int wd) {
             super(dir, watcher);
-            this.ifd = ifd;
             this.wd = wd;
+            this.subdirs = new HashMap<Integer,UnixPath>();
         }
 
         int descriptor() {
             return wd;
         }
 
-        void invalidate(boolean remove) {
-            if (remove) {
-                try {
-                    inotifyRmWatch(ifd, wd);
-                } catch (UnixException x) {
-                    // ignore
-                }
-            }
+        void invalidate() {
             wd = -1;
         }
 
@@ -178,8 +195,29 @@ class LinuxWatchService
         private static final int IN_Q_OVERFLOW      = 0x00004000;
         private static final int IN_IGNORED         = 0x00008000;
 
+        private static final int IN_MASK_ADD        = 0x20000000;
+        private static final int IN_ISDIR           = 0x40000000;
+
+        // events needed on the directories of a file tree to follow its
+        // subdirectories
+        private static final int TREE_MASK =
+            IN_CREATE | IN_MOVED_TO | IN_MOVED_FROM;
+
+        // size of the largest event, with a name of NAME_MAX bytes
+        private static final int MAX_EVENT_SIZE = SIZEOF_INOTIFY_EVENT + 256;
+
         // sizeof buffer for when polling inotify
-        private static final int BUFFER_SIZE = 8192;
+        private static final int BUFFER_SIZE = bufferSize();
+
+        // maximum number of reads from inotify without polling
+        private static final int MAX_READS = 16;
+
+        private static int bufferSize() {
+            int size = AccessController.doPrivileged(
+                new GetIntegerAction("jdk.nio.file.WatchService.inotifyBufferSize",
+                                     64 * 1024));
+            return Math.max(size, 4096);
+        }
 
         private final UnixFileSystem fs;
         private final LinuxWatchService watcher;
@@ -188,17 +226,65 @@ class LinuxWatchService
         private final int ifd;
         // socketpair used to shutdown polling thread
         private final int socketpair[];
-        // maps watch descriptor to Key
-        private final Map<Integer,LinuxWatchKey> wdToKey;
+        // maps watch descriptor to Watch
+        private final Map<Integer,Watch> wdToWatch;
         // address of read buffer
         private final long address;
 
+        /**
+         * A directory watched with inotify, for the key registered for the
+         * directory and for the file tree keys that it is a subdirectory of.
+         */
+        private static class Watch {
+            final int wd;
+            // the inotify events of the watch
+            int mask;
+            // the key registered for the directory, or null
+            LinuxWatchKey key;
+            // the file tree keys the directory is a subdirectory of, or null
+            List<LinuxWatchKey> treeKeys;
+
+            Watch(int wd) {
+                this.wd = wd;
+            }
+
+            void addTreeKey(LinuxWatchKey k) {
+                if (treeKeys == null)
+                    treeKeys = new ArrayList<LinuxWatchKey>(1);
+                treeKeys.add(k);
+            }
+
+            void removeTreeKey(LinuxWatchKey k) {
+                if (treeKeys != null && treeKeys.remove(k) && treeKeys.isEmpty())
+                    treeKeys = null;
+            }
+
+            boolean isUnused() {
+                return key == null && treeKeys == null;
+            }
+
+            // the inotify events needed by the keys of the watch
+            int requiredMask() {
+                int m = 0;
+                if (key != null) {
+                    m |= key.mask;
+                    if (key.fileTree)
+                        m |= TREE_MASK;
+                }
+                if (treeKeys != null) {
+                    for (LinuxWatchKey k: treeKeys)
+                        m |= k.mask | TREE_MASK;
+                }
+                return m;
+            }
+        }
+
         Poller(UnixFileSystem fs, LinuxWatchService watcher, int ifd, int[] sp) {
             this.fs = fs;
             this.watcher = watcher;
             this.ifd = ifd;
             this.socketpair = sp;
-            this.wdToKey = new HashMap<Integer,LinuxWatchKey>();
+            this.wdToWatch = new HashMap<Integer,Watch>();
             this.address = unsafe.allocateMemory(BUFFER_SIZE);
         }
 
@@ -212,6 +298,151 @@ class LinuxWatchService
             }
         }
 
+        /**
+         * Adds the given events to the inotify watch of a directory, creating
+         * the watch if needed.
+         */
+        private Watch addWatch(UnixPath dir, int mask) throws UnixException {
+            int wd;
+            NativeBuffer buffer =
+                NativeBuffers.asNativeBuffer(dir.getByteArrayForSysCalls());
+            try {
+                wd = inotifyAddWatch(ifd, buffer.address(), mask | IN_MASK_ADD);
+            } finally {
+                buffer.release();
+            }
+            Watch w = wdToWatch.get(wd);
+            if (w == null) {
+                w = new Watch(wd);
+                wdToWatch.put(wd, w);
+            }
+            w.mask |= mask;
+            return w;
+        }
+
+        /**
+         * Removes the inotify watch if no key needs it anymore.
+         */
+        private void releaseIfUnused(Watch w) {
+            if (w.isUnused()) {
+                wdToWatch.remove(w.wd);
+                try {
+                    inotifyRmWatch(ifd, w.wd);
+                } catch (UnixException x) {
+                    // ignore
+                }
+            }
+        }
+
+        /**
+         * Watches the subdirectories of the given directory, and the
+         * directory itself if includeStart is true, for a file tree key.
+         * The directories already watched for the key are skipped. If
+         * signal is true then the files and directories found are signalled
+         * as created. Returns an IOException if the user limit of inotify
+         * watches is reached, or null.
+         */
+        private IOException addSubtree(final LinuxWatchKey key,
+                                       final UnixPath start,
+                                       final boolean includeStart,
+                                       boolean signal)
+        {
+            final UnixPath root = (UnixPath)key.watchable();
+            final int mask = key.mask | TREE_MASK;
+            final boolean signalCreate = signal && (key.mask & IN_CREATE) != 0;
+            try {
+                Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir,
+                                                             BasicFileAttributes attrs)
+                        throws IOException
+                    {
+                        if (dir == start && !includeStart)
+                            return FileVisitResult.CONTINUE;
+                        UnixPath rel = root.relativize(dir);
+                        if (dir != start && signalCreate)
+                            key.signalEvent(StandardWatchEventKinds.ENTRY_CREATE, rel);
+                        Watch w;
+                        try {
+                            w = addWatch((UnixPath)dir, mask);
+                        } catch (UnixException x) {
+                            if (x.errno() == ENOSPC)
+                                throw new IOException("User limit of inotify watches reached");
+                            // removed or not accessible
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        // a directory seen twice is mounted within the tree
+                        if (w.key == key || key.subdirs.containsKey(w.wd))
+                            return FileVisitResult.SKIP_SUBTREE;
+                        key.subdirs.put(w.wd, rel);
+                        w.addTreeKey(key);
+                        return FileVisitResult.CONTINUE;
+                    }
+                    @Override
+                    public FileVisitResult visitFile(Path file,
+                                                     BasicFileAttributes attrs)
+                    {
+                        if (signalCreate) {
+                            key.signalEvent(StandardWatchEventKinds.ENTRY_CREATE,
+                                            root.relativize(file));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file,
+                                                           IOException exc)
+                    {
+                        // removed or not accessible
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException x) {
+                return x;
+            }
+            return null;
+        }
+
+        /**
+         * Stops watching the subdirectories of a file tree key with the given
+         * relative path or under it, or all of them if rel is null.
+         */
+        private void removeSubtree(LinuxWatchKey key, UnixPath rel) {
+            Iterator<Map.Entry<Integer,UnixPath>> it =
+                key.subdirs.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer,UnixPath> entry = it.next();
+                if (rel == null || entry.getValue().startsWith(rel)) {
+                    it.remove();
+                    Watch w = wdToWatch.get(entry.getKey());
+                    if (w != null) {
+                        w.removeTreeKey(key);
+                        releaseIfUnused(w);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Rescans the whole tree of a file tree key, after events may have
+         * been lost. The watches of directories no longer in the tree are
+         * removed, and those of directories created in the meantime added.
+         */
+        private void rescanTree(LinuxWatchKey key) {
+            List<Integer> previous = new ArrayList<>(key.subdirs.keySet());
+            for (Integer wd: previous) {
+                Watch w = wdToWatch.get(wd);
+                if (w != null)
+                    w.removeTreeKey(key);
+            }
+            key.subdirs.clear();
+            addSubtree(key, (UnixPath)key.watchable(), false, false);
+            for (Integer wd: previous) {
+                Watch w = wdToWatch.get(wd);
+                if (w != null)
+                    releaseIfUnused(w);
+            }
+        }
+
         @Override
         Object implRegister(Path obj,
                             Set<? extends WatchEvent.Kind<?>> events,
@@ -235,9 +466,12 @@ class LinuxWatchService
                 }
             }
 
-            // no modifiers supported at this time
-            if (modifiers.length > 0) {
-                for (WatchEvent.Modifier modifier: modifiers) {
+            // FILE_TREE modifier allowed
+            boolean fileTree = false;
+            for (WatchEvent.Modifier modifier: modifiers) {
+                if (modifier == ExtendedWatchEventModifier.FILE_TREE) {
+                    fileTree = true;
+                } else {
                     if (modifier == null)
                         return new NullPointerException();
                     if (modifier instanceof com.sun.nio.file.SensitivityWatchEventModifier)
@@ -257,16 +491,10 @@ class LinuxWatchService
                 return new NotDirectoryException(dir.getPathForExceptionMessage());
             }
 
-            // register with inotify (replaces existing mask if already registered)
-            int wd = -1;
+            // register with inotify
+            Watch w;
             try {
-                NativeBuffer buffer =
-                    NativeBuffers.asNativeBuffer(dir.getByteArrayForSysCalls());
-                try {
-                    wd = inotifyAddWatch(ifd, buffer.address(), mask);
-                } finally {
-                    buffer.release();
-                }
+                w = addWatch(dir, fileTree ? (mask | TREE_MASK) : mask);
             } catch (UnixException x) {
                 if (x.errno() == ENOSPC) {
                     return new IOException("User limit of inotify watches reached");
@@ -274,11 +502,49 @@ class LinuxWatchService
                 return x.asIOException(dir);
             }
 
-            // ensure watch descriptor is in map
-            LinuxWatchKey key = wdToKey.get(wd);
-            if (key == null) {
-                key = new LinuxWatchKey(dir, watcher, ifd, wd);
-                wdToKey.put(wd, key);
+            // ensure watch has a key
+            LinuxWatchKey key = w.key;
+            boolean created = (key == null);
+            if (created) {
+                key = new LinuxWatchKey(dir, watcher, w.wd);
+                w.key = key;
+            }
+            key.mask = mask;
+
+            // replace the events of an existing registration
+            int required = w.requiredMask();
+            if (w.mask != required) {
+                try {
+                    NativeBuffer buffer =
+                        NativeBuffers.asNativeBuffer(dir.getByteArrayForSysCalls());
+                    try {
+                        inotifyAddWatch(ifd, buffer.address(), required);
+                    } finally {
+                        buffer.release();
+                    }
+                    w.mask = required;
+                } catch (UnixException x) {
+                    // ignore, unwanted events are filtered
+                }
+            }
+
+            // watch or stop watching the subdirectories
+            if (fileTree != key.fileTree) {
+                key.fileTree = fileTree;
+                if (fileTree) {
+                    IOException ioe = addSubtree(key, dir, false, false);
+                    if (ioe != null) {
+                        if (created) {
+                            implCancelKey(key);
+                        } else {
+                            removeSubtree(key, null);
+                            key.fileTree = false;
+                        }
+                        return ioe;
+                    }
+                } else {
+                    removeSubtree(key, null);
+                }
             }
             return key;
         }
@@ -288,19 +554,26 @@ class LinuxWatchService
         void implCancelKey(WatchKey obj) {
             LinuxWatchKey key = (LinuxWatchKey)obj;
             if (key.isValid()) {
-                wdToKey.remove(key.descriptor());
-                key.invalidate(true);
+                removeSubtree(key, null);
+                Watch w = wdToWatch.get(key.descriptor());
+                if (w != null) {
+                    w.key = null;
+                    releaseIfUnused(w);
+                }
+                key.invalidate();
             }
         }
 
         // close watch service
         @Override
         void implCloseAll() {
-            // invalidate all keys
-            for (Map.Entry<Integer,LinuxWatchKey> entry: wdToKey.entrySet()) {
-                entry.getValue().invalidate(true);
+            // invalidate all keys; the watches are removed when the inotify
+            // descriptor is closed
+            for (Watch w: wdToWatch.values()) {
+                if (w.key != null)
+                    w.key.invalidate();
             }
-            wdToKey.clear();
+            wdToWatch.clear();
 
             // free resources
             unsafe.freeMemory(address);
@@ -316,57 +589,30 @@ class LinuxWatchService
         public void run() {
             try {
                 for (;;) {
-                    int nReady, bytesRead;
+                    int nReady, bytesRead, totalRead, reads;
 
                     // wait for close or inotify event
                     nReady = poll(ifd, socketpair[0]);
 
-                    // read from inotify
-                    try {
-                        bytesRead = read(ifd, address, BUFFER_SIZE);
-                    } catch (UnixException x) {
-                        if (x.errno() != EAGAIN)
-                            throw x;
-                        bytesRead = 0;
-                    }
-
-                    // iterate over buffer to decode events
-                    int offset = 0;
-                    while (offset < bytesRead) {
-                        long event = address + offset;
-                        int wd = unsafe.getInt(event + OFFSETOF_WD);
-                        int mask = unsafe.getInt(event + OFFSETOF_MASK);
-                        int len = unsafe.getInt(event + OFFSETOF_LEN);
-
-                        // file name
-                        UnixPath name = null;
-                        if (len > 0) {
-                            int actual = len;
-
-                            // null-terminated and maybe additional null bytes to
-                            // align the next event
-                            while (actual > 0) {
-                                long last = event + OFFSETOF_NAME + actual - 1;
-                                if (unsafe.getByte(last) != 0)
-                                    break;
-                                actual--;
-                            }
-                            if (actual > 0) {
-                                byte[] buf = new byte[actual];
-                                unsafe.copyMemory(null, event + OFFSETOF_NAME,
-                                    buf, Unsafe.ARRAY_BYTE_BASE_OFFSET, actual);
-                                name = new UnixPath(fs, buf);
-                            }
+                    // read from inotify, reading again without polling while
+                    // the buffer fills up as more events are likely queued
+                    totalRead = 0;
+                    reads = 0;
+                    do {
+                        try {
+                            bytesRead = read(ifd, address, BUFFER_SIZE);
+                        } catch (UnixException x) {
+                            if (x.errno() != EAGAIN)
+                                throw x;
+                            bytesRead = 0;
                         }
-
-                        // process event
-                        processEvent(wd, mask, name);
-
-                        offset += (SIZEOF_INOTIFY_EVENT + len);
-                    }
+                        processEvents(bytesRead);
+                        totalRead += bytesRead;
+                    } while (bytesRead > BUFFER_SIZE - MAX_EVENT_SIZE &&
+                             ++reads < MAX_READS);
 
                     // process any pending requests
-                    if ((nReady > 1) || (nReady == 1 && bytesRead == 0)) {
+                    if ((nReady > 1) || (nReady == 1 && totalRead == 0)) {
                         try {
                             read(socketpair[0], address, BUFFER_SIZE);
                             boolean shutdown = processRequests();
@@ -383,6 +629,44 @@ class LinuxWatchService
             }
         }
 
+        /**
+         * Iterates over the buffer to decode and process events
+         */
+        private void processEvents(int bytesRead) {
+            int offset = 0;
+            while (offset < bytesRead) {
+                long event = address + offset;
+                int wd = unsafe.getInt(event + OFFSETOF_WD);
+                int mask = unsafe.getInt(event + OFFSETOF_MASK);
+                int len = unsafe.getInt(event + OFFSETOF_LEN);
+
+                // file name
+                UnixPath name = null;
+                if (len > 0) {
+                    int actual = len;
+
+                    // null-terminated and maybe additional null bytes to
+                    // align the next event
+                    while (actual > 0) {
+                        long last = event + OFFSETOF_NAME + actual - 1;
+                        if (unsafe.getByte(last) != 0)
+                            break;
+                        actual--;
+                    }
+                    if (actual > 0) {
+                        byte[] buf = new byte[actual];
+                        unsafe.copyMemory(null, event + OFFSETOF_NAME,
+                            buf, Unsafe.ARRAY_BYTE_BASE_OFFSET, actual);
+                        name = new UnixPath(fs, buf);
+                    }
+                }
+
+                // process event
+                processEvent(wd, mask, name);
+
+                offset += (SIZEOF_INOTIFY_EVENT + len);
+            }
+        }
 
         /**
          * map inotify event to WatchEvent.Kind
@@ -407,25 +691,40 @@ class LinuxWatchService
          * Process event from inotify
          */
         private void processEvent(int wd, int mask, final UnixPath name) {
-            // overflow - signal all keys
+            // overflow - signal all keys and rescan the file trees, as
+            // subdirectories may have been created or moved
             if ((mask & IN_Q_OVERFLOW) > 0) {
-                for (Map.Entry<Integer,LinuxWatchKey> entry: wdToKey.entrySet()) {
-                    entry.getValue()
-                        .signalEvent(StandardWatchEventKinds.OVERFLOW, null);
+                List<LinuxWatchKey> trees = new ArrayList<>();
+                for (Watch w: wdToWatch.values()) {
+                    if (w.key != null) {
+                        w.key.signalEvent(StandardWatchEventKinds.OVERFLOW, null);
+                        if (w.key.fileTree)
+                            trees.add(w.key);
+                    }
                 }
+                for (LinuxWatchKey key: trees)
+                    rescanTree(key);
                 return;
             }
 
-            // lookup wd to get key
-            LinuxWatchKey key = wdToKey.get(wd);
-            if (key == null)
-                return; // should not happen
+            // lookup wd to get watch
+            Watch w = wdToWatch.get(wd);
+            if (w == null)
+                return; // watch removed
 
             // file deleted
             if ((mask & IN_IGNORED) > 0) {
-                wdToKey.remove(wd);
-                key.invalidate(false);
-                key.signal();
+                wdToWatch.remove(wd);
+                if (w.treeKeys != null) {
+                    for (LinuxWatchKey k: w.treeKeys)
+                        k.subdirs.remove(wd);
+                }
+                LinuxWatchKey key = w.key;
+                if (key != null) {
+                    removeSubtree(key, null);
+                    key.invalidate();
+                    key.signal();
+                }
                 return;
             }
 
@@ -433,10 +732,46 @@ class LinuxWatchService
             if (name == null)
                 return;
 
-            // map to event and queue to key
+            // map to event and queue to the keys, following subdirectories
+            // created or moved in file trees
             WatchEvent.Kind<?> kind = maskToEventKind(mask);
-            if (kind != null) {
-                key.signalEvent(kind, name);
+            boolean isDir = (mask & IN_ISDIR) != 0;
+            if (w.key != null) {
+                LinuxWatchKey key = w.key;
+                if (kind != null && (mask & key.mask) != 0)
+                    key.signalEvent(kind, name);
+                if (key.fileTree && isDir)
+                    updateSubtree(key, name, mask);
+            }
+            if (w.treeKeys != null) {
+                for (LinuxWatchKey key:
+                     w.treeKeys.toArray(new LinuxWatchKey[w.treeKeys.size()]))
+                {
+                    UnixPath rel = key.subdirs.get(wd);
+                    if (rel == null)
+                        continue;
+                    UnixPath child = rel.resolve(name);
+                    if (kind != null && (mask & key.mask) != 0)
+                        key.signalEvent(kind, child);
+                    if (isDir)
+                        updateSubtree(key, child, mask);
+                }
+            }
+        }
+
+        /**
+         * Watches a subdirectory created or moved into a file tree, or stops
+         * watching one moved out of it.
+         */
+        private void updateSubtree(LinuxWatchKey key, UnixPath rel, int mask) {
+            if ((mask & (IN_CREATE | IN_MOVED_TO)) != 0) {
+                UnixPath dir = ((UnixPath)key.watchable()).resolve(rel);
+                if (addSubtree(key, dir, true, true) != null) {
+                    // watch limit reached, changes will be missed
+                    key.signalEvent(StandardWatchEventKinds.OVERFLOW, null);
+                }
+            } else if ((mask & IN_MOVED_FROM) != 0) {
+                removeSubtree(key, rel);
             }
         }
     }
@@ -44,6 +44,8 @@ import java.nio.file.WatchService;
 import java.util.Arrays;
 import java.util.Objects;
 
+import com.sun.nio.file.ExtendedWatchEventModifier;
+
 import static sun.nio.fs.UnixConstants.*;
 import static sun.nio.fs.UnixNativeDispatcher.open;
 import static sun.nio.fs.UnixNativeDispatcher.realpath;
@@ -905,7 +907,31 @@ class UnixPath
             throw new NullPointerException();
         if (!(watcher instanceof AbstractWatchService))
             throw new ProviderMismatchException();
-        checkRead();
+
+        // When a security manager is set then we need to make a defensive
+        // copy of the modifiers and check for the FILE_TREE modifier. When
+        // the modifier is present then check that permission has been
+        // granted recursively.
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            boolean watchSubtree = false;
+            final int ml = modifiers.length;
+            if (ml > 0) {
+                modifiers = Arrays.copyOf(modifiers, ml);
+                int i=0;
+                while (i < ml) {
+                    if (modifiers[i++] == ExtendedWatchEventModifier.FILE_TREE) {
+                        watchSubtree = true;
+                        break;
+                    }
+                }
+            }
+            String s = getPathForPermissionCheck();
+            sm.checkRead(s);
+            if (watchSubtree)
+                sm.checkRead(s + "/-");
+        }
+
         return ((AbstractWatchService)watcher).register(this, events, modifiers);
     }
 }
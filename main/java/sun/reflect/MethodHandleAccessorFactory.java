@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import sun.invoke.util.Wrapper;
+import sun.misc.VM;
+import sun.reflect.misc.ReflectUtil;
+
+/** Creates accessors that invoke methods and constructors through
+    method handles, adapted to the erased type (Object, Object[])Object
+    or (Object[])Object. Such adapters share their lambda forms with all
+    the members of the same basic shape, so no class is generated per
+    member, and they need no inflation: they are as fast on the first
+    invocation as later on. Used instead of the native and generated
+    accessors when sun.reflect.useMethodHandleAccessors is true. */
+
+class MethodHandleAccessorFactory {
+    private static class Holder {
+        // The lookup with access to all members
+        static final MethodHandles.Lookup IMPL_LOOKUP =
+            AccessController.doPrivileged(
+                new PrivilegedAction<MethodHandles.Lookup>() {
+                    public MethodHandles.Lookup run() {
+                        try {
+                            Field f = MethodHandles.Lookup.class
+                                .getDeclaredField("IMPL_LOOKUP");
+                            f.setAccessible(true);
+                            return (MethodHandles.Lookup) f.get(null);
+                        } catch (ReflectiveOperationException e) {
+                            throw new InternalError(e);
+                        }
+                    }
+                });
+    }
+
+    /** Returns an accessor for the given method, or null if it must be
+        invoked by the other accessors. */
+    static MethodAccessor newMethodAccessor(Method method) {
+        if (!useMethodHandle(method.getDeclaringClass()) ||
+            Reflection.isCallerSensitive(method)) {
+            // A method handle to a caller-sensitive method is bound to
+            // the class that looked it up, not to the caller of invoke
+            return null;
+        }
+        try {
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            int n = method.getParameterCount();
+            MethodHandle target = Holder.IMPL_LOOKUP.unreflect(method)
+                .asType(MethodType.genericMethodType(isStatic ? n : n + 1))
+                .asSpreader(Object[].class, n);
+            if (isStatic) {
+                target = MethodHandles.dropArguments(target, 0, Object.class);
+            }
+            return new MethodHandleMethodAccessorImpl(method, target);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Returns an accessor for the given constructor, or null if it must
+        be invoked by the other accessors. */
+    static ConstructorAccessor newConstructorAccessor(Constructor<?> c) {
+        if (!useMethodHandle(c.getDeclaringClass())) {
+            return null;
+        }
+        try {
+            int n = c.getParameterCount();
+            MethodHandle target = Holder.IMPL_LOOKUP.unreflectConstructor(c)
+                .asType(MethodType.genericMethodType(n))
+                .asSpreader(Object[].class, n);
+            return new MethodHandleConstructorAccessorImpl(c, target);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Method handles can only be created once the system class loader
+        is set. The
+        members of VM anonymous classes, and of the classes that implement
+        method handles, which may be needed to create method handles, are
+        left to the other accessors. */
+    private static boolean useMethodHandle(Class<?> declaringClass) {
+        if (!VM.isSystemLoaderInitialized() ||
+            ReflectUtil.isVMAnonymousClass(declaringClass)) {
+            return false;
+        }
+        String name = declaringClass.getName();
+        return !name.startsWith("java.lang.invoke.") &&
+               !name.startsWith("sun.invoke.");
+    }
+
+    /** Throws IllegalArgumentException unless the arguments can be passed
+        as parameters of the given types by Method.invoke, that is unless
+        each argument is an instance of its reference type, or a wrapper
+        of, or that widens to, its primitive type. Checking before the
+        invocation leaves only the exceptions of the member itself to be
+        thrown by the method handle. */
+    static void checkArguments(Class<?>[] types, Object[] args) {
+        int n = (args == null) ? 0 : args.length;
+        if (n != types.length) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        for (int i = 0; i < n; i++) {
+            Class<?> type = types[i];
+            Object arg = args[i];
+            if (type.isPrimitive()) {
+                if (arg == null) {
+                    // as thrown by the other accessors
+                    throw new IllegalArgumentException();
+                }
+                if (!Wrapper.isWrapperType(arg.getClass()) ||
+                    !Wrapper.forPrimitiveType(type).isConvertibleFrom(
+                        Wrapper.forWrapperType(arg.getClass()))) {
+                    throw new IllegalArgumentException("argument type mismatch");
+                }
+            } else if (arg != null && !type.isInstance(arg)) {
+                throw new IllegalArgumentException("argument type mismatch");
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/** Invokes a constructor through a method handle of type
+    (Object[])Object. See MethodHandleAccessorFactory. */
+
+class MethodHandleConstructorAccessorImpl extends ConstructorAccessorImpl {
+    private static final sun.misc.Unsafe unsafe = sun.misc.Unsafe.getUnsafe();
+
+    private final MethodHandle target;
+    private final Class<?> declaringClass;
+    private final Class<?>[] parameterTypes;
+    // whether the declaring class is initialized
+    private volatile boolean initialized;
+
+    MethodHandleConstructorAccessorImpl(Constructor<?> c, MethodHandle target) {
+        this.target = target;
+        this.declaringClass = c.getDeclaringClass();
+        this.parameterTypes = c.getParameterTypes();
+    }
+
+    public Object newInstance(Object[] args)
+        throws InstantiationException,
+               IllegalArgumentException,
+               InvocationTargetException
+    {
+        if (!initialized) {
+            // like the native accessor, throws any error of the class
+            // initialization as is
+            unsafe.ensureClassInitialized(declaringClass);
+            initialized = true;
+        }
+        MethodHandleAccessorFactory.checkArguments(parameterTypes, args);
+        try {
+            return target.invokeExact(args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
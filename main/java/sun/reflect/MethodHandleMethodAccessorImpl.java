@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/** Invokes a method through a method handle of type
+    (Object, Object[])Object. See MethodHandleAccessorFactory. */
+
+class MethodHandleMethodAccessorImpl extends MethodAccessorImpl {
+    private static final sun.misc.Unsafe unsafe = sun.misc.Unsafe.getUnsafe();
+
+    private final MethodHandle target;
+    private final Class<?> declaringClass;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    // whether the declaring class of a static method is initialized
+    private volatile boolean initialized;
+
+    MethodHandleMethodAccessorImpl(Method method, MethodHandle target) {
+        this.target = target;
+        this.declaringClass = method.getDeclaringClass();
+        this.parameterTypes = method.getParameterTypes();
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+    }
+
+    public Object invoke(Object obj, Object[] args)
+        throws IllegalArgumentException, InvocationTargetException
+    {
+        if (isStatic) {
+            if (!initialized) {
+                // like the native accessor, throws any error of the class
+                // initialization as is
+                unsafe.ensureClassInitialized(declaringClass);
+                initialized = true;
+            }
+        } else if (!declaringClass.isInstance(obj)) {
+            if (obj == null) {
+                throw new NullPointerException();
+            }
+            throw new IllegalArgumentException(
+                "object is not an instance of declaring class");
+        }
+        MethodHandleAccessorFactory.checkArguments(parameterTypes, args);
+        try {
+            return target.invokeExact(obj, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
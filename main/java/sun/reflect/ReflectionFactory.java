@@ -88,6 +88,11 @@ public class ReflectionFactory {
     private static boolean noInflation        = false;
     private static int     inflationThreshold = 15;
 
+    // Method handle based accessors need neither native invocations nor
+    // a generated class per member, and so no inflation; they are used
+    // when sun.reflect.useMethodHandleAccessors is true.
+    private static boolean useMethodHandleAccessors = false;
+
     private ReflectionFactory() {}
 
     /**
@@ -159,6 +164,14 @@ public class ReflectionFactory {
     public MethodAccessor newMethodAccessor(Method method) {
         checkInitted();
 
+        if (useMethodHandleAccessors) {
+            MethodAccessor acc =
+                MethodHandleAccessorFactory.newMethodAccessor(method);
+            if (acc != null) {
+                return acc;
+            }
+        }
+
         if (noInflation && !ReflectUtil.isVMAnonymousClass(method.getDeclaringClass())) {
             return new MethodAccessorGenerator().
                 generateMethod(method.getDeclaringClass(),
@@ -196,6 +209,14 @@ public class ReflectionFactory {
             return new BootstrapConstructorAccessorImpl(c);
         }
 
+        if (useMethodHandleAccessors) {
+            ConstructorAccessor acc =
+                MethodHandleAccessorFactory.newConstructorAccessor(c);
+            if (acc != null) {
+                return acc;
+            }
+        }
+
         if (noInflation && !ReflectUtil.isVMAnonymousClass(c.getDeclaringClass())) {
             return new MethodAccessorGenerator().
                 generateConstructor(c.getDeclaringClass(),
@@ -667,6 +688,11 @@ public class ReflectionFactory {
                         noInflation = true;
                     }
 
+                    val = System.getProperty("sun.reflect.useMethodHandleAccessors");
+                    if (val != null && val.equals("true")) {
+                        useMethodHandleAccessors = true;
+                    }
+
                     val = System.getProperty("sun.reflect.inflationThreshold");
                     if (val != null) {
                         try {
@@ -225,9 +225,14 @@ public class ManifestEntryVerifier {
         }
 
         // take it out of sigFileSigners and put it in verifiedSigners...
-        signers = sigFileSigners.remove(name);
-        if (signers != null) {
-            verifiedSigners.put(name, signers);
+        // atomically, as the entry may be verified by several threads
+        synchronized (sigFileSigners) {
+            signers = sigFileSigners.remove(name);
+            if (signers != null) {
+                verifiedSigners.put(name, signers);
+            } else {
+                signers = verifiedSigners.get(name);
+            }
         }
         return signers;
     }
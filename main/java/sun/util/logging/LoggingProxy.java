@@ -56,6 +56,10 @@ public interface LoggingProxy {
 
     public String getParentLoggerName(String loggerName);
 
+    public long getHandlerQueueDepth(String loggerName);
+
+    public long getHandlerDropCount(String loggerName);
+
     // Methods to bridge Level.parse() and Level.getName() method
     public Object parseLevel(String levelName);
 
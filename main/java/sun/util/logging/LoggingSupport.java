@@ -95,6 +95,16 @@ public class LoggingSupport {
         return proxy.getParentLoggerName(loggerName);
     }
 
+    public static long getHandlerQueueDepth(String loggerName) {
+        ensureAvailable();
+        return proxy.getHandlerQueueDepth(loggerName);
+    }
+
+    public static long getHandlerDropCount(String loggerName) {
+        ensureAvailable();
+        return proxy.getHandlerDropCount(loggerName);
+    }
+
     public static Object getLogger(String name) {
         ensureAvailable();
         return proxy.getLogger(name);